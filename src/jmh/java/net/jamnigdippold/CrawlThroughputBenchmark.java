@@ -0,0 +1,204 @@
+package net.jamnigdippold;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/*
+ * End-to-end benchmark of ThreadOrganizer.startConcurrentCrawling against a generated site on a local server.
+ * Run with: java -cp target/benchmarks.jar net.jamnigdippold.CrawlThroughputBenchmark
+ * Settings are read from system properties, e.g. -Dbenchmark.site.fanOut=8, and crawler.* properties apply as usual.
+ * The stub translation endpoint accepts any key, but without RAPIDAPI_API_KEY every request logs a missing key error.
+ */
+public class CrawlThroughputBenchmark {
+    private static final Logger logger = ErrorLogger.getInstance();
+    // filled by the fetchers of the crawl engine, which is created by the super constructor before any field of a subclass
+    private static final ConcurrentLinkedQueue<Long> fetchLatencies = new ConcurrentLinkedQueue<>();
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int fanOut = Integer.getInteger("benchmark.site.fanOut", 5);
+        int siteDepth = Integer.getInteger("benchmark.site.depth", 3);
+        int pageSize = Integer.getInteger("benchmark.site.pageSize", 16 * 1024);
+        long latencyMillis = Long.getLong("benchmark.site.latencyMillis", 20);
+        double errorRate = Double.parseDouble(System.getProperty("benchmark.site.errorRate", "0.02"));
+        long translationLatencyMillis = Long.getLong("benchmark.translation.latencyMillis", 5);
+        int crawlDepth = Integer.getInteger("benchmark.crawl.depth", siteDepth);
+        int warmupRuns = Integer.getInteger("benchmark.warmupRuns", 1);
+        int runs = Integer.getInteger("benchmark.runs", 3);
+
+        try (SyntheticSiteServer server = new SyntheticSiteServer(fanOut, siteDepth, pageSize, latencyMillis, errorRate, translationLatencyMillis)) {
+            server.start();
+            setDefaultProperty("crawler.translation.apiUrl", server.getTranslationApiUrl());
+            // every page lives on the same local host, the default politeness limits would measure only the throttle
+            setDefaultProperty("crawler.politeness.requestsPerSecond", "100000");
+            setDefaultProperty("crawler.politeness.maxConnectionsPerHost", "64");
+            System.out.printf("site: %d pages, fan-out %d, depth %d, %d bytes per page, %d ms latency, %.1f%% errors, crawl depth %d%n",
+                    server.getPageCount(), fanOut, siteDepth, pageSize, latencyMillis, errorRate * 100, crawlDepth);
+            for (int run = 1; run <= warmupRuns; run++) {
+                System.out.printf("%nwarmup %d/%d%n", run, warmupRuns);
+                runCrawl(server, crawlDepth);
+            }
+            for (int run = 1; run <= runs; run++) {
+                System.out.printf("%nrun %d/%d%n", run, runs);
+                runCrawl(server, crawlDepth);
+            }
+        }
+    }
+
+    private static void setDefaultProperty(String propertyName, String value) {
+        if (System.getProperty(propertyName) == null)
+            System.setProperty(propertyName, value);
+    }
+
+    private static void runCrawl(SyntheticSiteServer server, int crawlDepth) throws IOException {
+        fetchLatencies.clear();
+        logger.clearLog();
+        long pageRequestsBefore = server.getPageRequests();
+        long errorResponsesBefore = server.getErrorResponses();
+        long translationRequestsBefore = server.getTranslationRequests();
+        Path reportPath = Files.createTempFile("crawl-benchmark", ".md");
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+        CrawlEngine crawlEngine = new TimedCrawlEngine(configuration);
+        ThreadOrganizer threadOrganizer = new ThreadOrganizer(new String[]{server.getRootUrl()}, new int[]{crawlDepth}, new String[]{"de"},
+                reportPath.toString(), configuration, crawlEngine);
+
+        ResourceSampler sampler = new ResourceSampler();
+        sampler.start();
+        long startTime = System.nanoTime();
+        threadOrganizer.startConcurrentCrawling();
+        long elapsedNanos = System.nanoTime() - startTime;
+        sampler.stop();
+
+        long[] latencies = fetchLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double elapsedSeconds = elapsedNanos / 1e9;
+        System.out.printf("  crawl time:        %.3f s%n", elapsedSeconds);
+        System.out.printf("  pages fetched:     %d (%.1f pages/s)%n", latencies.length, latencies.length / elapsedSeconds);
+        System.out.printf("  server requests:   %d pages and link checks, %d error responses, %d translations%n", server.getPageRequests() - pageRequestsBefore,
+                server.getErrorResponses() - errorResponsesBefore, server.getTranslationRequests() - translationRequestsBefore);
+        printLatencies(latencies);
+        sampler.print(configuration.getPoolType());
+        printErrors(logger.getErrorSummary());
+        if (Boolean.getBoolean("benchmark.printMetrics"))
+            System.out.print(crawlEngine.getMetrics().getSnapshot().format().replaceAll("(?m)^", "  "));
+        System.out.printf("  report:            %d bytes%n", Files.size(reportPath));
+        Files.delete(reportPath);
+    }
+
+    private static void printLatencies(long[] latencies) {
+        if (latencies.length == 0)
+            return;
+        System.out.printf("  fetch latency:     p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n", percentile(latencies, 0.5),
+                percentile(latencies, 0.9), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        // buckets double in width, so the histogram stays readable from sub-millisecond to multi-second fetches
+        long[] bucketCounts = new long[64];
+        for (long latency : latencies) {
+            bucketCounts[63 - Long.numberOfLeadingZeros(Math.max(1, latency / 1000))]++;
+        }
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            if (bucketCounts[bucket] == 0)
+                continue;
+            char[] bar = new char[(int) Math.ceil(50.0 * bucketCounts[bucket] / latencies.length)];
+            Arrays.fill(bar, '#');
+            System.out.printf("    < %9.2f ms %6d %s%n", (1L << (bucket + 1)) / 1e3, bucketCounts[bucket], new String(bar));
+        }
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    private static void printErrors(ErrorSummary summary) {
+        System.out.printf("  errors:            %d%n", summary.getErrorCount());
+        for (Map.Entry<String, Long> errorType : summary.getErrorCountsByType().entrySet()) {
+            System.out.printf("    %s: %d%n", errorType.getKey(), errorType.getValue());
+        }
+    }
+
+    private static class TimedCrawlEngine extends CrawlEngine {
+        TimedCrawlEngine(CrawlerConfiguration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        protected PageFetcher createPageFetcher(PageFetcherType pageFetcherType) {
+            // wrapped inside the politeness scheduler, so waiting for a host slot is not counted as latency
+            return new TimedPageFetcher(super.createPageFetcher(pageFetcherType));
+        }
+    }
+
+    private static class TimedPageFetcher implements PageFetcher {
+        private final PageFetcher pageFetcher;
+
+        TimedPageFetcher(PageFetcher pageFetcher) {
+            this.pageFetcher = pageFetcher;
+        }
+
+        @Override
+        public FetchResult fetch(String url) {
+            long startTime = System.nanoTime();
+            FetchResult result = pageFetcher.fetch(url);
+            fetchLatencies.add(System.nanoTime() - startTime);
+            return result;
+        }
+
+        @Override
+        public FetchResult checkLink(String url) {
+            return pageFetcher.checkLink(url);
+        }
+    }
+
+    private static class ResourceSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator peakCrawlerThreads = new LongAccumulator(Math::max, 0);
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread samplerThread = new Thread(runnable, "resource-sampler");
+            samplerThread.setDaemon(true);
+            return samplerThread;
+        });
+        private long startedThreadsBefore;
+
+        void start() {
+            System.gc();
+            threads.resetPeakThreadCount();
+            startedThreadsBefore = threads.getTotalStartedThreadCount();
+            executor.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() {
+            executor.shutdown();
+            sample();
+        }
+
+        private void sample() {
+            peakHeap.accumulate(memory.getHeapMemoryUsage().getUsed());
+            Thread[] liveThreads = new Thread[Thread.activeCount() * 2 + 16];
+            int liveThreadCount = Thread.currentThread().getThreadGroup().enumerate(liveThreads);
+            int crawlerThreads = 0;
+            for (int i = 0; i < liveThreadCount; i++) {
+                if (!liveThreads[i].getName().startsWith("site-server-"))
+                    crawlerThreads++;
+            }
+            peakCrawlerThreads.accumulate(crawlerThreads);
+        }
+
+        void print(CrawlEngine.PoolType poolType) {
+            System.out.printf("  threads:           peak %d in the crawler (%s pool), peak %d in the JVM, %d started%n", peakCrawlerThreads.get(),
+                    poolType, threads.getPeakThreadCount(), threads.getTotalStartedThreadCount() - startedThreadsBefore);
+            System.out.printf("  peak heap:         %.1f MiB (sampled every %d ms)%n", peakHeap.get() / (1024.0 * 1024.0), SAMPLE_INTERVAL_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.jamnigdippold;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ErrorLoggerBenchmark {
+    private static final IOException ERROR = new IOException("Connection reset");
+    private static final String[] URLS = {
+            "https://www.example.com/missing", "https://blog.example.org/posts/1", "https://docs.example.net/index"
+    };
+
+    @Param({"64", "4096"})
+    private int capacity;
+
+    private ErrorLogger logger;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        logger = new ErrorLogger(capacity);
+        // a crawl with errors soon fills the ring, so writes and reads are measured on a full one
+        for (int i = 0; i < capacity; i++) {
+            logger.logError(ErrorRecord.Phase.FETCH, URLS[i % URLS.length], ERROR, "Error whilst connecting: " + ERROR);
+        }
+    }
+
+    @Benchmark
+    public void logMessage() {
+        logger.logError("Error whilst connecting to websiteUrl https://www.example.com/missing: " + ERROR);
+    }
+
+    @Benchmark
+    public void logStructuredError(ThreadIndex threadIndex) {
+        String url = URLS[threadIndex.next()];
+        logger.logError(ErrorRecord.Phase.FETCH, url, ERROR, "Error whilst connecting to websiteUrl " + url + ": " + ERROR);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<ErrorRecord> readErrorRecords() {
+        return logger.getErrorRecords();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadIndex {
+        private int index;
+
+        int next() {
+            index = (index + 1) % URLS.length;
+            return index;
+        }
+    }
+}
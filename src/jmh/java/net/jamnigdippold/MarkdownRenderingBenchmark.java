@@ -0,0 +1,83 @@
+package net.jamnigdippold;
+
+import org.jsoup.Jsoup;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownRenderingBenchmark {
+    private static final String BASE_URL = "https://www.example.com/";
+
+    @Param({"1", "3"})
+    private int depth;
+
+    private final MarkdownReportRenderer renderer = new MarkdownReportRenderer();
+    private WebsiteCrawler crawler;
+    private PageResult page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Elements headlines = Jsoup.parse(PageParsingBenchmark.readCorpus("article"), BASE_URL).select("h1, h2, h3, h4, h5, h6");
+        crawler = new WebsiteCrawler(BASE_URL, 3, "de", depth);
+        crawler.setCrawledHeadlines(headlines);
+        crawler.setTranslator(new UntranslatingTranslator());
+        crawler.outputCrawledHeadlines();
+        page = crawler.getPageResult();
+    }
+
+    @Benchmark
+    public String outputCrawledHeadlines() {
+        // translations are returned unchanged, so only collecting and rendering the headlines is measured
+        crawler.setUpOutput();
+        crawler.translateHeadlines();
+        crawler.outputCrawledHeadlines();
+        return crawler.getOutput();
+    }
+
+    @Benchmark
+    public StringWriter renderPage() throws IOException {
+        StringWriter output = new StringWriter();
+        renderer.renderPage(page, output);
+        return output;
+    }
+
+    @Benchmark
+    public StringWriter renderDepthIndicator() throws IOException {
+        StringWriter output = new StringWriter();
+        renderer.renderDepthIndicator(depth, output);
+        return output;
+    }
+
+    private static class UntranslatingTranslator extends TextTranslator {
+        UntranslatingTranslator() {
+            super(null);
+        }
+
+        @Override
+        public CompletableFuture<List<String>> translateAllAsync(List<String> inputs) {
+            return CompletableFuture.completedFuture(inputs);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.jamnigdippold;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageParsingBenchmark {
+    private static final String BASE_URL = "https://www.example.com/";
+
+    // saved pages in src/jmh/resources/corpus: a headline-heavy article and a link-heavy index
+    @Param({"article", "link-index"})
+    private String corpus;
+
+    private String html;
+    private WebsiteCrawler crawler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        html = readCorpus(corpus);
+        crawler = new WebsiteCrawler(BASE_URL, 2, "de");
+        crawler.setWebsiteDocumentConnection(Jsoup.parse(html, BASE_URL));
+    }
+
+    @Benchmark
+    public Document parse() {
+        return Jsoup.parse(html, BASE_URL);
+    }
+
+    @Benchmark
+    public Elements crawlHeadlines() {
+        crawler.crawlHeadlines();
+        return crawler.getCrawledHeadlines();
+    }
+
+    @Benchmark
+    public List<String> crawlWebsiteLinks() {
+        crawler.crawlWebsiteLinks();
+        return crawler.getCrawledLinks();
+    }
+
+    protected static String readCorpus(String name) throws IOException {
+        try (InputStream input = PageParsingBenchmark.class.getResourceAsStream("/corpus/" + name + ".html")) {
+            if (input == null)
+                throw new IOException("Missing benchmark corpus: " + name);
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package net.jamnigdippold;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SyntheticSiteServer implements AutoCloseable {
+    private static final String PAGE_PATH = "/page/";
+    private static final String[] WORDS = {
+            "crawler", "request", "response", "latency", "throughput", "cache", "frontier", "politeness",
+            "robots", "render", "header", "link", "page", "host", "queue", "thread", "depth", "report"
+    };
+    private final int fanOut;
+    private final int pageCount;
+    private final int pageSize;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final long translationLatencyMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder pageRequests = new LongAdder();
+    private final LongAdder errorResponses = new LongAdder();
+    private final LongAdder translationRequests = new LongAdder();
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    public SyntheticSiteServer(int fanOut, int depth, int pageSize, long latencyMillis, double errorRate, long translationLatencyMillis) throws IOException {
+        this.fanOut = fanOut;
+        this.pageCount = countPages(fanOut, depth);
+        this.pageSize = pageSize;
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.translationLatencyMillis = translationLatencyMillis;
+        this.executor = Executors.newCachedThreadPool(createServerThreadFactory());
+        // without it headers and body go out in separate packets and delayed acks add about 40 ms to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/robots.txt", this::handleRobotsTxt);
+        server.createContext(PAGE_PATH, this::handlePage);
+        server.createContext("/translate", this::handleTranslation);
+        server.setExecutor(executor);
+    }
+
+    protected static int countPages(int fanOut, int depth) {
+        // a complete tree with fanOut children per page and depth levels below the root
+        long pages = 1;
+        long levelPages = 1;
+        for (int level = 0; level < depth; level++) {
+            levelPages *= fanOut;
+            pages += levelPages;
+        }
+        return (int) Math.min(pages, Integer.MAX_VALUE);
+    }
+
+    private static ThreadFactory createServerThreadFactory() {
+        AtomicInteger serverThreadCount = new AtomicInteger();
+        return runnable -> {
+            Thread serverThread = new Thread(runnable, "site-server-" + serverThreadCount.incrementAndGet());
+            serverThread.setDaemon(true);
+            return serverThread;
+        };
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getRootUrl() {
+        return getPageUrl(0);
+    }
+
+    public String getTranslationApiUrl() {
+        return getBaseUrl() + "/translate";
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public long getPageRequests() {
+        return pageRequests.sum();
+    }
+
+    public long getErrorResponses() {
+        return errorResponses.sum();
+    }
+
+    public long getTranslationRequests() {
+        return translationRequests.sum();
+    }
+
+    private String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private String getPageUrl(int pageId) {
+        return getBaseUrl() + PAGE_PATH + pageId;
+    }
+
+    protected boolean isErrorPage(int pageId) {
+        // the same pages fail on every run, so runs with the same settings stay comparable
+        return pageId != 0 && new SplittableRandom(pageId).nextDouble() < errorRate;
+    }
+
+    private void handleRobotsTxt(HttpExchange exchange) throws IOException {
+        sendResponse(exchange, 200, "text/plain", "User-agent: *\nAllow: /\n");
+    }
+
+    private void handlePage(HttpExchange exchange) throws IOException {
+        pageRequests.increment();
+        sleep(latencyMillis);
+        int pageId = parsePageId(exchange.getRequestURI().getPath());
+        if (pageId < 0 || pageId >= pageCount) {
+            errorResponses.increment();
+            sendResponse(exchange, 404, "text/plain", "Not found");
+        } else if (isErrorPage(pageId)) {
+            errorResponses.increment();
+            sendResponse(exchange, 500, "text/plain", "Internal server error");
+        } else
+            sendResponse(exchange, 200, "text/html; charset=utf-8", createPage(pageId));
+    }
+
+    private static int parsePageId(String path) {
+        try {
+            return Integer.parseInt(path.substring(PAGE_PATH.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    protected String createPage(int pageId) {
+        SplittableRandom random = new SplittableRandom(pageId);
+        StringBuilder page = new StringBuilder(pageSize + 1024);
+        page.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head><title>Page ").append(pageId).append("</title></head>\n<body>\n");
+        page.append("<h1>Page ").append(pageId).append(' ').append(createSentence(random, 4)).append("</h1>\n");
+        page.append("<nav><a href=\"").append(getRootUrl()).append("\">Home</a>");
+        if (pageId > 0)
+            page.append(" <a href=\"").append(getPageUrl((pageId - 1) / fanOut)).append("\">Up</a>");
+        page.append("</nav>\n<ul>\n");
+        for (int child = 1; child <= fanOut; child++) {
+            long childId = (long) pageId * fanOut + child;
+            if (childId < pageCount)
+                page.append("<li><a href=\"").append(getPageUrl((int) childId)).append("\">").append(createSentence(random, 3)).append("</a></li>\n");
+        }
+        page.append("</ul>\n");
+        int section = 0;
+        while (page.length() < pageSize) {
+            page.append(section % 3 == 2 ? "<h3>" : "<h2>").append(createSentence(random, 5)).append(section % 3 == 2 ? "</h3>\n" : "</h2>\n");
+            page.append("<p>").append(createSentence(random, 60)).append("</p>\n");
+            section++;
+        }
+        return page.append("</body>\n</html>\n").toString();
+    }
+
+    private static String createSentence(SplittableRandom random, int wordCount) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0)
+                sentence.append(' ');
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private void handleTranslation(HttpExchange exchange) throws IOException {
+        translationRequests.increment();
+        sleep(translationLatencyMillis);
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        // answers like the real api, the text comes back unchanged so the line count of batches is kept
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("status", "success");
+        ObjectNode data = response.putObject("data");
+        data.put("translatedText", form.getOrDefault("text", ""));
+        data.putObject("detectedSourceLanguage").put("code", "en").put("name", "English");
+        sendResponse(exchange, 200, "application/json", objectMapper.writeValueAsString(response));
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String field : body.split("&")) {
+            int separator = field.indexOf('=');
+            if (separator > 0)
+                form.put(URLDecoder.decode(field.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(field.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static void sendResponse(HttpExchange exchange, int statusCode, String contentType, String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(statusCode, content.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0)
+            return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
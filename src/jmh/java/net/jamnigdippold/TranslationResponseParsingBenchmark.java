@@ -0,0 +1,74 @@
+package net.jamnigdippold;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranslationResponseParsingBenchmark {
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    // number of headlines joined into one translation batch
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private final TextTranslator translator = new TextTranslator(null);
+    private final Request request = new Request.Builder().url("https://translation.example.com/translate").build();
+    private String responseBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder translatedText = new StringBuilder();
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0)
+                translatedText.append("\\n");
+            translatedText.append("Überschrift Nummer ").append(i).append(" über das Crawlen von Webseiten");
+        }
+        responseBody = "{\"status\":\"success\",\"data\":{\"translatedText\":\"" + translatedText +
+                "\",\"detectedSourceLanguage\":{\"code\":\"en\",\"name\":\"English\"}}}";
+    }
+
+    @Benchmark
+    public JsonNode createNode() throws IOException {
+        return translator.createNode(createResponse());
+    }
+
+    @Benchmark
+    public String extractTranslation() throws IOException {
+        return translator.extractTranslation(createResponse());
+    }
+
+    private Response createResponse() {
+        // a response body can only be read once, so every invocation needs a new response
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(JSON, responseBody))
+                .build();
+    }
+}
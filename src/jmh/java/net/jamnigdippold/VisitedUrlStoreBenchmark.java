@@ -0,0 +1,110 @@
+package net.jamnigdippold;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitedUrlStoreBenchmark {
+    private static final int URL_COUNT = 100_000;
+    private static final int HOST_COUNT = 50;
+
+    @Param({"HASH", "BLOOM_FILTER"})
+    private CrawlEngine.VisitedUrlStoreType storeType;
+
+    private String[] visitedUrls;
+    private String[] unseenUrls;
+    private VisitedUrlStore populatedStore;
+    private int lookupIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        visitedUrls = generateUrls("crawled");
+        unseenUrls = generateUrls("unseen");
+        populatedStore = createPopulatedStore();
+        printFootprint();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(URL_COUNT)
+    public VisitedUrlStore insert() {
+        return createPopulatedStore();
+    }
+
+    @Benchmark
+    public boolean lookupVisited() {
+        return populatedStore.isVisited(visitedUrls[nextLookupIndex()]);
+    }
+
+    @Benchmark
+    public boolean lookupUnseen() {
+        return populatedStore.isVisited(unseenUrls[nextLookupIndex()]);
+    }
+
+    private int nextLookupIndex() {
+        lookupIndex = (lookupIndex + 1) % URL_COUNT;
+        return lookupIndex;
+    }
+
+    private VisitedUrlStore createStore() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setVisitedUrlStoreType(storeType);
+        configuration.setExpectedUrlCount(URL_COUNT);
+        return new CrawlEngine(null, configuration).createVisitedUrlStore();
+    }
+
+    private VisitedUrlStore createPopulatedStore() {
+        VisitedUrlStore store = createStore();
+        for (String url : visitedUrls) {
+            store.markVisited(url);
+        }
+        return store;
+    }
+
+    private static String[] generateUrls(String pathPrefix) {
+        String[] urls = new String[URL_COUNT];
+        for (int i = 0; i < URL_COUNT; i++) {
+            urls[i] = "https://host" + (i % HOST_COUNT) + ".example.com/" + pathPrefix + "/articles/" + i + "?page=" + (i % 7);
+        }
+        return urls;
+    }
+
+    private void printFootprint() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        VisitedUrlStore store = createStore();
+        for (String url : visitedUrls) {
+            // copies, because in a crawl every canonical url is a freshly built string
+            store.markVisited(new String(url.toCharArray()));
+        }
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%s footprint: %.1f bytes per url measured on the heap (%d urls)%n", storeType, (heapAfter - heapBefore) / (double) URL_COUNT, store.size());
+        if (store instanceof BloomFilterVisitedUrlStore) {
+            long filterBytes = ((BloomFilterVisitedUrlStore) store).estimatedSizeInBytes();
+            System.out.printf("%s footprint: %.2f bytes per url in filter bits%n", storeType, filterBytes / (double) URL_COUNT);
+        }
+        Reference.reachabilityFence(store);
+    }
+}
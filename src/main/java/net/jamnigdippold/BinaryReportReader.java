@@ -0,0 +1,174 @@
+package net.jamnigdippold;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class BinaryReportReader implements Closeable, Iterable<PageResult> {
+    // a single mapping addresses at most 2 GiB, larger reports are mapped in windows of this size
+    protected static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    private static final PageResult.Status[] STATUSES = PageResult.Status.values();
+    private final FileChannel channel;
+    private final int windowSize;
+    private final MappedByteBuffer[] windows;
+    private final long size;
+    private final long stringIndexOffset;
+    private final long pageIndexOffset;
+    private final int stringCount;
+    private final int pageCount;
+
+    public BinaryReportReader(Path inputPath) throws IOException {
+        this(inputPath, DEFAULT_WINDOW_SIZE);
+    }
+
+    protected BinaryReportReader(Path inputPath, int windowSize) throws IOException {
+        channel = FileChannel.open(inputPath, StandardOpenOption.READ);
+        this.windowSize = windowSize;
+        try {
+            size = channel.size();
+            windows = new MappedByteBuffer[(int) ((size + windowSize - 1) / windowSize)];
+            if (size < BinaryReportWriter.HEADER_SIZE + BinaryReportWriter.TRAILER_SIZE)
+                throw new IOException("Invalid binary report: " + inputPath);
+            ByteBuffer header = read(0, BinaryReportWriter.HEADER_SIZE);
+            long trailerOffset = size - BinaryReportWriter.TRAILER_SIZE;
+            ByteBuffer trailer = read(trailerOffset, BinaryReportWriter.TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            stringCount = trailer.getInt();
+            pageCount = trailer.getInt();
+            if (header.getInt(0) != BinaryReportWriter.MAGIC || trailer.getInt() != BinaryReportWriter.MAGIC
+                    || indexOffset + (long) (stringCount + pageCount) * Long.BYTES != trailerOffset)
+                throw new IOException("Invalid binary report: " + inputPath);
+            if (header.getInt(Integer.BYTES) != BinaryReportWriter.VERSION)
+                throw new IOException("Unsupported binary report version " + header.getInt(Integer.BYTES) + ": " + inputPath);
+            stringIndexOffset = indexOffset;
+            pageIndexOffset = stringIndexOffset + (long) stringCount * Long.BYTES;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getStringCount() {
+        return stringCount;
+    }
+
+    public PageResult getPage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= pageCount)
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + pageCount);
+        // records start with their length and type, the page fields follow and are read in order,
+        // because inline strings make their size vary
+        ByteBuffer record = readRecord(readLong(pageIndexOffset + (long) pageIndex * Long.BYTES));
+        String url = readString(record);
+        PageResult page = new PageResult(url, record.getInt());
+        page.setStatus(STATUSES[record.get()]);
+        page.setMaxDepth(record.getInt());
+        page.setSourceLanguage(readString(record));
+        page.setTargetLanguage(readString(record));
+        int headlineCount = record.getInt();
+        if (headlineCount != BinaryReportWriter.NO_HEADLINES)
+            page.setHeadlines(readHeadlines(record, headlineCount));
+        return page;
+    }
+
+    private List<PageResult.Headline> readHeadlines(ByteBuffer record, int headlineCount) {
+        List<PageResult.Headline> headlines = new ArrayList<>(headlineCount);
+        for (int i = 0; i < headlineCount; i++) {
+            int level = record.get();
+            headlines.add(new PageResult.Headline(level, readString(record)));
+        }
+        return headlines;
+    }
+
+    private String readString(ByteBuffer record) {
+        int stringReference = record.getInt();
+        if (stringReference != BinaryReportWriter.INLINE_STRING)
+            return getString(stringReference);
+        int length = record.getInt();
+        ByteBuffer bytes = record.slice();
+        bytes.limit(length);
+        record.position(record.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    public String getString(int stringId) {
+        if (stringId == BinaryReportWriter.NO_STRING)
+            return null;
+        if (stringId < 0 || stringId >= stringCount)
+            throw new IndexOutOfBoundsException("String " + stringId + " of " + stringCount);
+        ByteBuffer record = readRecord(readLong(stringIndexOffset + (long) stringId * Long.BYTES));
+        return StandardCharsets.UTF_8.decode(record).toString();
+    }
+
+    private ByteBuffer readRecord(long recordOffset) {
+        // the body of a record without its length and type
+        int recordLength = read(recordOffset, Integer.BYTES).getInt();
+        return read(recordOffset + Integer.BYTES + 1, recordLength - 1);
+    }
+
+    private long readLong(long offset) {
+        return read(offset, Long.BYTES).getLong();
+    }
+
+    protected ByteBuffer read(long offset, int length) {
+        if (offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Bytes " + offset + " to " + (offset + length) + " of " + size);
+        int windowIndex = (int) (offset / windowSize);
+        int windowOffset = (int) (offset % windowSize);
+        try {
+            // the few records that cross the end of a window get a mapping of their own
+            if (windowOffset + length > windowSize)
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            ByteBuffer bytes = getWindow(windowIndex).duplicate();
+            bytes.position(windowOffset).limit(windowOffset + length);
+            return bytes.slice();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error whilst mapping binary report: " + e, e);
+        }
+    }
+
+    private synchronized MappedByteBuffer getWindow(int windowIndex) throws IOException {
+        if (windows[windowIndex] == null) {
+            long windowOffset = (long) windowIndex * windowSize;
+            windows[windowIndex] = channel.map(FileChannel.MapMode.READ_ONLY, windowOffset, Math.min(windowSize, size - windowOffset));
+        }
+        return windows[windowIndex];
+    }
+
+    @Override
+    public Iterator<PageResult> iterator() {
+        return new Iterator<>() {
+            private int nextPageIndex;
+
+            @Override
+            public boolean hasNext() {
+                return nextPageIndex < pageCount;
+            }
+
+            @Override
+            public PageResult next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return getPage(nextPageIndex++);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
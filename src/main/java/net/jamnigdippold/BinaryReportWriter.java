@@ -0,0 +1,188 @@
+package net.jamnigdippold;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryReportWriter implements Closeable {
+    // layout: header (magic, version), length-prefixed string and page records in crawl order,
+    // an index with the offsets of all string and page records, and a fixed size trailer pointing to the index.
+    // short values that repeat on many pages, like languages and navigation headlines, are stored once and
+    // referred to by their string id, urls and long headlines are written inline into the page record
+    protected static final int MAGIC = 0x43524C52;
+    protected static final int VERSION = 2;
+    protected static final int HEADER_SIZE = 2 * Integer.BYTES;
+    protected static final int TRAILER_SIZE = Long.BYTES + 3 * Integer.BYTES;
+    protected static final byte STRING_RECORD = 1;
+    protected static final byte PAGE_RECORD = 2;
+    protected static final int NO_STRING = -1;
+    protected static final int INLINE_STRING = -2;
+    protected static final int NO_HEADLINES = -1;
+    // bounds the string table, so its memory does not grow with the size of the crawl
+    protected static final int MAX_INTERNED_LENGTH = 32;
+    protected static final int MAX_INTERNED_STRINGS = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final FileChannel channel;
+    private final ByteBuffer outputBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(1024);
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long[] stringOffsets = new long[1024];
+    private long[] pageOffsets = new long[1024];
+    private int pageCount;
+    private long position;
+
+    public BinaryReportWriter(Path outputPath) throws IOException {
+        this.channel = FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        outputBuffer.putInt(MAGIC).putInt(VERSION);
+        position = HEADER_SIZE;
+    }
+
+    public synchronized void write(PageResult page) throws IOException {
+        List<PageResult.Headline> headlines = page.getHeadlines();
+        int headlineCount = headlines == null ? 0 : headlines.size();
+        String[] strings = new String[3 + headlineCount];
+        strings[0] = page.getUrl();
+        strings[1] = page.getSourceLanguage();
+        strings[2] = page.getTargetLanguage();
+        for (int i = 0; i < headlineCount; i++) {
+            strings[3 + i] = headlines.get(i).getText();
+        }
+        // every url is visited once, so it is never worth an entry in the string table
+        int[] stringReferences = new int[strings.length];
+        byte[][] inlineStrings = new byte[strings.length][];
+        // status, depth, max depth, headline count, a level per headline and a reference per string
+        int bodySize = 1 + 3 * Integer.BYTES + headlineCount + strings.length * Integer.BYTES;
+        for (int i = 0; i < strings.length; i++) {
+            stringReferences[i] = i == 0 ? getInlineReference(strings[i]) : getStringId(strings[i]);
+            if (stringReferences[i] == INLINE_STRING) {
+                inlineStrings[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+                bodySize += Integer.BYTES + inlineStrings[i].length;
+            }
+        }
+
+        ByteBuffer record = startRecord(PAGE_RECORD, bodySize);
+        putString(record, stringReferences[0], inlineStrings[0]);
+        record.putInt(page.getDepth()).put((byte) page.getStatus().ordinal()).putInt(page.getMaxDepth());
+        putString(record, stringReferences[1], inlineStrings[1]);
+        putString(record, stringReferences[2], inlineStrings[2]);
+        record.putInt(headlines == null ? NO_HEADLINES : headlineCount);
+        for (int i = 0; i < headlineCount; i++) {
+            record.put((byte) headlines.get(i).getLevel());
+            putString(record, stringReferences[3 + i], inlineStrings[3 + i]);
+        }
+        pageOffsets = ensureCapacity(pageOffsets, pageCount);
+        pageOffsets[pageCount++] = position;
+        writeRecord(record);
+    }
+
+    private static int getInlineReference(String value) {
+        return value == null ? NO_STRING : INLINE_STRING;
+    }
+
+    private static void putString(ByteBuffer record, int stringReference, byte[] inlineString) {
+        record.putInt(stringReference);
+        if (stringReference == INLINE_STRING)
+            record.putInt(inlineString.length).put(inlineString);
+    }
+
+    protected int getStringId(String value) throws IOException {
+        if (value == null)
+            return NO_STRING;
+        if (value.length() > MAX_INTERNED_LENGTH)
+            return INLINE_STRING;
+        Integer stringId = stringIds.get(value);
+        if (stringId != null)
+            return stringId;
+        if (stringIds.size() >= MAX_INTERNED_STRINGS)
+            return INLINE_STRING;
+        stringId = stringIds.size();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = startRecord(STRING_RECORD, bytes.length);
+        record.put(bytes);
+        stringOffsets = ensureCapacity(stringOffsets, stringId);
+        stringOffsets[stringId] = position;
+        writeRecord(record);
+        stringIds.put(value, stringId);
+        return stringId;
+    }
+
+    private ByteBuffer startRecord(byte recordType, int bodySize) {
+        int recordSize = Integer.BYTES + 1 + bodySize;
+        if (recordBuffer.capacity() < recordSize)
+            recordBuffer = ByteBuffer.allocate(Math.max(recordSize, recordBuffer.capacity() * 2));
+        recordBuffer.clear();
+        recordBuffer.putInt(1 + bodySize).put(recordType);
+        return recordBuffer;
+    }
+
+    private void writeRecord(ByteBuffer record) throws IOException {
+        record.flip();
+        position += record.remaining();
+        if (record.remaining() > outputBuffer.remaining())
+            flushOutputBuffer();
+        if (record.remaining() > outputBuffer.remaining())
+            writeFully(record);
+        else
+            outputBuffer.put(record);
+    }
+
+    private void flushOutputBuffer() throws IOException {
+        outputBuffer.flip();
+        writeFully(outputBuffer);
+        outputBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long[] ensureCapacity(long[] offsets, int index) {
+        if (index < offsets.length)
+            return offsets;
+        return Arrays.copyOf(offsets, offsets.length * 2);
+    }
+
+    public synchronized int getPageCount() {
+        return pageCount;
+    }
+
+    public synchronized int getStringCount() {
+        return stringIds.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen())
+            return;
+        try {
+            writeIndex();
+            flushOutputBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        long indexOffset = position;
+        int stringCount = stringIds.size();
+        ByteBuffer index = ByteBuffer.allocate((stringCount + pageCount) * Long.BYTES + TRAILER_SIZE);
+        for (int i = 0; i < stringCount; i++) {
+            index.putLong(stringOffsets[i]);
+        }
+        for (int i = 0; i < pageCount; i++) {
+            index.putLong(pageOffsets[i]);
+        }
+        index.putLong(indexOffset).putInt(stringCount).putInt(pageCount).putInt(MAGIC);
+        writeRecord(index);
+    }
+}
@@ -0,0 +1,195 @@
+package net.jamnigdippold;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilterVisitedUrlStore implements VisitedUrlStore {
+    // every new stage gets half the false positive rate of the previous one, so the
+    // total rate of all stages together stays below the configured budget
+    private static final double FALSE_POSITIVE_TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+    private final List<FilterStage> stages = new CopyOnWriteArrayList<>();
+
+    public BloomFilterVisitedUrlStore(long expectedUrlCount, double falsePositiveRate) {
+        if (expectedUrlCount < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter configuration: " + expectedUrlCount + " urls, false positive rate " + falsePositiveRate);
+        }
+        stages.add(new FilterStage(expectedUrlCount, falsePositiveRate * (1 - FALSE_POSITIVE_TIGHTENING_RATIO)));
+    }
+
+    @Override
+    public boolean markVisited(String canonicalUrl) {
+        // there is no separate check before the insert: a url is new only for the thread whose compare-and-set
+        // flipped at least one of its bits, so two threads marking the same url can never both skip it.
+        // Two threads that race on the same new url and flip different bits may both crawl it, which only
+        // costs a duplicate request, just like a url that is marked while the filter grows a new stage.
+        long fingerprint = fingerprint(canonicalUrl);
+        FilterStage currentStage = getStageWithCapacity();
+        for (FilterStage stage : stages) {
+            // full stages are never written again, a url found there was visited before
+            if (stage == currentStage)
+                break;
+            if (stage.mightContain(fingerprint))
+                return false;
+        }
+        return currentStage.put(fingerprint);
+    }
+
+    @Override
+    public boolean isVisited(String canonicalUrl) {
+        return mightContain(fingerprint(canonicalUrl));
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (FilterStage stage : stages) {
+            size += stage.getInsertedCount();
+        }
+        return size;
+    }
+
+    public long estimatedSizeInBytes() {
+        long sizeInBytes = 0;
+        for (FilterStage stage : stages) {
+            sizeInBytes += stage.getBitCount() / Byte.SIZE;
+        }
+        return sizeInBytes;
+    }
+
+    protected int getStageCount() {
+        return stages.size();
+    }
+
+    protected boolean mightContain(long fingerprint) {
+        for (FilterStage stage : stages) {
+            if (stage.mightContain(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected FilterStage getStageWithCapacity() {
+        FilterStage currentStage = stages.get(stages.size() - 1);
+        if (!currentStage.isFull()) {
+            return currentStage;
+        }
+        synchronized (stages) {
+            currentStage = stages.get(stages.size() - 1);
+            if (currentStage.isFull()) {
+                currentStage = new FilterStage(currentStage.getCapacity() * GROWTH_FACTOR,
+                        currentStage.getFalsePositiveRate() * FALSE_POSITIVE_TIGHTENING_RATIO);
+                stages.add(currentStage);
+            }
+            return currentStage;
+        }
+    }
+
+    protected static long fingerprint(String canonicalUrl) {
+        // 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < canonicalUrl.length(); i++) {
+            hash ^= canonicalUrl.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    protected static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    protected static class FilterStage {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong insertedCount = new AtomicLong();
+
+        protected FilterStage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.bitCount = calculateBitCount(capacity, falsePositiveRate);
+            this.hashCount = calculateHashCount(capacity, bitCount);
+            this.bits = new AtomicLongArray((int) ((bitCount + Long.SIZE - 1) / Long.SIZE));
+        }
+
+        protected static long calculateBitCount(long capacity, double falsePositiveRate) {
+            double optimalBitCount = -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            return Math.max(Long.SIZE, (long) Math.ceil(optimalBitCount));
+        }
+
+        protected static int calculateHashCount(long capacity, long bitCount) {
+            return Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        protected boolean put(long fingerprint) {
+            boolean bitsChanged = false;
+            long secondHash = mix(fingerprint ^ 0x9e3779b97f4a7c15L);
+            for (int i = 0; i < hashCount; i++) {
+                bitsChanged |= setBit(getBitIndex(fingerprint, secondHash, i));
+            }
+            if (bitsChanged) {
+                insertedCount.incrementAndGet();
+            }
+            return bitsChanged;
+        }
+
+        protected boolean mightContain(long fingerprint) {
+            long secondHash = mix(fingerprint ^ 0x9e3779b97f4a7c15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bitIndex = getBitIndex(fingerprint, secondHash, i);
+                if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long getBitIndex(long firstHash, long secondHash, int hashNumber) {
+            return ((firstHash + hashNumber * secondHash) & Long.MAX_VALUE) % bitCount;
+        }
+
+        private boolean setBit(long bitIndex) {
+            int wordIndex = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long word;
+            do {
+                word = bits.get(wordIndex);
+                if ((word & mask) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(wordIndex, word, word | mask));
+            return true;
+        }
+
+        protected boolean isFull() {
+            return insertedCount.get() >= capacity;
+        }
+
+        protected long getCapacity() {
+            return capacity;
+        }
+
+        protected double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        protected long getBitCount() {
+            return bitCount;
+        }
+
+        protected long getInsertedCount() {
+            return insertedCount.get();
+        }
+    }
+}
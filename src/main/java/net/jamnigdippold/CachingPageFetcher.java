@@ -0,0 +1,136 @@
+package net.jamnigdippold;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CachingPageFetcher implements PageFetcher {
+    private final PageFetcher pageFetcher;
+    private final long timeToLiveMillis;
+    private final int maxEntries;
+    private final Map<String, CachedLinkStatus> linkStatuses = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public CachingPageFetcher(PageFetcher pageFetcher, long timeToLiveMillis, int maxEntries) {
+        this.pageFetcher = pageFetcher;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public FetchResult fetch(String url) {
+        return pageFetcher.fetch(url);
+    }
+
+    @Override
+    public FetchResult checkLink(String url) {
+        String canonicalUrl = UrlCanonicalizer.canonicalize(url);
+        long now = currentTimeMillis();
+        CompletableFuture<LinkStatus> newCheck = new CompletableFuture<>();
+        // only the thread that installs a new entry checks the link, every concurrent caller waits for its result
+        CachedLinkStatus linkStatus = linkStatuses.compute(canonicalUrl, (key, cachedStatus) ->
+                cachedStatus == null || cachedStatus.isExpired(now) ? new CachedLinkStatus(newCheck, now + timeToLiveMillis) : cachedStatus);
+        if (linkStatus.status != newCheck) {
+            hitCount.increment();
+            return linkStatus.status.join().toFetchResult(url);
+        }
+
+        missCount.increment();
+        evictIfFull(now);
+        FetchResult fetchResult;
+        try {
+            fetchResult = pageFetcher.checkLink(url);
+        } catch (RuntimeException e) {
+            linkStatuses.remove(canonicalUrl, linkStatus);
+            newCheck.completeExceptionally(e);
+            throw e;
+        }
+        newCheck.complete(new LinkStatus(fetchResult.getStatusCode(), fetchResult.isBroken()));
+        return fetchResult;
+    }
+
+    protected void evictIfFull(long now) {
+        // one thread sweeps at a time, expired entries go first, then arbitrary ones until a tenth of the space is free again
+        if (linkStatuses.size() <= maxEntries || !evicting.compareAndSet(false, true))
+            return;
+        try {
+            linkStatuses.values().removeIf(linkStatus -> linkStatus.isExpired(now));
+            Iterator<CachedLinkStatus> linkStatusIterator = linkStatuses.values().iterator();
+            while (linkStatuses.size() > maxEntries - maxEntries / 10 && linkStatusIterator.hasNext()) {
+                linkStatusIterator.next();
+                linkStatusIterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public int size() {
+        return linkStatuses.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public PageFetcher getPageFetcher() {
+        return pageFetcher;
+    }
+
+    protected static class CachedLinkStatus {
+        private final CompletableFuture<LinkStatus> status;
+        private final long expiresAtMillis;
+
+        protected CachedLinkStatus(CompletableFuture<LinkStatus> status, long expiresAtMillis) {
+            this.status = status;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        protected boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    protected static class LinkStatus {
+        // only what a link check is asked for is kept, never the document or the exception of the original check
+        private final int statusCode;
+        private final boolean broken;
+
+        protected LinkStatus(int statusCode, boolean broken) {
+            this.statusCode = statusCode;
+            this.broken = broken;
+        }
+
+        protected FetchResult toFetchResult(String url) {
+            if (broken)
+                return FetchResult.failure(url, statusCode, new CachedLinkFailure(url, statusCode));
+            return FetchResult.success(url, statusCode, null);
+        }
+    }
+
+    protected static class CachedLinkFailure extends IOException {
+        protected CachedLinkFailure(String url, int statusCode) {
+            super("Cached broken link " + url + " (status " + statusCode + ")");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // answered from the cache, a stack trace would only show this lookup
+            return this;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package net.jamnigdippold;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class CachingTranslator implements Translator {
+    private final Translator translator;
+    private final TranslationCache translationCache;
+    private CrawlMetrics metrics = new NoOpCrawlMetrics();
+
+    public CachingTranslator(Translator translator, TranslationCache translationCache) {
+        this.translator = translator;
+        this.translationCache = translationCache;
+    }
+
+    @Override
+    public void setTargetLanguage(String targetLanguage) {
+        translator.setTargetLanguage(targetLanguage);
+    }
+
+    @Override
+    public String detectLanguage(String input) {
+        return translator.detectLanguage(input);
+    }
+
+    @Override
+    public String translate(String input) {
+        String sourceLanguage = translator.getSourceLanguage();
+        String targetLanguage = translator.getTargetLanguage();
+        String cachedTranslation = translationCache.get(sourceLanguage, targetLanguage, input);
+        recordCacheLookups(cachedTranslation == null ? 0 : 1, 1);
+        if (cachedTranslation != null)
+            return cachedTranslation;
+
+        String translation = translator.translate(input);
+        if (translation != null)
+            translationCache.put(sourceLanguage, targetLanguage, input, translation);
+        return translation;
+    }
+
+    @Override
+    public List<String> translateAll(List<String> inputs) {
+        CachedTranslations cachedTranslations = lookUpAll(inputs);
+        if (cachedTranslations.isComplete())
+            return cachedTranslations.getTranslations();
+        return cachedTranslations.complete(translator.translateAll(cachedTranslations.getUncachedInputs()));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> translateAllAsync(List<String> inputs) {
+        CachedTranslations cachedTranslations = lookUpAll(inputs);
+        if (cachedTranslations.isComplete())
+            return CompletableFuture.completedFuture(cachedTranslations.getTranslations());
+        return translator.translateAllAsync(cachedTranslations.getUncachedInputs()).thenApply(cachedTranslations::complete);
+    }
+
+    protected CachedTranslations lookUpAll(List<String> inputs) {
+        CachedTranslations cachedTranslations = new CachedTranslations(translator.getSourceLanguage(), translator.getTargetLanguage(), inputs);
+        for (String input : inputs) {
+            cachedTranslations.add(input, translationCache.get(cachedTranslations.sourceLanguage, cachedTranslations.targetLanguage, input));
+        }
+        recordCacheLookups(inputs.size() - cachedTranslations.uncachedInputCount, inputs.size());
+        return cachedTranslations;
+    }
+
+    protected void recordCacheLookups(int hitCount, int lookupCount) {
+        metrics.addToCounter("translation.cache.hits", hitCount);
+        metrics.addToCounter("translation.cache.misses", lookupCount - hitCount);
+    }
+
+    @Override
+    public String getSourceLanguage() {
+        return translator.getSourceLanguage();
+    }
+
+    @Override
+    public void setSourceLanguage(String sourceLanguage) {
+        translator.setSourceLanguage(sourceLanguage);
+    }
+
+    @Override
+    public String getTargetLanguage() {
+        return translator.getTargetLanguage();
+    }
+
+    public Translator getTranslator() {
+        return translator;
+    }
+
+    public void setMetrics(CrawlMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    protected class CachedTranslations {
+        private final String sourceLanguage;
+        private final String targetLanguage;
+        private final List<String> inputs;
+        private final List<String> translations;
+        private final Set<String> uncachedInputs = new LinkedHashSet<>();
+        private int uncachedInputCount;
+
+        protected CachedTranslations(String sourceLanguage, String targetLanguage, List<String> inputs) {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+            this.inputs = inputs;
+            this.translations = new ArrayList<>(inputs.size());
+        }
+
+        protected void add(String input, String cachedTranslation) {
+            translations.add(cachedTranslation);
+            if (cachedTranslation == null) {
+                uncachedInputs.add(input);
+                uncachedInputCount++;
+            }
+        }
+
+        protected boolean isComplete() {
+            return uncachedInputs.isEmpty();
+        }
+
+        protected List<String> getUncachedInputs() {
+            return new ArrayList<>(uncachedInputs);
+        }
+
+        protected List<String> getTranslations() {
+            return translations;
+        }
+
+        protected List<String> complete(List<String> newTranslations) {
+            List<String> uncachedInputList = getUncachedInputs();
+            for (int i = 0; i < uncachedInputList.size(); i++) {
+                // failed translations stay uncached, the next lookup asks the api again
+                if (newTranslations.get(i) != null)
+                    translationCache.put(sourceLanguage, targetLanguage, uncachedInputList.get(i), newTranslations.get(i));
+            }
+            for (int i = 0; i < inputs.size(); i++) {
+                if (translations.get(i) == null)
+                    translations.set(i, newTranslations.get(uncachedInputList.indexOf(inputs.get(i))));
+            }
+            return translations;
+        }
+    }
+}
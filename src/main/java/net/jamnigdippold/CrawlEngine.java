@@ -0,0 +1,278 @@
+package net.jamnigdippold;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CrawlEngine {
+    private static final Logger logger = ErrorLogger.getInstance();
+    protected static final String QUEUED_DEPTH_GAUGE_PREFIX = "crawler.queued.depth.";
+    protected static final int PRECOMPUTED_DEPTH_GAUGE_COUNT = 64;
+    // gauge names are built once, submit and crawlNext run for every page and would otherwise concatenate each time
+    private static final String[] QUEUED_DEPTH_GAUGE_NAMES = createQueuedDepthGaugeNames(PRECOMPUTED_DEPTH_GAUGE_COUNT);
+    private final ExecutorService executor;
+    private final CrawlFrontier frontier;
+    private final ScheduledExecutorService wakeUpScheduler;
+    private final CrawlerConfiguration configuration;
+    private final TranslationCache translationCache;
+    private final TranslationCacheFile translationCacheFile;
+    private final LanguageCache languageCache = new LanguageCache();
+    private final HttpClient httpClient;
+    private final HostPolitenessScheduler politenessScheduler;
+    private final PageFetcher pageFetcher;
+    private final RobotsTxtPolicy robotsTxtPolicy;
+    private final CrawlMetrics metrics;
+    private final MetricsReporter metricsReporter;
+
+    public enum PoolType {
+        FIXED,
+        WORK_STEALING,
+        VIRTUAL
+    }
+
+    public enum VisitedUrlStoreType {
+        HASH,
+        BLOOM_FILTER
+    }
+
+    public enum PageFetcherType {
+        OKHTTP,
+        JSOUP
+    }
+
+    public CrawlEngine(CrawlerConfiguration configuration) {
+        this(createExecutor(configuration.getPoolType(), configuration.getPoolSize()), configuration);
+    }
+
+    protected CrawlEngine(ExecutorService executor) {
+        this(executor, new CrawlerConfiguration());
+    }
+
+    protected CrawlEngine(ExecutorService executor, CrawlerConfiguration configuration) {
+        this.executor = executor;
+        this.configuration = configuration;
+        this.metrics = createMetrics(configuration.isMetricsEnabled());
+        this.metricsReporter = createMetricsReporter(configuration.getMetricsReportIntervalSeconds());
+        this.translationCache = new TranslationCache(configuration.getTranslationCacheSize(),
+                TimeUnit.MINUTES.toMillis(configuration.getTranslationCacheTtlMinutes()));
+        this.translationCacheFile = createTranslationCacheFile(configuration.getTranslationCacheDirectory());
+        this.httpClient = new OkHttpWrapper(OkHttpWrapper.createClient(configuration));
+        this.politenessScheduler = new HostPolitenessScheduler(configuration.getMaxConnectionsPerHost(), configuration.getRequestsPerSecondPerHost());
+        // throttled hosts wait in the frontier instead of on a worker, the workers meanwhile crawl other hosts
+        this.frontier = new CrawlFrontier(politenessScheduler);
+        this.wakeUpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread wakeUpThread = new Thread(runnable, "frontier-wake-up");
+            wakeUpThread.setDaemon(true);
+            return wakeUpThread;
+        });
+        politenessScheduler.setReleaseListener(this::onHostReleased);
+        // cached link checks never reach the scheduler, so they do not use up a host's request budget
+        this.pageFetcher = new CachingPageFetcher(new PolitePageFetcher(createPageFetcher(configuration.getPageFetcherType()), politenessScheduler),
+                TimeUnit.MINUTES.toMillis(configuration.getLinkStatusCacheTtlMinutes()), configuration.getLinkStatusCacheSize());
+        this.robotsTxtPolicy = configuration.isRobotsTxtEnabled()
+                ? new RobotsTxtPolicy(httpClient, politenessScheduler, TimeUnit.MINUTES.toMillis(configuration.getRobotsTxtCacheTtlMinutes()))
+                : null;
+    }
+
+    protected CrawlMetrics createMetrics(boolean metricsEnabled) {
+        if (metricsEnabled)
+            return new LongAdderCrawlMetrics();
+        return new NoOpCrawlMetrics();
+    }
+
+    protected MetricsReporter createMetricsReporter(int reportIntervalSeconds) {
+        if (reportIntervalSeconds < 1 || !configuration.isMetricsEnabled())
+            return null;
+        MetricsReporter reporter = new MetricsReporter(metrics, System.err, TimeUnit.SECONDS.toMillis(reportIntervalSeconds));
+        reporter.start();
+        return reporter;
+    }
+
+    protected PageFetcher createPageFetcher(PageFetcherType pageFetcherType) {
+        if (pageFetcherType == PageFetcherType.JSOUP) {
+            return new JsoupPageFetcher();
+        }
+        return new HttpClientPageFetcher(httpClient);
+    }
+
+    protected TranslationCacheFile createTranslationCacheFile(String cacheDirectory) {
+        if (cacheDirectory == null || cacheDirectory.isBlank())
+            return null;
+        TranslationCacheFile cacheFile = new TranslationCacheFile(Paths.get(cacheDirectory));
+        translationCache.setCacheFile(cacheFile);
+        cacheFile.loadAsync(translationCache);
+        return cacheFile;
+    }
+
+    protected static ExecutorService createExecutor(PoolType poolType, int poolSize) {
+        if (poolType == PoolType.WORK_STEALING) {
+            return Executors.newWorkStealingPool(poolSize);
+        }
+        if (poolType == PoolType.VIRTUAL) {
+            return createVirtualThreadExecutor(poolSize);
+        }
+        return Executors.newFixedThreadPool(poolSize, createWorkerThreadFactory());
+    }
+
+    protected static ExecutorService createVirtualThreadExecutor(int fallbackPoolSize) {
+        try {
+            // looked up reflectively because the project still compiles against Java 11
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, e, "Virtual threads are not supported by this JVM, falling back to platform threads");
+            return Executors.newFixedThreadPool(fallbackPoolSize, createWorkerThreadFactory());
+        }
+    }
+
+    protected static ThreadFactory createWorkerThreadFactory() {
+        AtomicInteger workerCount = new AtomicInteger();
+        return runnable -> {
+            Thread worker = new Thread(runnable, "crawler-worker-" + workerCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        };
+    }
+
+    public void submit(Runnable crawler, int depth) {
+        submit(crawler, null, depth);
+    }
+
+    public void submit(Runnable crawler, String url, int depth) {
+        metrics.addToGauge("crawler.queued", 1);
+        metrics.addToGauge(getQueuedDepthGaugeName(depth), 1);
+        frontier.add(crawler, url == null ? null : UrlCanonicalizer.getHost(url), depth);
+        // every submit schedules one run, which takes the shallowest crawler of a host that is not throttled
+        executor.execute(this::crawlNext);
+    }
+
+    protected static String getQueuedDepthGaugeName(int depth) {
+        if (depth >= 0 && depth < QUEUED_DEPTH_GAUGE_NAMES.length)
+            return QUEUED_DEPTH_GAUGE_NAMES[depth];
+        return QUEUED_DEPTH_GAUGE_PREFIX + depth;
+    }
+
+    private static String[] createQueuedDepthGaugeNames(int count) {
+        String[] gaugeNames = new String[count];
+        for (int depth = 0; depth < count; depth++) {
+            gaugeNames[depth] = QUEUED_DEPTH_GAUGE_PREFIX + depth;
+        }
+        return gaugeNames;
+    }
+
+    protected boolean crawlNext() {
+        CrawlFrontier.Entry entry = frontier.poll();
+        if (entry == null) {
+            scheduleWakeUp();
+            return false;
+        }
+        dispatchReadyEntries();
+        metrics.addToGauge("crawler.queued", -1);
+        metrics.addToGauge(getQueuedDepthGaugeName(entry.getDepth()), -1);
+        metrics.addToGauge("crawler.active", 1);
+        try {
+            entry.getCrawler().run();
+        } catch (RuntimeException e) {
+            logger.logError(ErrorRecord.Phase.CRAWL, null, e, "Error whilst executing crawler: " + e);
+        } finally {
+            politenessScheduler.releaseUnusedReservation();
+            metrics.addToGauge("crawler.active", -1);
+            metrics.incrementCounter("crawler.finished");
+            frontier.finish();
+        }
+        return true;
+    }
+
+    protected void dispatchReadyEntries() {
+        // a run that found work hands the rest to another worker, throttled hosts are picked up by a wake-up
+        if (frontier.hasReadyEntries())
+            executor.execute(this::crawlNext);
+        else
+            scheduleWakeUp();
+    }
+
+    protected void scheduleWakeUp() {
+        long wakeUpDelayNanos = frontier.getNanosUntilNextHostIsReady();
+        if (wakeUpDelayNanos < 0 || !frontier.claimWakeUp(System.nanoTime() + wakeUpDelayNanos))
+            return;
+        wakeUpScheduler.schedule(() -> {
+            frontier.wakeUpFired();
+            executor.execute(this::crawlNext);
+        }, wakeUpDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    protected void onHostReleased(String host) {
+        if (frontier.hostReleased(host))
+            executor.execute(this::crawlNext);
+    }
+
+    public void awaitIdle() throws InterruptedException {
+        // the waiting thread works on the frontier as well and otherwise sleeps until something changes
+        while (!frontier.isIdle()) {
+            long changeCount = frontier.getChangeCount();
+            if (!crawlNext())
+                frontier.awaitChange(changeCount, frontier.getNanosUntilNextHostIsReady());
+        }
+    }
+
+    public VisitedUrlStore createVisitedUrlStore() {
+        if (configuration.getVisitedUrlStoreType() == VisitedUrlStoreType.BLOOM_FILTER) {
+            return new BloomFilterVisitedUrlStore(configuration.getExpectedUrlCount(), configuration.getFalsePositiveRate());
+        }
+        return new HashVisitedUrlStore();
+    }
+
+    public TranslationCache getTranslationCache() {
+        return translationCache;
+    }
+
+    public boolean isDisallowedByRobotsTxt(String url) {
+        return robotsTxtPolicy != null && !robotsTxtPolicy.isAllowed(url);
+    }
+
+    public RobotsTxtPolicy getRobotsTxtPolicy() {
+        return robotsTxtPolicy;
+    }
+
+    public HostPolitenessScheduler getPolitenessScheduler() {
+        return politenessScheduler;
+    }
+
+    public PageFetcher getPageFetcher() {
+        return pageFetcher;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public String getTranslationApiUrl() {
+        return configuration.getTranslationApiUrl();
+    }
+
+    public CrawlMetrics getMetrics() {
+        return metrics;
+    }
+
+    public LanguageCache getLanguageCache() {
+        return languageCache;
+    }
+
+    public TranslationCacheFile getTranslationCacheFile() {
+        return translationCacheFile;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        wakeUpScheduler.shutdownNow();
+        if (metricsReporter != null)
+            metricsReporter.stop();
+        httpClient.close();
+        if (translationCacheFile != null)
+            translationCacheFile.close();
+    }
+}
@@ -0,0 +1,199 @@
+package net.jamnigdippold;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+public class CrawlFrontier {
+    protected static final long NOT_SCHEDULED = Long.MAX_VALUE;
+    private final HostPolitenessScheduler politenessScheduler;
+    private final Map<String, HostEntries> hostEntries = new HashMap<>();
+    // hosts that may send a request now, ordered by their shallowest waiting entry
+    private final TreeSet<HostEntries> readyHosts = new TreeSet<>(Comparator.comparingInt((HostEntries host) -> host.orderDepth)
+            .thenComparingLong(host -> host.orderSequenceNumber));
+    // throttled hosts, ordered by the time their next request slot opens
+    private final PriorityQueue<HostEntries> delayedHosts = new PriorityQueue<>(Comparator.comparingLong((HostEntries host) -> host.readyAtNanos));
+    private final HostEntries unthrottledEntries = new HostEntries(null);
+    private long addedEntries;
+    private long unfinishedEntries;
+    private long changeCount;
+    private long scheduledWakeUpNanos = NOT_SCHEDULED;
+
+    private enum HostState {
+        EMPTY,
+        READY,
+        DELAYED,
+        WAITING_FOR_CONNECTION
+    }
+
+    public CrawlFrontier(HostPolitenessScheduler politenessScheduler) {
+        this.politenessScheduler = politenessScheduler;
+    }
+
+    public synchronized void add(Runnable crawler, String host, int depth) {
+        // entries without a host, e.g. crawlers that send no request, are never throttled
+        HostEntries entries = host == null ? unthrottledEntries : hostEntries.computeIfAbsent(host, HostEntries::new);
+        Entry entry = new Entry(crawler, depth, addedEntries++);
+        if (entries.state == HostState.READY)
+            readyHosts.remove(entries);
+        entries.entries.add(entry);
+        if (entries.state == HostState.EMPTY || entries.state == HostState.READY)
+            markReady(entries);
+        unfinishedEntries++;
+        signalChange();
+    }
+
+    public synchronized Entry poll() {
+        // the shallowest entry of all hosts that have a free connection and an open request slot
+        long now = System.nanoTime();
+        while (!delayedHosts.isEmpty() && delayedHosts.peek().readyAtNanos <= now) {
+            markReady(delayedHosts.poll());
+        }
+        HostEntries entries;
+        while ((entries = readyHosts.pollFirst()) != null) {
+            long throttledNanos = entries.host == null ? 0 : politenessScheduler.tryReserve(entries.host);
+            if (throttledNanos == 0) {
+                Entry entry = entries.entries.poll();
+                if (entries.entries.isEmpty())
+                    entries.state = HostState.EMPTY;
+                else
+                    markReady(entries);
+                return entry;
+            }
+            if (throttledNanos == HostPolitenessScheduler.NO_CONNECTION_AVAILABLE) {
+                entries.state = HostState.WAITING_FOR_CONNECTION;
+            } else {
+                entries.state = HostState.DELAYED;
+                entries.readyAtNanos = now + throttledNanos;
+                delayedHosts.add(entries);
+            }
+        }
+        return null;
+    }
+
+    public synchronized boolean hostReleased(String host) {
+        // a finished request frees a connection, a host that was waiting for one can be crawled again
+        HostEntries entries = hostEntries.get(host);
+        if (entries == null || entries.state != HostState.WAITING_FOR_CONNECTION)
+            return false;
+        markReady(entries);
+        signalChange();
+        return true;
+    }
+
+    private void markReady(HostEntries entries) {
+        Entry firstEntry = entries.entries.peek();
+        entries.orderDepth = firstEntry.depth;
+        entries.orderSequenceNumber = firstEntry.sequenceNumber;
+        entries.state = HostState.READY;
+        readyHosts.add(entries);
+    }
+
+    public synchronized boolean hasReadyEntries() {
+        return !readyHosts.isEmpty() || (!delayedHosts.isEmpty() && delayedHosts.peek().readyAtNanos <= System.nanoTime());
+    }
+
+    public synchronized long getNanosUntilNextHostIsReady() {
+        if (delayedHosts.isEmpty())
+            return -1;
+        return Math.max(0, delayedHosts.peek().readyAtNanos - System.nanoTime());
+    }
+
+    public synchronized boolean claimWakeUp(long wakeUpNanos) {
+        // only one wake-up is pending at a time, a later one is scheduled when the earlier one finds nothing to do
+        if (wakeUpNanos >= scheduledWakeUpNanos)
+            return false;
+        scheduledWakeUpNanos = wakeUpNanos;
+        return true;
+    }
+
+    public synchronized void wakeUpFired() {
+        scheduledWakeUpNanos = NOT_SCHEDULED;
+    }
+
+    public synchronized void finish() {
+        // called once per polled entry, after its crawler has added the entries for its links
+        unfinishedEntries--;
+        signalChange();
+    }
+
+    private void signalChange() {
+        changeCount++;
+        notifyAll();
+    }
+
+    public synchronized long getChangeCount() {
+        return changeCount;
+    }
+
+    public synchronized boolean isIdle() {
+        return unfinishedEntries == 0;
+    }
+
+    public synchronized void awaitChange(long seenChangeCount, long maxWaitNanos) throws InterruptedException {
+        // returns on any added, finished or released entry, or once a throttled host is due
+        if (changeCount != seenChangeCount)
+            return;
+        if (maxWaitNanos < 0)
+            wait();
+        else if (maxWaitNanos > 0)
+            wait((maxWaitNanos + 999_999) / 1_000_000);
+    }
+
+    public synchronized void awaitIdle() throws InterruptedException {
+        while (unfinishedEntries > 0) {
+            wait();
+        }
+    }
+
+    public synchronized int size() {
+        int size = unthrottledEntries.entries.size();
+        for (HostEntries entries : hostEntries.values()) {
+            size += entries.entries.size();
+        }
+        return size;
+    }
+
+    private static class HostEntries {
+        private final String host;
+        private final PriorityQueue<Entry> entries = new PriorityQueue<>();
+        private HostState state = HostState.EMPTY;
+        private int orderDepth;
+        private long orderSequenceNumber;
+        private long readyAtNanos;
+
+        private HostEntries(String host) {
+            this.host = host;
+        }
+    }
+
+    public static class Entry implements Comparable<Entry> {
+        private final Runnable crawler;
+        private final int depth;
+        private final long sequenceNumber;
+
+        protected Entry(Runnable crawler, int depth, long sequenceNumber) {
+            this.crawler = crawler;
+            this.depth = depth;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        public Runnable getCrawler() {
+            return crawler;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            // a whole depth is crawled before the next one, within a depth in the order the links were found
+            if (depth != other.depth)
+                return Integer.compare(depth, other.depth);
+            return Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
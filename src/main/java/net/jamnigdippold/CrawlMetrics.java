@@ -0,0 +1,15 @@
+package net.jamnigdippold;
+
+public interface CrawlMetrics {
+    void incrementCounter(String name);
+
+    void addToCounter(String name, long amount);
+
+    void addToGauge(String name, long delta);
+
+    void recordTime(String name, long nanos);
+
+    void recordValue(String name, long value);
+
+    MetricsSnapshot getSnapshot();
+}
@@ -0,0 +1,417 @@
+package net.jamnigdippold;
+
+import okhttp3.HttpUrl;
+
+public class CrawlerConfiguration {
+    private static final Logger logger = ErrorLogger.getInstance();
+    protected static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 4;
+    protected static final int DEFAULT_EXPECTED_URL_COUNT = 1_000_000;
+    protected static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+    protected static final int DEFAULT_TRANSLATION_CACHE_SIZE = 10_000;
+    protected static final int DEFAULT_TRANSLATION_CACHE_TTL_MINUTES = 7 * 24 * 60;
+    protected static final int DEFAULT_LINK_STATUS_CACHE_TTL_MINUTES = 60;
+    protected static final int DEFAULT_LINK_STATUS_CACHE_SIZE = 100_000;
+    protected static final int DEFAULT_ROBOTS_TXT_CACHE_TTL_MINUTES = 24 * 60;
+    protected static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 2;
+    protected static final double DEFAULT_REQUESTS_PER_SECOND_PER_HOST = 4;
+    protected static final int DEFAULT_HTTP_MAX_IDLE_CONNECTIONS = 16;
+    protected static final int DEFAULT_HTTP_KEEP_ALIVE_SECONDS = 300;
+    protected static final int DEFAULT_HTTP_MAX_REQUESTS_PER_HOST = 64;
+    protected static final int DEFAULT_HTTP_CONNECT_TIMEOUT_SECONDS = 10;
+    protected static final int DEFAULT_HTTP_READ_TIMEOUT_SECONDS = 30;
+    protected static final int DEFAULT_PROGRESS_INTERVAL_SECONDS = 10;
+    private CrawlEngine.PoolType poolType;
+    private int poolSize;
+    private CrawlEngine.PageFetcherType pageFetcherType;
+    private int linkStatusCacheTtlMinutes;
+    private int linkStatusCacheSize;
+    private int maxConnectionsPerHost;
+    private boolean robotsTxtEnabled;
+    private int robotsTxtCacheTtlMinutes;
+    private double requestsPerSecondPerHost;
+    private CrawlEngine.VisitedUrlStoreType visitedUrlStoreType;
+    private ReportWriter.Format reportFormat;
+    private String binaryReportPath;
+    private int expectedUrlCount;
+    private double falsePositiveRate;
+    private int translationCacheSize;
+    private int translationCacheTtlMinutes;
+    private String translationCacheDirectory;
+    private String translationApiUrl;
+    private int httpMaxIdleConnections;
+    private int httpKeepAliveSeconds;
+    private int httpMaxRequestsPerHost;
+    private int httpConnectTimeoutSeconds;
+    private int httpReadTimeoutSeconds;
+    private boolean metricsEnabled;
+    private int metricsReportIntervalSeconds;
+    private boolean progressEnabled;
+    private int progressIntervalSeconds;
+
+    public CrawlerConfiguration() {
+        this.poolType = CrawlEngine.PoolType.FIXED;
+        this.poolSize = DEFAULT_POOL_SIZE;
+        this.pageFetcherType = CrawlEngine.PageFetcherType.OKHTTP;
+        this.linkStatusCacheTtlMinutes = DEFAULT_LINK_STATUS_CACHE_TTL_MINUTES;
+        this.linkStatusCacheSize = DEFAULT_LINK_STATUS_CACHE_SIZE;
+        this.maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+        this.requestsPerSecondPerHost = DEFAULT_REQUESTS_PER_SECOND_PER_HOST;
+        this.robotsTxtEnabled = true;
+        this.robotsTxtCacheTtlMinutes = DEFAULT_ROBOTS_TXT_CACHE_TTL_MINUTES;
+        this.visitedUrlStoreType = CrawlEngine.VisitedUrlStoreType.HASH;
+        this.reportFormat = ReportWriter.Format.MARKDOWN;
+        this.expectedUrlCount = DEFAULT_EXPECTED_URL_COUNT;
+        this.falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+        this.translationCacheSize = DEFAULT_TRANSLATION_CACHE_SIZE;
+        this.translationCacheTtlMinutes = DEFAULT_TRANSLATION_CACHE_TTL_MINUTES;
+        this.translationApiUrl = TextTranslator.DEFAULT_API_URL;
+        this.httpMaxIdleConnections = DEFAULT_HTTP_MAX_IDLE_CONNECTIONS;
+        this.httpKeepAliveSeconds = DEFAULT_HTTP_KEEP_ALIVE_SECONDS;
+        this.httpMaxRequestsPerHost = DEFAULT_HTTP_MAX_REQUESTS_PER_HOST;
+        this.httpConnectTimeoutSeconds = DEFAULT_HTTP_CONNECT_TIMEOUT_SECONDS;
+        this.httpReadTimeoutSeconds = DEFAULT_HTTP_READ_TIMEOUT_SECONDS;
+        this.metricsEnabled = true;
+        this.progressEnabled = true;
+        this.progressIntervalSeconds = DEFAULT_PROGRESS_INTERVAL_SECONDS;
+    }
+
+    public static CrawlerConfiguration fromSystemProperties() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setPoolType(readEnum("crawler.pool.type", configuration.getPoolType()));
+        configuration.setPoolSize(readPositiveInt("crawler.pool.size", configuration.getPoolSize()));
+        configuration.setPageFetcherType(readEnum("crawler.fetcher", configuration.getPageFetcherType()));
+        configuration.setLinkStatusCacheTtlMinutes(readPositiveInt("crawler.linkCheck.cacheTtlMinutes", configuration.getLinkStatusCacheTtlMinutes()));
+        configuration.setLinkStatusCacheSize(readPositiveInt("crawler.linkCheck.cacheSize", configuration.getLinkStatusCacheSize()));
+        configuration.setMaxConnectionsPerHost(readPositiveInt("crawler.politeness.maxConnectionsPerHost", configuration.getMaxConnectionsPerHost()));
+        configuration.setRequestsPerSecondPerHost(readPositiveDouble("crawler.politeness.requestsPerSecond", configuration.getRequestsPerSecondPerHost()));
+        configuration.setRobotsTxtEnabled(readBoolean("crawler.robots.enabled", configuration.isRobotsTxtEnabled()));
+        configuration.setRobotsTxtCacheTtlMinutes(readPositiveInt("crawler.robots.cacheTtlMinutes", configuration.getRobotsTxtCacheTtlMinutes()));
+        configuration.setReportFormat(readEnum("crawler.output.format", configuration.getReportFormat()));
+        configuration.setBinaryReportPath(System.getProperty("crawler.output.binaryFile"));
+        configuration.setVisitedUrlStoreType(readEnum("crawler.visited.store", configuration.getVisitedUrlStoreType()));
+        configuration.setExpectedUrlCount(readPositiveInt("crawler.visited.expectedUrls", configuration.getExpectedUrlCount()));
+        configuration.setFalsePositiveRate(readProbability("crawler.visited.falsePositiveRate", configuration.getFalsePositiveRate()));
+        configuration.setTranslationCacheSize(readPositiveInt("crawler.translation.cacheSize", configuration.getTranslationCacheSize()));
+        configuration.setTranslationCacheTtlMinutes(readPositiveInt("crawler.translation.cacheTtlMinutes", configuration.getTranslationCacheTtlMinutes()));
+        configuration.setTranslationCacheDirectory(System.getProperty("crawler.translation.cacheDir"));
+        configuration.setTranslationApiUrl(readHttpUrl("crawler.translation.apiUrl", configuration.getTranslationApiUrl()));
+        configuration.setHttpMaxIdleConnections(readPositiveInt("crawler.http.maxIdleConnections", configuration.getHttpMaxIdleConnections()));
+        configuration.setHttpKeepAliveSeconds(readPositiveInt("crawler.http.keepAliveSeconds", configuration.getHttpKeepAliveSeconds()));
+        configuration.setHttpMaxRequestsPerHost(readPositiveInt("crawler.http.maxRequestsPerHost", configuration.getHttpMaxRequestsPerHost()));
+        configuration.setHttpConnectTimeoutSeconds(readPositiveInt("crawler.http.connectTimeoutSeconds", configuration.getHttpConnectTimeoutSeconds()));
+        configuration.setHttpReadTimeoutSeconds(readPositiveInt("crawler.http.readTimeoutSeconds", configuration.getHttpReadTimeoutSeconds()));
+        configuration.setMetricsEnabled(readBoolean("crawler.metrics.enabled", configuration.isMetricsEnabled()));
+        configuration.setMetricsReportIntervalSeconds(readPositiveInt("crawler.metrics.reportIntervalSeconds", configuration.getMetricsReportIntervalSeconds()));
+        configuration.setProgressEnabled(readBoolean("crawler.progress.enabled", configuration.isProgressEnabled()));
+        configuration.setProgressIntervalSeconds(readPositiveInt("crawler.progress.intervalSeconds", configuration.getProgressIntervalSeconds()));
+        return configuration;
+    }
+
+    protected static <E extends Enum<E>> E readEnum(String propertyName, E defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value for " + propertyName + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    protected static boolean readBoolean(String propertyName, boolean defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.trim().equalsIgnoreCase("true") || value.trim().equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value.trim());
+        }
+        logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value for " + propertyName + ": " + value);
+        return defaultValue;
+    }
+
+    protected static int readPositiveInt(String propertyName, int defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsedValue = parseIntOrDefault(value, -1);
+        if (parsedValue < 1) {
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value for " + propertyName + ": " + value);
+            return defaultValue;
+        }
+        return parsedValue;
+    }
+
+    protected static double readProbability(String propertyName, double defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        double parsedValue = parseDoubleOrDefault(value, -1);
+        if (parsedValue <= 0 || parsedValue >= 1) {
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value for " + propertyName + ": " + value);
+            return defaultValue;
+        }
+        return parsedValue;
+    }
+
+    protected static double readPositiveDouble(String propertyName, double defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        double parsedValue = parseDoubleOrDefault(value, -1);
+        if (parsedValue <= 0) {
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value for " + propertyName + ": " + value);
+            return defaultValue;
+        }
+        return parsedValue;
+    }
+
+    protected static String readHttpUrl(String propertyName, String defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (HttpUrl.parse(value.trim()) == null) {
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value for " + propertyName + ": " + value);
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    protected static double parseDoubleOrDefault(String value, double defaultValue) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    protected static int parseIntOrDefault(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public CrawlEngine.PoolType getPoolType() {
+        return poolType;
+    }
+
+    public void setPoolType(CrawlEngine.PoolType poolType) {
+        this.poolType = poolType;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public CrawlEngine.PageFetcherType getPageFetcherType() {
+        return pageFetcherType;
+    }
+
+    public void setPageFetcherType(CrawlEngine.PageFetcherType pageFetcherType) {
+        this.pageFetcherType = pageFetcherType;
+    }
+
+    public int getLinkStatusCacheTtlMinutes() {
+        return linkStatusCacheTtlMinutes;
+    }
+
+    public void setLinkStatusCacheTtlMinutes(int linkStatusCacheTtlMinutes) {
+        this.linkStatusCacheTtlMinutes = linkStatusCacheTtlMinutes;
+    }
+
+    public int getLinkStatusCacheSize() {
+        return linkStatusCacheSize;
+    }
+
+    public void setLinkStatusCacheSize(int linkStatusCacheSize) {
+        this.linkStatusCacheSize = linkStatusCacheSize;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public double getRequestsPerSecondPerHost() {
+        return requestsPerSecondPerHost;
+    }
+
+    public void setRequestsPerSecondPerHost(double requestsPerSecondPerHost) {
+        this.requestsPerSecondPerHost = requestsPerSecondPerHost;
+    }
+
+    public boolean isRobotsTxtEnabled() {
+        return robotsTxtEnabled;
+    }
+
+    public void setRobotsTxtEnabled(boolean robotsTxtEnabled) {
+        this.robotsTxtEnabled = robotsTxtEnabled;
+    }
+
+    public int getRobotsTxtCacheTtlMinutes() {
+        return robotsTxtCacheTtlMinutes;
+    }
+
+    public void setRobotsTxtCacheTtlMinutes(int robotsTxtCacheTtlMinutes) {
+        this.robotsTxtCacheTtlMinutes = robotsTxtCacheTtlMinutes;
+    }
+
+    public ReportWriter.Format getReportFormat() {
+        return reportFormat;
+    }
+
+    public void setReportFormat(ReportWriter.Format reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+    public String getBinaryReportPath() {
+        return binaryReportPath;
+    }
+
+    public void setBinaryReportPath(String binaryReportPath) {
+        this.binaryReportPath = binaryReportPath;
+    }
+
+    public CrawlEngine.VisitedUrlStoreType getVisitedUrlStoreType() {
+        return visitedUrlStoreType;
+    }
+
+    public void setVisitedUrlStoreType(CrawlEngine.VisitedUrlStoreType visitedUrlStoreType) {
+        this.visitedUrlStoreType = visitedUrlStoreType;
+    }
+
+    public int getExpectedUrlCount() {
+        return expectedUrlCount;
+    }
+
+    public void setExpectedUrlCount(int expectedUrlCount) {
+        this.expectedUrlCount = expectedUrlCount;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public int getTranslationCacheSize() {
+        return translationCacheSize;
+    }
+
+    public void setTranslationCacheSize(int translationCacheSize) {
+        this.translationCacheSize = translationCacheSize;
+    }
+
+    public int getTranslationCacheTtlMinutes() {
+        return translationCacheTtlMinutes;
+    }
+
+    public void setTranslationCacheTtlMinutes(int translationCacheTtlMinutes) {
+        this.translationCacheTtlMinutes = translationCacheTtlMinutes;
+    }
+
+    public String getTranslationCacheDirectory() {
+        return translationCacheDirectory;
+    }
+
+    public void setTranslationCacheDirectory(String translationCacheDirectory) {
+        this.translationCacheDirectory = translationCacheDirectory;
+    }
+
+    public String getTranslationApiUrl() {
+        return translationApiUrl;
+    }
+
+    public void setTranslationApiUrl(String translationApiUrl) {
+        this.translationApiUrl = translationApiUrl;
+    }
+
+    public int getHttpMaxIdleConnections() {
+        return httpMaxIdleConnections;
+    }
+
+    public void setHttpMaxIdleConnections(int httpMaxIdleConnections) {
+        this.httpMaxIdleConnections = httpMaxIdleConnections;
+    }
+
+    public int getHttpKeepAliveSeconds() {
+        return httpKeepAliveSeconds;
+    }
+
+    public void setHttpKeepAliveSeconds(int httpKeepAliveSeconds) {
+        this.httpKeepAliveSeconds = httpKeepAliveSeconds;
+    }
+
+    public int getHttpMaxRequestsPerHost() {
+        return httpMaxRequestsPerHost;
+    }
+
+    public void setHttpMaxRequestsPerHost(int httpMaxRequestsPerHost) {
+        this.httpMaxRequestsPerHost = httpMaxRequestsPerHost;
+    }
+
+    public int getHttpConnectTimeoutSeconds() {
+        return httpConnectTimeoutSeconds;
+    }
+
+    public void setHttpConnectTimeoutSeconds(int httpConnectTimeoutSeconds) {
+        this.httpConnectTimeoutSeconds = httpConnectTimeoutSeconds;
+    }
+
+    public int getHttpReadTimeoutSeconds() {
+        return httpReadTimeoutSeconds;
+    }
+
+    public void setHttpReadTimeoutSeconds(int httpReadTimeoutSeconds) {
+        this.httpReadTimeoutSeconds = httpReadTimeoutSeconds;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public int getMetricsReportIntervalSeconds() {
+        return metricsReportIntervalSeconds;
+    }
+
+    public void setMetricsReportIntervalSeconds(int metricsReportIntervalSeconds) {
+        this.metricsReportIntervalSeconds = metricsReportIntervalSeconds;
+    }
+
+    public boolean isProgressEnabled() {
+        return progressEnabled;
+    }
+
+    public void setProgressEnabled(boolean progressEnabled) {
+        this.progressEnabled = progressEnabled;
+    }
+
+    public int getProgressIntervalSeconds() {
+        return progressIntervalSeconds;
+    }
+
+    public void setProgressIntervalSeconds(int progressIntervalSeconds) {
+        this.progressIntervalSeconds = progressIntervalSeconds;
+    }
+}
@@ -5,25 +5,67 @@ import java.util.List;
 
 public class CrawlerLauncher {
     private static final Logger logger = ErrorLogger.getInstance();
+    private final CrawlEngine crawlEngine;
+    private final VisitedUrlStore visitedUrls;
+    private ReportSection reportSection;
+    private String parentUrl;
     private List<WebsiteCrawler> crawlers;
 
-    public CrawlerLauncher() {
+    public CrawlerLauncher(CrawlEngine crawlEngine) {
+        this(crawlEngine, null);
+    }
+
+    public CrawlerLauncher(CrawlEngine crawlEngine, VisitedUrlStore visitedUrls) {
+        this.crawlEngine = crawlEngine;
+        this.visitedUrls = visitedUrls;
         crawlers = new ArrayList<>();
     }
 
     protected void startNewCrawler(String crawledLink, int maxDepthOfRecursiveSearch, String targetLanguage, int currentDepthOfRecursiveSearch) {
         WebsiteCrawler recursiveCrawler = new WebsiteCrawler(crawledLink, maxDepthOfRecursiveSearch, targetLanguage, currentDepthOfRecursiveSearch);
-        recursiveCrawler.start();
+        VisitedUrlStore crawlVisitedUrls = getVisitedUrlsForCrawl();
+        recursiveCrawler.setCrawlEngine(crawlEngine);
+        recursiveCrawler.setVisitedUrls(crawlVisitedUrls);
+        recursiveCrawler.setParentUrl(parentUrl);
+        if (reportSection != null)
+            recursiveCrawler.setReportSection(reportSection.addChild());
+        // robots.txt is consulted before anything else, a disallowed url never causes a request
+        CrawlMetrics metrics = crawlEngine.getMetrics();
+        if (crawlEngine.isDisallowedByRobotsTxt(crawledLink)) {
+            metrics.incrementCounter("crawler.skipped.disallowed");
+            recursiveCrawler.outputDisallowedLink(crawledLink);
+            recursiveCrawler.closeOutput();
+        } else if (isAlreadyCrawled(crawlVisitedUrls, crawledLink, maxDepthOfRecursiveSearch, currentDepthOfRecursiveSearch)) {
+            metrics.incrementCounter("crawler.skipped.visited");
+            recursiveCrawler.outputCrawledLink(crawledLink, false);
+            recursiveCrawler.closeOutput();
+        } else {
+            metrics.incrementCounter("crawler.launched");
+            crawlEngine.submit(recursiveCrawler, crawledLink, currentDepthOfRecursiveSearch);
+        }
         crawlers.add(recursiveCrawler);
     }
 
-    protected void waitForCrawlerThreadsToFinish() {
-        for (WebsiteCrawler crawler : crawlers) {
-            try {
-                crawler.join();
-            } catch (InterruptedException e) {
-                logger.logError("Error whilst joining crawler threads: " + e);
-            }
+    protected VisitedUrlStore getVisitedUrlsForCrawl() {
+        // launchers without a store start root crawls, each of which tracks its own visited urls
+        if (visitedUrls == null)
+            return crawlEngine.createVisitedUrlStore();
+        return visitedUrls;
+    }
+
+    protected boolean isAlreadyCrawled(VisitedUrlStore crawlVisitedUrls, String crawledLink, int maxDepthOfRecursiveSearch, int currentDepthOfRecursiveSearch) {
+        if (currentDepthOfRecursiveSearch > maxDepthOfRecursiveSearch)
+            return false;
+        return !crawlVisitedUrls.markVisited(UrlCanonicalizer.canonicalize(crawledLink));
+    }
+
+    protected void waitForCrawlersToFinish() {
+        // crawlers never wait for the links they found, so this waits for the whole frontier of the crawl engine
+        try {
+            crawlEngine.awaitIdle();
+        } catch (InterruptedException e) {
+            logger.logError(ErrorRecord.Phase.CRAWL, null, e, "Error whilst waiting for crawlers: " + e);
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -38,4 +80,12 @@ public class CrawlerLauncher {
     protected void setCrawlers(List<WebsiteCrawler> crawlers) {
         this.crawlers = crawlers;
     }
+
+    protected void setReportSection(ReportSection reportSection) {
+        this.reportSection = reportSection;
+    }
+
+    protected void setParentUrl(String parentUrl) {
+        this.parentUrl = parentUrl;
+    }
 }
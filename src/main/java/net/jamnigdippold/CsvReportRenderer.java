@@ -0,0 +1,50 @@
+package net.jamnigdippold;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+public class CsvReportRenderer implements ReportRenderer {
+    protected static final String HEADER = "url,depth,status,parent,headline_level,headline\r\n";
+
+    @Override
+    public void renderHeader(Writer output) throws IOException {
+        output.append(HEADER);
+    }
+
+    @Override
+    public void renderPage(PageResult page, Writer output) throws IOException {
+        // one row per headline, pages without headlines get a single row with empty headline columns
+        if (page.getHeadlines() == null || page.getHeadlines().isEmpty()) {
+            renderRow(page, "", "", output);
+            return;
+        }
+        for (PageResult.Headline headline : page.getHeadlines()) {
+            renderRow(page, String.valueOf(headline.getLevel()), headline.getText(), output);
+        }
+    }
+
+    protected void renderRow(PageResult page, String headlineLevel, String headline, Writer output) throws IOException {
+        output.append(escape(page.getUrl())).append(',');
+        output.append(String.valueOf(page.getDepth())).append(',');
+        output.append(page.getStatus().name().toLowerCase(Locale.ROOT)).append(',');
+        output.append(page.getParentUrl() == null ? "" : escape(page.getParentUrl())).append(',');
+        output.append(headlineLevel).append(',');
+        output.append(escape(headline)).append("\r\n");
+    }
+
+    @Override
+    public void renderErrors(List<ErrorRecord> errors, ErrorSummary summary, Writer output) throws IOException {
+        for (ErrorRecord error : errors) {
+            output.append(error.getUrl() == null ? "" : escape(error.getUrl()));
+            output.append(",,error,,,").append(escape(error.getMessage())).append("\r\n");
+        }
+    }
+
+    protected static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,55 +1,130 @@
 package net.jamnigdippold;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ErrorLogger implements Logger {
-    private static ErrorLogger logInstance;
-    private final ArrayList<String> loggedErrors = new ArrayList<>();
+    protected static final int DEFAULT_CAPACITY = 4096;
+    private static final ErrorLogger logInstance = new ErrorLogger(DEFAULT_CAPACITY);
+    private final int capacity;
+    private volatile ErrorBuffer errorBuffer;
 
-    private ErrorLogger() {
+    protected ErrorLogger(int capacity) {
+        // the ring indexes with a bit mask, so its size is rounded up to a power of two
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.errorBuffer = new ErrorBuffer(this.capacity);
     }
 
     public static ErrorLogger getInstance() {
-        if (logInstance == null) {
-            synchronized (ErrorLogger.class) {
-                logInstance = new ErrorLogger();
-            }
-        }
         return logInstance;
     }
 
-
     @Override
     public void logError(String errorMessage) {
-        loggedErrors.add(errorMessage);
+        logError(ErrorRecord.Phase.GENERAL, null, null, errorMessage);
+    }
+
+    @Override
+    public void logError(ErrorRecord.Phase phase, String url, Throwable error, String errorMessage) {
+        String exceptionClass = error == null ? null : error.getClass().getName();
+        errorBuffer.add(new ErrorRecord(System.currentTimeMillis(), phase, url, exceptionClass, errorMessage));
     }
 
     @Override
     public String getErrorLogAsString() {
-        String initialErrorHeadline = "# <br> ------- ERRORS ------- <br>\n";
-
-        synchronized (loggedErrors) {
-            StringBuilder errorLog = new StringBuilder();
-            errorLog.append(initialErrorHeadline);
-
-            if (loggedErrors.isEmpty()) {
-                errorLog.append("- No errors thrown while executing program <br>\n");
-            } else {
-                for (String logEntry : loggedErrors) {
-                    errorLog.append("- ").append(logEntry).append("<br>\n");
-                }
-            }
-            return errorLog.toString();
+        ErrorBuffer buffer = errorBuffer;
+        return MarkdownReportRenderer.renderErrorLog(buffer.getRecords(), buffer.getSummary());
+    }
+
+    @Override
+    public List<String> getErrorLog() {
+        List<String> errorMessages = new ArrayList<>();
+        for (ErrorRecord errorRecord : errorBuffer.getRecords()) {
+            errorMessages.add(errorRecord.getMessage());
         }
+        return errorMessages;
+    }
+
+    @Override
+    public List<ErrorRecord> getErrorRecords() {
+        return errorBuffer.getRecords();
     }
 
     @Override
-    public ArrayList<String> getErrorLog() {
-        return loggedErrors;
+    public ErrorSummary getErrorSummary() {
+        return errorBuffer.getSummary();
     }
 
     @Override
     public void clearLog() {
-        loggedErrors.clear();
+        errorBuffer = new ErrorBuffer(capacity);
+    }
+
+    protected int getCapacity() {
+        return capacity;
+    }
+
+    private static class ErrorBuffer {
+        // writers only claim a sequence number and publish into its slot, once the ring is full
+        // the oldest records are overwritten and only show up in the counters
+        private final AtomicReferenceArray<Slot> slots;
+        private final int mask;
+        private final AtomicLong sequence = new AtomicLong();
+        private final Map<String, LongAdder> errorCountsByType = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> errorCountsByHost = new ConcurrentHashMap<>();
+
+        private ErrorBuffer(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private void add(ErrorRecord errorRecord) {
+            long recordSequence = sequence.getAndIncrement();
+            slots.set((int) (recordSequence & mask), new Slot(recordSequence, errorRecord));
+            errorCountsByType.computeIfAbsent(errorRecord.getErrorType(), type -> new LongAdder()).increment();
+            String host = errorRecord.getHost();
+            if (host != null)
+                errorCountsByHost.computeIfAbsent(host, key -> new LongAdder()).increment();
+        }
+
+        private List<ErrorRecord> getRecords() {
+            long end = sequence.get();
+            long start = Math.max(0, end - slots.length());
+            List<ErrorRecord> errorRecords = new ArrayList<>((int) (end - start));
+            for (long recordSequence = start; recordSequence < end; recordSequence++) {
+                Slot slot = slots.get((int) (recordSequence & mask));
+                // slots that are not published yet or were already overwritten are skipped
+                if (slot != null && slot.sequence == recordSequence)
+                    errorRecords.add(slot.errorRecord);
+            }
+            return errorRecords;
+        }
+
+        private ErrorSummary getSummary() {
+            long errorCount = sequence.get();
+            return new ErrorSummary(errorCount, Math.max(0, errorCount - slots.length()), sumUp(errorCountsByType), sumUp(errorCountsByHost));
+        }
+
+        private static Map<String, Long> sumUp(Map<String, LongAdder> counters) {
+            Map<String, Long> counts = new TreeMap<>();
+            counters.forEach((key, counter) -> counts.put(key, counter.sum()));
+            return counts;
+        }
+    }
+
+    private static class Slot {
+        private final long sequence;
+        private final ErrorRecord errorRecord;
+
+        private Slot(long sequence, ErrorRecord errorRecord) {
+            this.sequence = sequence;
+            this.errorRecord = errorRecord;
+        }
     }
 }
@@ -0,0 +1,56 @@
+package net.jamnigdippold;
+
+public class ErrorRecord {
+    public enum Phase {
+        GENERAL,
+        CONFIGURATION,
+        CRAWL,
+        FETCH,
+        TRANSLATION,
+        CACHE,
+        REPORT
+    }
+
+    private final long timestamp;
+    private final Phase phase;
+    private final String url;
+    private final String exceptionClass;
+    private final String message;
+
+    public ErrorRecord(long timestamp, Phase phase, String url, String exceptionClass, String message) {
+        this.timestamp = timestamp;
+        this.phase = phase;
+        this.url = url;
+        this.exceptionClass = exceptionClass;
+        this.message = message;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getErrorType() {
+        // errors without an exception are grouped by the phase they happened in
+        return exceptionClass != null ? exceptionClass : phase.name();
+    }
+
+    public String getHost() {
+        return url == null ? null : UrlCanonicalizer.getHost(url);
+    }
+}
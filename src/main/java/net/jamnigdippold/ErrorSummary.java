@@ -0,0 +1,33 @@
+package net.jamnigdippold;
+
+import java.util.Map;
+
+public class ErrorSummary {
+    private final long errorCount;
+    private final long droppedErrorCount;
+    private final Map<String, Long> errorCountsByType;
+    private final Map<String, Long> errorCountsByHost;
+
+    public ErrorSummary(long errorCount, long droppedErrorCount, Map<String, Long> errorCountsByType, Map<String, Long> errorCountsByHost) {
+        this.errorCount = errorCount;
+        this.droppedErrorCount = droppedErrorCount;
+        this.errorCountsByType = errorCountsByType;
+        this.errorCountsByHost = errorCountsByHost;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getDroppedErrorCount() {
+        return droppedErrorCount;
+    }
+
+    public Map<String, Long> getErrorCountsByType() {
+        return errorCountsByType;
+    }
+
+    public Map<String, Long> getErrorCountsByHost() {
+        return errorCountsByHost;
+    }
+}
@@ -0,0 +1,61 @@
+package net.jamnigdippold;
+
+import org.jsoup.nodes.Document;
+
+public class FetchResult {
+    public static final int NO_STATUS_CODE = -1;
+    public static final long UNKNOWN_CONTENT_LENGTH = -1;
+    private final String url;
+    private final int statusCode;
+    private final Document document;
+    private final Exception error;
+    private final long contentLength;
+
+    public FetchResult(String url, int statusCode, Document document, Exception error) {
+        this(url, statusCode, document, error, UNKNOWN_CONTENT_LENGTH);
+    }
+
+    public FetchResult(String url, int statusCode, Document document, Exception error, long contentLength) {
+        this.url = url;
+        this.statusCode = statusCode;
+        this.document = document;
+        this.error = error;
+        this.contentLength = contentLength;
+    }
+
+    public static FetchResult success(String url, int statusCode, Document document) {
+        return new FetchResult(url, statusCode, document, null);
+    }
+
+    public static FetchResult success(String url, int statusCode, Document document, long contentLength) {
+        return new FetchResult(url, statusCode, document, null, contentLength);
+    }
+
+    public static FetchResult failure(String url, int statusCode, Exception error) {
+        return new FetchResult(url, statusCode, null, error);
+    }
+
+    public boolean isBroken() {
+        return error != null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+}
@@ -0,0 +1,23 @@
+package net.jamnigdippold;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HashVisitedUrlStore implements VisitedUrlStore {
+    private final Set<String> visitedUrls = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean markVisited(String canonicalUrl) {
+        return visitedUrls.add(canonicalUrl);
+    }
+
+    @Override
+    public boolean isVisited(String canonicalUrl) {
+        return visitedUrls.contains(canonicalUrl);
+    }
+
+    @Override
+    public long size() {
+        return visitedUrls.size();
+    }
+}
@@ -0,0 +1,146 @@
+package net.jamnigdippold;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class HostPolitenessScheduler {
+    protected static final long NO_CONNECTION_AVAILABLE = -1;
+    private final int maxConnectionsPerHost;
+    private final long minimumIntervalNanos;
+    private final Map<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+    // a reservation made by the frontier belongs to the worker that runs the crawler and is used by its next request
+    private final ThreadLocal<HostQueue> reservedHostQueue = new ThreadLocal<>();
+    private Consumer<String> releaseListener = host -> {
+    };
+
+    public HostPolitenessScheduler(int maxConnectionsPerHost, double requestsPerSecond) {
+        if (maxConnectionsPerHost < 1 || requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid politeness configuration: " + maxConnectionsPerHost + " connections, " + requestsPerSecond + " requests per second");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.minimumIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    }
+
+    public <T> T schedule(String url, Supplier<T> request) throws InterruptedException {
+        // every host has its own queue, so a slow or throttled host never holds back requests to other hosts
+        HostQueue hostQueue = getOrCreateHostQueue(UrlCanonicalizer.getHost(url));
+        if (reservedHostQueue.get() == hostQueue)
+            reservedHostQueue.remove();
+        else
+            hostQueue.acquire();
+        try {
+            return request.get();
+        } finally {
+            release(hostQueue);
+        }
+    }
+
+    public long tryReserve(String host) {
+        // never waits: returns 0 when a connection and a request slot were reserved, otherwise how long the host stays throttled
+        HostQueue hostQueue = getOrCreateHostQueue(host);
+        long throttledNanos = hostQueue.tryAcquire();
+        if (throttledNanos == 0)
+            reservedHostQueue.set(hostQueue);
+        return throttledNanos;
+    }
+
+    public void releaseUnusedReservation() {
+        // a crawler that made no request, e.g. because its link check was cached, gives its connection back
+        HostQueue hostQueue = reservedHostQueue.get();
+        if (hostQueue == null)
+            return;
+        reservedHostQueue.remove();
+        release(hostQueue);
+    }
+
+    private void release(HostQueue hostQueue) {
+        hostQueue.release();
+        releaseListener.accept(hostQueue.host);
+    }
+
+    public void applyCrawlDelay(String url, long crawlDelayMillis) {
+        HostQueue hostQueue = getOrCreateHostQueue(UrlCanonicalizer.getHost(url));
+        hostQueue.raiseMinimumInterval(TimeUnit.MILLISECONDS.toNanos(crawlDelayMillis));
+    }
+
+    private HostQueue getOrCreateHostQueue(String host) {
+        return hostQueues.computeIfAbsent(host, newHost -> new HostQueue(newHost, maxConnectionsPerHost, minimumIntervalNanos));
+    }
+
+    public void setReleaseListener(Consumer<String> releaseListener) {
+        this.releaseListener = releaseListener;
+    }
+
+    public int getHostCount() {
+        return hostQueues.size();
+    }
+
+    protected HostQueue getHostQueue(String host) {
+        return hostQueues.get(host);
+    }
+
+    protected static class HostQueue {
+        private final String host;
+        private final Semaphore connections;
+        private long minimumIntervalNanos;
+        private long nextRequestNanos;
+
+        protected HostQueue(String host, int maxConnections, long minimumIntervalNanos) {
+            this.host = host;
+            this.connections = new Semaphore(maxConnections, true);
+            this.minimumIntervalNanos = minimumIntervalNanos;
+            this.nextRequestNanos = System.nanoTime();
+        }
+
+        protected void acquire() throws InterruptedException {
+            connections.acquire();
+            try {
+                TimeUnit.NANOSECONDS.sleep(reserveRequestSlot());
+            } catch (InterruptedException e) {
+                connections.release();
+                throw e;
+            }
+        }
+
+        protected synchronized long tryAcquire() {
+            // a host without a free connection waits for a release, not for its next request slot
+            if (!connections.tryAcquire())
+                return NO_CONNECTION_AVAILABLE;
+            long now = System.nanoTime();
+            if (nextRequestNanos > now) {
+                connections.release();
+                return nextRequestNanos - now;
+            }
+            nextRequestNanos = now + minimumIntervalNanos;
+            return 0;
+        }
+
+        protected synchronized long reserveRequestSlot() {
+            long now = System.nanoTime();
+            long requestSlot = Math.max(now, nextRequestNanos);
+            nextRequestNanos = requestSlot + minimumIntervalNanos;
+            return requestSlot - now;
+        }
+
+        protected synchronized void raiseMinimumInterval(long minimumIntervalNanos) {
+            // a site can slow the crawler down, but never speed it up beyond the configured rate
+            this.minimumIntervalNanos = Math.max(this.minimumIntervalNanos, minimumIntervalNanos);
+        }
+
+        protected synchronized long getMinimumIntervalNanos() {
+            return minimumIntervalNanos;
+        }
+
+        protected void release() {
+            connections.release();
+        }
+
+        protected int getAvailableConnections() {
+            return connections.availablePermits();
+        }
+    }
+}
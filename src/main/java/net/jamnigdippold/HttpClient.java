@@ -4,7 +4,12 @@ import okhttp3.Request;
 import okhttp3.Response;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface HttpClient {
     Response executeRequest(Request request) throws IOException;
+
+    CompletableFuture<Response> executeRequestAsync(Request request);
+
+    void close();
 }
@@ -0,0 +1,147 @@
+package net.jamnigdippold;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.jsoup.nodes.Document;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+public class HttpClientPageFetcher implements PageFetcher {
+    protected static final String USER_AGENT = "cleancode-webcrawler/1.0";
+    // an empty resource answers a ranged request with 416, which still proves the link works
+    protected static final int RANGE_NOT_SATISFIABLE = 416;
+    // the same limit Jsoup.connect applies by default, a larger body is cut off and only its start is parsed
+    protected static final long DEFAULT_MAX_BODY_SIZE = 2 * 1024 * 1024;
+    private final HttpClient httpClient;
+    private final long maxBodySize;
+
+    public HttpClientPageFetcher(HttpClient httpClient) {
+        this(httpClient, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    public HttpClientPageFetcher(HttpClient httpClient, long maxBodySize) {
+        this.httpClient = httpClient;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public FetchResult fetch(String url) {
+        Request request;
+        try {
+            request = new Request.Builder().url(url).header("User-Agent", USER_AGENT).get().build();
+        } catch (IllegalArgumentException exception) {
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, exception);
+        }
+        try (Response response = httpClient.executeRequest(request)) {
+            return parseResponse(url, response);
+        } catch (IOException exception) {
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, exception);
+        }
+    }
+
+    @Override
+    public FetchResult checkLink(String url) {
+        Request headRequest;
+        try {
+            headRequest = new Request.Builder().url(url).header("User-Agent", USER_AGENT).head().build();
+        } catch (IllegalArgumentException exception) {
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, exception);
+        }
+        FetchResult headResult = requestStatus(url, headRequest);
+        // servers that answered but reject HEAD get a second chance with a GET for the first byte only
+        if (!headResult.isBroken() || headResult.getStatusCode() == FetchResult.NO_STATUS_CODE)
+            return headResult;
+        return requestStatus(url, headRequest.newBuilder().get().header("Range", "bytes=0-0").build());
+    }
+
+    protected FetchResult requestStatus(String url, Request request) {
+        // the body is closed unread, at most the single requested byte is transferred
+        try (Response response = httpClient.executeRequest(request)) {
+            if (response.isSuccessful() || response.code() == RANGE_NOT_SATISFIABLE)
+                return FetchResult.success(url, response.code(), null);
+            return FetchResult.failure(url, response.code(), new HttpStatusException("HTTP error checking URL", response.code(), url));
+        } catch (IOException exception) {
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, exception);
+        }
+    }
+
+    protected FetchResult parseResponse(String url, Response response) throws IOException {
+        if (!response.isSuccessful())
+            return FetchResult.failure(url, response.code(), new HttpStatusException("HTTP error fetching URL", response.code(), url));
+
+        ResponseBody body = response.body();
+        MediaType contentType = body.contentType();
+        if (!isSupportedContentType(contentType))
+            return FetchResult.failure(url, response.code(), new UnsupportedMimeTypeException("Unhandled content type", contentType.toString(), url));
+
+        // the body is decoded and parsed while it is read from the socket, it is never buffered as a whole string
+        Charset charset = contentType == null ? null : contentType.charset();
+        CountingInputStream bodyStream = new CountingInputStream(body.byteStream(), maxBodySize);
+        Document document = Jsoup.parse(bodyStream, charset == null ? null : charset.name(), response.request().url().toString());
+        return FetchResult.success(url, response.code(), document, bodyStream.getByteCount());
+    }
+
+    protected boolean isSupportedContentType(MediaType contentType) {
+        // the same types Jsoup.connect accepts
+        if (contentType == null)
+            return true;
+        String subtype = contentType.subtype();
+        return contentType.type().equals("text")
+                || (contentType.type().equals("application") && (subtype.equals("xml") || subtype.endsWith("+xml")));
+    }
+
+    protected static class CountingInputStream extends FilterInputStream {
+        private final long maxByteCount;
+        private long byteCount;
+
+        protected CountingInputStream(InputStream input, long maxByteCount) {
+            super(input);
+            this.maxByteCount = maxByteCount;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (byteCount >= maxByteCount)
+                return -1;
+            int nextByte = super.read();
+            if (nextByte != -1)
+                byteCount++;
+            return nextByte;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            // the stream ends at the limit, the rest of the body is dropped together with the connection
+            if (byteCount >= maxByteCount)
+                return -1;
+            int readCount = super.read(buffer, offset, (int) Math.min(length, maxByteCount - byteCount));
+            if (readCount > 0)
+                byteCount += readCount;
+            return readCount;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skippedCount = super.skip(Math.min(count, maxByteCount - byteCount));
+            byteCount += skippedCount;
+            return skippedCount;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), maxByteCount - byteCount);
+        }
+
+        protected long getByteCount() {
+            return byteCount;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.jamnigdippold;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class JsonLinesReportRenderer implements ReportRenderer {
+    // generators write straight into the report writer, which stays open and unflushed between pages
+    private final JsonFactory jsonFactory = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    @Override
+    public void renderPage(PageResult page, Writer output) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("url", page.getUrl());
+            generator.writeNumberField("depth", page.getDepth());
+            if (page.getParentUrl() != null)
+                generator.writeStringField("parent", page.getParentUrl());
+            generator.writeStringField("status", page.getStatus().name().toLowerCase(Locale.ROOT));
+            if (page.getSourceLanguage() != null)
+                generator.writeStringField("sourceLanguage", page.getSourceLanguage());
+            if (page.getTargetLanguage() != null)
+                generator.writeStringField("targetLanguage", page.getTargetLanguage());
+            if (page.getHeadlines() != null)
+                writeHeadlines(page.getHeadlines(), generator);
+            generator.writeEndObject();
+        }
+        output.append('\n');
+    }
+
+    protected void writeHeadlines(List<PageResult.Headline> headlines, JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("headlines");
+        for (PageResult.Headline headline : headlines) {
+            generator.writeStartObject();
+            generator.writeNumberField("level", headline.getLevel());
+            generator.writeStringField("text", headline.getText());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void renderErrors(List<ErrorRecord> errors, ErrorSummary summary, Writer output) throws IOException {
+        for (ErrorRecord error : errors) {
+            try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeStringField("error", error.getMessage());
+                generator.writeStringField("phase", error.getPhase().name().toLowerCase(Locale.ROOT));
+                if (error.getUrl() != null)
+                    generator.writeStringField("url", error.getUrl());
+                if (error.getExceptionClass() != null)
+                    generator.writeStringField("exception", error.getExceptionClass());
+                generator.writeNumberField("timestamp", error.getTimestamp());
+                generator.writeEndObject();
+            }
+            output.append('\n');
+        }
+        writeErrorSummary(summary, output);
+    }
+
+    protected void writeErrorSummary(ErrorSummary summary, Writer output) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("errorSummary");
+            generator.writeNumberField("total", summary.getErrorCount());
+            generator.writeNumberField("dropped", summary.getDroppedErrorCount());
+            writeCounts("byType", summary.getErrorCountsByType(), generator);
+            writeCounts("byHost", summary.getErrorCountsByHost(), generator);
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        output.append('\n');
+    }
+
+    private void writeCounts(String fieldName, Map<String, Long> counts, JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart(fieldName);
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            generator.writeNumberField(count.getKey(), count.getValue());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,45 @@
+package net.jamnigdippold;
+
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+
+import java.io.IOException;
+
+public class JsoupPageFetcher implements PageFetcher {
+    @Override
+    public FetchResult fetch(String url) {
+        try {
+            Connection.Response response = Jsoup.connect(url).execute();
+            return FetchResult.success(url, response.statusCode(), response.parse());
+        } catch (HttpStatusException exception) {
+            return FetchResult.failure(url, exception.getStatusCode(), exception);
+        } catch (IOException | IllegalArgumentException exception) {
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, exception);
+        }
+    }
+
+    @Override
+    public FetchResult checkLink(String url) {
+        FetchResult headResult = requestStatus(url, Connection.Method.HEAD, false);
+        // servers that answered but reject HEAD get a second chance with a GET for the first byte only
+        if (!headResult.isBroken() || headResult.getStatusCode() == FetchResult.NO_STATUS_CODE)
+            return headResult;
+        return requestStatus(url, Connection.Method.GET, true);
+    }
+
+    protected FetchResult requestStatus(String url, Connection.Method method, boolean firstByteOnly) {
+        try {
+            Connection connection = Jsoup.connect(url).method(method).ignoreContentType(true);
+            if (firstByteOnly)
+                connection.header("Range", "bytes=0-0").maxBodySize(1);
+            return FetchResult.success(url, connection.execute().statusCode(), null);
+        } catch (HttpStatusException exception) {
+            if (exception.getStatusCode() == HttpClientPageFetcher.RANGE_NOT_SATISFIABLE)
+                return FetchResult.success(url, exception.getStatusCode(), null);
+            return FetchResult.failure(url, exception.getStatusCode(), exception);
+        } catch (IOException | IllegalArgumentException exception) {
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, exception);
+        }
+    }
+}
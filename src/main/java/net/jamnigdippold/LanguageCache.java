@@ -0,0 +1,37 @@
+package net.jamnigdippold;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class LanguageCache {
+    protected static final String UNKNOWN_LANGUAGE = "auto";
+    private final Map<String, CompletableFuture<String>> languagesByHost = new ConcurrentHashMap<>();
+
+    public String getLanguage(String host, Supplier<String> languageDetection) {
+        CompletableFuture<String> newDetection = new CompletableFuture<>();
+        // only the thread that installs a new entry detects the language, every concurrent caller waits for its result
+        CompletableFuture<String> language = languagesByHost.computeIfAbsent(host, key -> newDetection);
+        if (language != newDetection)
+            return language.join();
+
+        String detectedLanguage;
+        try {
+            detectedLanguage = languageDetection.get();
+        } catch (RuntimeException e) {
+            languagesByHost.remove(host, newDetection);
+            newDetection.completeExceptionally(e);
+            throw e;
+        }
+        // a failed detection is not remembered, so the next page of the host gets another try
+        if (UNKNOWN_LANGUAGE.equals(detectedLanguage))
+            languagesByHost.remove(host, newDetection);
+        newDetection.complete(detectedLanguage);
+        return detectedLanguage;
+    }
+
+    public int size() {
+        return languagesByHost.size();
+    }
+}
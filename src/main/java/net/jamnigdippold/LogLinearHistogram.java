@@ -0,0 +1,71 @@
+package net.jamnigdippold;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LogLinearHistogram {
+    // every power of two is split into 8 linear sub-buckets, so a bucket is at most 12.5% wide
+    protected static final int SUB_BUCKET_BITS = 3;
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    protected static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        long recordedValue = Math.max(0, value);
+        bucketCounts.incrementAndGet(getBucketIndex(recordedValue));
+        count.increment();
+        sum.add(recordedValue);
+        min.accumulate(recordedValue);
+        max.accumulate(recordedValue);
+    }
+
+    protected static int getBucketIndex(long value) {
+        // values below 8 get a bucket each, above that the top 3 bits below the highest one pick the sub-bucket
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    protected static long getBucketUpperBound(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT)
+            return bucketIndex;
+        int magnitude = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = bucketIndex % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << (magnitude - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public HistogramSnapshot getSnapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = bucketCounts.get(i);
+            totalCount += counts[i];
+        }
+        if (totalCount == 0)
+            return new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0);
+        long maxValue = max.get();
+        return new HistogramSnapshot(totalCount, sum.sum(), min.get(), maxValue,
+                getValueAtPercentile(counts, totalCount, 0.5, maxValue),
+                getValueAtPercentile(counts, totalCount, 0.9, maxValue),
+                getValueAtPercentile(counts, totalCount, 0.99, maxValue));
+    }
+
+    private static long getValueAtPercentile(long[] counts, long totalCount, double percentile, long maxValue) {
+        long rank = (long) Math.ceil(percentile * totalCount);
+        long seenCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seenCount += counts[i];
+            if (seenCount >= rank)
+                return Math.min(getBucketUpperBound(i), maxValue);
+        }
+        return maxValue;
+    }
+}
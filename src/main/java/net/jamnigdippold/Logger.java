@@ -1,13 +1,19 @@
 package net.jamnigdippold;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public interface Logger {
     void logError(String errorMessage);
 
+    void logError(ErrorRecord.Phase phase, String url, Throwable error, String errorMessage);
+
     String getErrorLogAsString();
 
-    ArrayList<String> getErrorLog();
+    List<String> getErrorLog();
+
+    List<ErrorRecord> getErrorRecords();
+
+    ErrorSummary getErrorSummary();
 
     void clearLog();
 }
@@ -0,0 +1,89 @@
+package net.jamnigdippold;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LongAdderCrawlMetrics implements CrawlMetrics {
+    private final long startTime = System.nanoTime();
+    // LongAdders spread concurrent increments over cells, so crawler threads do not contend on a shared counter
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LogLinearHistogram> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LogLinearHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementCounter(String name) {
+        getCounter(name).increment();
+    }
+
+    @Override
+    public void addToCounter(String name, long amount) {
+        getCounter(name).add(amount);
+    }
+
+    @Override
+    public void addToGauge(String name, long delta) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null)
+            gauge = gauges.computeIfAbsent(name, ignored -> new Gauge());
+        gauge.add(delta);
+    }
+
+    @Override
+    public void recordTime(String name, long nanos) {
+        getHistogram(timers, name).record(nanos);
+    }
+
+    @Override
+    public void recordValue(String name, long value) {
+        getHistogram(histograms, name).record(value);
+    }
+
+    private LongAdder getCounter(String name) {
+        // a plain get first, computeIfAbsent locks the bin even when the counter exists
+        LongAdder counter = counters.get(name);
+        if (counter == null)
+            counter = counters.computeIfAbsent(name, ignored -> new LongAdder());
+        return counter;
+    }
+
+    private static LogLinearHistogram getHistogram(ConcurrentHashMap<String, LogLinearHistogram> histograms, String name) {
+        LogLinearHistogram histogram = histograms.get(name);
+        if (histogram == null)
+            histogram = histograms.computeIfAbsent(name, ignored -> new LogLinearHistogram());
+        return histogram;
+    }
+
+    @Override
+    public MetricsSnapshot getSnapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        Map<String, Long> gaugePeaks = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            gaugeValues.put(name, gauge.value.get());
+            gaugePeaks.put(name, gauge.peak.get());
+        });
+        return new MetricsSnapshot(System.nanoTime() - startTime, counterValues, gaugeValues, gaugePeaks,
+                snapshotHistograms(timers), snapshotHistograms(histograms));
+    }
+
+    private static Map<String, HistogramSnapshot> snapshotHistograms(ConcurrentHashMap<String, LogLinearHistogram> histograms) {
+        Map<String, HistogramSnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.getSnapshot()));
+        return snapshots;
+    }
+
+    private static class Gauge {
+        private final AtomicLong value = new AtomicLong();
+        private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+
+        private void add(long delta) {
+            peak.accumulate(value.addAndGet(delta));
+        }
+    }
+}
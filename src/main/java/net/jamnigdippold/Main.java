@@ -185,7 +185,8 @@ public class Main {
 
     public static void createFileChooser() {
         fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Markdown File (.md)", "md"));
+        ReportWriter.Format reportFormat = getReportFormat();
+        fileChooser.setFileFilter(new FileNameExtensionFilter(ReportWriter.getFileDescription(reportFormat), ReportWriter.getFileExtension(reportFormat)));
     }
 
     public static void runFileChooser() {
@@ -206,7 +207,13 @@ public class Main {
     }
 
     public static void addFileExtension() {
-        if (!outputPath.endsWith(".md"))
-            outputPath += ".md";
+        String fileExtension = "." + ReportWriter.getFileExtension(getReportFormat());
+        if (!outputPath.endsWith(fileExtension))
+            outputPath += fileExtension;
+    }
+
+    protected static ReportWriter.Format getReportFormat() {
+        // the report is written in the format that ThreadOrganizer reads from the same configuration
+        return CrawlerConfiguration.fromSystemProperties().getReportFormat();
     }
 }
\ No newline at end of file
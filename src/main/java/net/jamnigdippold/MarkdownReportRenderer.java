@@ -0,0 +1,105 @@
+package net.jamnigdippold;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+public class MarkdownReportRenderer implements ReportRenderer {
+    @Override
+    public void renderPage(PageResult page, Writer output) throws IOException {
+        if (page.getStatus() == PageResult.Status.CRAWLED && page.getDepth() == 0)
+            renderInput(page, output);
+        else
+            renderLink(page, output);
+        if (page.getHeadlines() != null)
+            renderHeadlines(page, output);
+    }
+
+    protected void renderInput(PageResult page, Writer output) throws IOException {
+        output.append("input: <a>").append(page.getUrl()).append("</a>\n");
+        output.append("<br>depth: ").append(String.valueOf(page.getMaxDepth())).append("\n");
+        output.append("<br>source language: ").append(page.getSourceLanguage()).append("\n");
+        output.append("<br>Target language: ").append(page.getTargetLanguage()).append("\n");
+        output.append("<br>summary:\n");
+    }
+
+    protected void renderLink(PageResult page, Writer output) throws IOException {
+        output.append("<br>--");
+        renderDepthIndicator(page.getDepth() - 1, output);
+        output.append(getLinkDescription(page.getStatus())).append(" <a>");
+        output.append(page.getUrl());
+        output.append("</a>\n\n");
+    }
+
+    protected String getLinkDescription(PageResult.Status status) {
+        switch (status) {
+            case BROKEN:
+                return "broken link";
+            case DISALLOWED:
+                return "disallowed link";
+            default:
+                return "link to";
+        }
+    }
+
+    protected void renderHeadlines(PageResult page, Writer output) throws IOException {
+        for (PageResult.Headline headline : page.getHeadlines()) {
+            renderHeaderLevel(headline.getLevel(), output);
+            if (page.getDepth() > 0) {
+                renderDepthIndicator(page.getDepth(), output);
+            }
+            output.append(headline.getText()).append("\n");
+        }
+        output.append("\n");
+    }
+
+    protected void renderHeaderLevel(int level, Writer output) throws IOException {
+        for (int i = 0; i < level; i++) {
+            output.append("#");
+        }
+        output.append(" ");
+    }
+
+    protected void renderDepthIndicator(int depth, Writer output) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            output.append("--");
+        }
+        output.append("> ");
+    }
+
+    @Override
+    public void renderErrors(List<ErrorRecord> errors, ErrorSummary summary, Writer output) throws IOException {
+        output.append(renderErrorLog(errors, summary));
+    }
+
+    protected static String renderErrorLog(List<ErrorRecord> errors, ErrorSummary summary) {
+        StringBuilder errorLog = new StringBuilder();
+        errorLog.append("# <br> ------- ERRORS ------- <br>\n");
+        if (errors.isEmpty() && summary.getErrorCount() == 0) {
+            errorLog.append("- No errors thrown while executing program <br>\n");
+        } else {
+            for (ErrorRecord logEntry : errors) {
+                errorLog.append("- ").append(logEntry.getMessage()).append("<br>\n");
+            }
+        }
+        // only the newest errors are kept, the counts tell what the dropped ones were about
+        if (summary.getDroppedErrorCount() > 0) {
+            errorLog.append("- ").append(summary.getDroppedErrorCount()).append(" older errors were dropped, ")
+                    .append(summary.getErrorCount()).append(" errors in total<br>\n");
+            errorLog.append("- errors by type: ").append(formatCounts(summary.getErrorCountsByType())).append("<br>\n");
+            errorLog.append("- errors by host: ").append(formatCounts(summary.getErrorCountsByHost())).append("<br>\n");
+        }
+        return errorLog.toString();
+    }
+
+    private static String formatCounts(Map<String, Long> counts) {
+        StringBuilder formattedCounts = new StringBuilder();
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            if (formattedCounts.length() > 0)
+                formattedCounts.append(", ");
+            formattedCounts.append(count.getKey()).append(": ").append(count.getValue());
+        }
+        return formattedCounts.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package net.jamnigdippold;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsReporter {
+    private final CrawlMetrics metrics;
+    private final PrintStream output;
+    private final long intervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    public MetricsReporter(CrawlMetrics metrics, PrintStream output, long intervalMillis) {
+        this.metrics = metrics;
+        this.output = output;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread reporterThread = new Thread(runnable, "metrics-reporter");
+            reporterThread.setDaemon(true);
+            return reporterThread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null)
+            scheduler.shutdownNow();
+        // the final snapshot covers the whole crawl, also when it ended before the first interval
+        report();
+    }
+
+    protected void report() {
+        output.print(metrics.getSnapshot().format());
+        output.flush();
+    }
+}
@@ -0,0 +1,77 @@
+package net.jamnigdippold;
+
+import java.util.Locale;
+import java.util.Map;
+
+public class MetricsSnapshot {
+    private final long elapsedNanos;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, Long> gaugePeaks;
+    private final Map<String, HistogramSnapshot> timers;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    public MetricsSnapshot(long elapsedNanos, Map<String, Long> counters, Map<String, Long> gauges, Map<String, Long> gaugePeaks,
+                           Map<String, HistogramSnapshot> timers, Map<String, HistogramSnapshot> histograms) {
+        this.elapsedNanos = elapsedNanos;
+        this.counters = counters;
+        this.gauges = gauges;
+        this.gaugePeaks = gaugePeaks;
+        this.timers = timers;
+        this.histograms = histograms;
+    }
+
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    public long getGauge(String name) {
+        return gauges.getOrDefault(name, 0L);
+    }
+
+    public long getGaugePeak(String name) {
+        return gaugePeaks.getOrDefault(name, 0L);
+    }
+
+    public HistogramSnapshot getTimer(String name) {
+        return timers.get(name);
+    }
+
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, HistogramSnapshot> getTimers() {
+        return timers;
+    }
+
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    public String format() {
+        StringBuilder output = new StringBuilder();
+        output.append(String.format(Locale.ROOT, "metrics after %.1f s%n", elapsedNanos / 1e9));
+        counters.forEach((name, value) -> output.append(String.format(Locale.ROOT, "  %s = %d%n", name, value)));
+        gauges.forEach((name, value) -> output.append(String.format(Locale.ROOT, "  %s = %d (peak %d)%n", name, value, getGaugePeak(name))));
+        timers.forEach((name, timer) -> output.append(String.format(Locale.ROOT,
+                "  %s: count %d, mean %.2f ms, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n", name, timer.getCount(),
+                timer.getMean() / 1e6, timer.getP50() / 1e6, timer.getP90() / 1e6, timer.getP99() / 1e6, timer.getMax() / 1e6)));
+        histograms.forEach((name, histogram) -> output.append(String.format(Locale.ROOT,
+                "  %s: count %d, sum %d, mean %.1f, p50 %d, p90 %d, p99 %d, max %d%n", name, histogram.getCount(), histogram.getSum(),
+                histogram.getMean(), histogram.getP50(), histogram.getP90(), histogram.getP99(), histogram.getMax())));
+        return output.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package net.jamnigdippold;
+
+import java.util.Map;
+
+public class NoOpCrawlMetrics implements CrawlMetrics {
+    @Override
+    public void incrementCounter(String name) {
+    }
+
+    @Override
+    public void addToCounter(String name, long amount) {
+    }
+
+    @Override
+    public void addToGauge(String name, long delta) {
+    }
+
+    @Override
+    public void recordTime(String name, long nanos) {
+    }
+
+    @Override
+    public void recordValue(String name, long value) {
+    }
+
+    @Override
+    public MetricsSnapshot getSnapshot() {
+        return new MetricsSnapshot(0, Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+}
@@ -1,10 +1,18 @@
 package net.jamnigdippold;
 
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class OkHttpWrapper implements HttpClient {
     private OkHttpClient client;
@@ -13,11 +21,56 @@ public class OkHttpWrapper implements HttpClient {
         this.client = new OkHttpClient();
     }
 
+    public OkHttpWrapper(OkHttpClient client) {
+        this.client = client;
+    }
+
+    public static OkHttpClient createClient(CrawlerConfiguration configuration) {
+        Dispatcher dispatcher = new Dispatcher();
+        // all translation requests go to the same host, so the per host limit is the one that matters
+        dispatcher.setMaxRequestsPerHost(configuration.getHttpMaxRequestsPerHost());
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), configuration.getHttpMaxRequestsPerHost()));
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(configuration.getHttpMaxIdleConnections(), configuration.getHttpKeepAliveSeconds(), TimeUnit.SECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(configuration.getHttpConnectTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(configuration.getHttpReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
     @Override
     public Response executeRequest(Request request) throws IOException {
         return client.newCall(request).execute();
     }
 
+    @Override
+    public CompletableFuture<Response> executeRequestAsync(Request request) {
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                response.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response apiResponse) {
+                response.complete(apiResponse);
+            }
+        });
+        return response;
+    }
+
+    @Override
+    public void close() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    protected OkHttpClient getClient() {
+        return client;
+    }
+
     protected void setClient(OkHttpClient client) {
         this.client = client;
     }
@@ -0,0 +1,7 @@
+package net.jamnigdippold;
+
+public interface PageFetcher {
+    FetchResult fetch(String url);
+
+    FetchResult checkLink(String url);
+}
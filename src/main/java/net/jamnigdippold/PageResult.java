@@ -0,0 +1,103 @@
+package net.jamnigdippold;
+
+import java.util.List;
+
+public class PageResult {
+    public enum Status {
+        CRAWLED,
+        LINKED,
+        BROKEN,
+        DISALLOWED
+    }
+
+    private final String url;
+    private final int depth;
+    private String parentUrl;
+    private Status status;
+    private int maxDepth;
+    private String sourceLanguage;
+    private String targetLanguage;
+    private List<Headline> headlines;
+
+    public PageResult(String url, int depth) {
+        this.url = url;
+        this.depth = depth;
+        this.status = Status.LINKED;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public String getParentUrl() {
+        // null for the pages a crawl starts from
+        return parentUrl;
+    }
+
+    public void setParentUrl(String parentUrl) {
+        this.parentUrl = parentUrl;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public String getSourceLanguage() {
+        return sourceLanguage;
+    }
+
+    public void setSourceLanguage(String sourceLanguage) {
+        this.sourceLanguage = sourceLanguage;
+    }
+
+    public String getTargetLanguage() {
+        return targetLanguage;
+    }
+
+    public void setTargetLanguage(String targetLanguage) {
+        this.targetLanguage = targetLanguage;
+    }
+
+    public List<Headline> getHeadlines() {
+        // null for pages that were not crawled, empty for crawled pages without headlines
+        return headlines;
+    }
+
+    public void setHeadlines(List<Headline> headlines) {
+        this.headlines = headlines;
+    }
+
+    public static class Headline {
+        private final int level;
+        private final String text;
+
+        public Headline(int level, String text) {
+            this.level = level;
+            this.text = text;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+}
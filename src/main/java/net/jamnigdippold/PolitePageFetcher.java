@@ -0,0 +1,35 @@
+package net.jamnigdippold;
+
+public class PolitePageFetcher implements PageFetcher {
+    private final PageFetcher pageFetcher;
+    private final HostPolitenessScheduler scheduler;
+
+    public PolitePageFetcher(PageFetcher pageFetcher, HostPolitenessScheduler scheduler) {
+        this.pageFetcher = pageFetcher;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public FetchResult fetch(String url) {
+        try {
+            return scheduler.schedule(url, () -> pageFetcher.fetch(url));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, e);
+        }
+    }
+
+    @Override
+    public FetchResult checkLink(String url) {
+        try {
+            return scheduler.schedule(url, () -> pageFetcher.checkLink(url));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FetchResult.failure(url, FetchResult.NO_STATUS_CODE, e);
+        }
+    }
+
+    public PageFetcher getPageFetcher() {
+        return pageFetcher;
+    }
+}
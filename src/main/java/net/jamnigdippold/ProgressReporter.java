@@ -0,0 +1,117 @@
+package net.jamnigdippold;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ProgressReporter {
+    private final CrawlMetrics metrics;
+    private final Logger errorLogger;
+    private final PrintStream output;
+    private final long intervalMillis;
+    private final long startTime;
+    private ScheduledExecutorService scheduler;
+    private long lastReportTime;
+    private long lastFetchedPages;
+    private long lastFinishedCrawlers;
+    private long lastTranslationRequests;
+
+    public ProgressReporter(CrawlMetrics metrics, Logger errorLogger, PrintStream output, long intervalMillis) {
+        this.metrics = metrics;
+        this.errorLogger = errorLogger;
+        this.output = output;
+        this.intervalMillis = intervalMillis;
+        this.startTime = System.nanoTime();
+        this.lastReportTime = startTime;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread reporterThread = new Thread(runnable, "progress-reporter");
+            reporterThread.setDaemon(true);
+            return reporterThread;
+        });
+        scheduler.scheduleAtFixedRate(() -> print(report(System.nanoTime())), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler == null)
+            return;
+        scheduler.shutdownNow();
+        try {
+            // a report that is being printed right now must not interleave with the final one
+            scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        print("finished: " + report(System.nanoTime()));
+    }
+
+    private void print(String progress) {
+        output.println(progress);
+        output.flush();
+    }
+
+    protected synchronized String report(long now) {
+        // only counters and gauges are read, the crawler threads never wait for the reporter
+        MetricsSnapshot snapshot = metrics.getSnapshot();
+        long fetchedPages = snapshot.getCounter("crawler.pages.fetched");
+        long finishedCrawlers = snapshot.getCounter("crawler.finished");
+        // every call to the translation api is timed, cached translations are not counted
+        long translationRequests = getTimerCount(snapshot, "translation.api.time");
+        long queuedCrawlers = snapshot.getGauge("crawler.queued");
+        long activeCrawlers = snapshot.getGauge("crawler.active");
+        double intervalSeconds = Math.max(1, now - lastReportTime) / 1e9;
+        double pagesPerSecond = (fetchedPages - lastFetchedPages) / intervalSeconds;
+        double crawlersPerSecond = (finishedCrawlers - lastFinishedCrawlers) / intervalSeconds;
+        double translationRequestsPerSecond = (translationRequests - lastTranslationRequests) / intervalSeconds;
+        lastReportTime = now;
+        lastFetchedPages = fetchedPages;
+        lastFinishedCrawlers = finishedCrawlers;
+        lastTranslationRequests = translationRequests;
+
+        return String.format(Locale.ROOT, "[%s] %d pages fetched (%.1f/s), %d queued%s, %d active, %d crawlers finished (%.1f/s), "
+                        + "%d translation requests (%.1f/s), %d errors, ETA %s",
+                formatDuration(now - startTime), fetchedPages, pagesPerSecond, queuedCrawlers, formatQueuedPerDepth(snapshot.getGauges()),
+                activeCrawlers, finishedCrawlers, crawlersPerSecond, translationRequests, translationRequestsPerSecond,
+                errorLogger.getErrorSummary().getErrorCount(), formatEta(queuedCrawlers + activeCrawlers, crawlersPerSecond));
+    }
+
+    private static long getTimerCount(MetricsSnapshot snapshot, String name) {
+        HistogramSnapshot timer = snapshot.getTimer(name);
+        return timer == null ? 0 : timer.getCount();
+    }
+
+    protected static String formatQueuedPerDepth(Map<String, Long> gauges) {
+        Map<Integer, Long> queuedPerDepth = new TreeMap<>();
+        gauges.forEach((name, value) -> {
+            if (name.startsWith(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX) && value > 0)
+                queuedPerDepth.put(Integer.parseInt(name.substring(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX.length())), value);
+        });
+        if (queuedPerDepth.isEmpty())
+            return "";
+        StringJoiner depths = new StringJoiner(", ", " (", ")");
+        queuedPerDepth.forEach((depth, value) -> depths.add("depth " + depth + ": " + value));
+        return depths.toString();
+    }
+
+    protected static String formatEta(long remainingCrawlers, double crawlersPerSecond) {
+        // queued and finished crawlers both include link checks, the frontier still grows while pages are crawled,
+        // so this is a lower bound for the current depth
+        if (remainingCrawlers == 0)
+            return formatDuration(0);
+        if (crawlersPerSecond <= 0)
+            return "unknown";
+        return formatDuration((long) (remainingCrawlers / crawlersPerSecond * 1e9));
+    }
+
+    protected static String formatDuration(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        return String.format(Locale.ROOT, "%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
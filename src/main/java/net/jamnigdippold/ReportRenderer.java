@@ -0,0 +1,14 @@
+package net.jamnigdippold;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+public interface ReportRenderer {
+    default void renderHeader(Writer output) throws IOException {
+    }
+
+    void renderPage(PageResult page, Writer output) throws IOException;
+
+    void renderErrors(List<ErrorRecord> errors, ErrorSummary summary, Writer output) throws IOException;
+}
@@ -0,0 +1,108 @@
+package net.jamnigdippold;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class ReportSection {
+    // all sections of one report share the lock, sections of a ReportWriter lock on the writer
+    private final Object lock;
+    private final ReportWriter reportWriter;
+    private final Deque<ReportSection> unwrittenChildren = new ArrayDeque<>();
+    private PageResult page;
+    private boolean contentFinished;
+    private boolean closed;
+
+    public ReportSection() {
+        this(null, new Object());
+    }
+
+    protected ReportSection(ReportWriter reportWriter, Object lock) {
+        this.reportWriter = reportWriter;
+        this.lock = lock;
+    }
+
+    public void setPage(PageResult page) {
+        synchronized (lock) {
+            if (contentFinished)
+                throw new IllegalStateException("Content of report section is already finished");
+            this.page = page;
+        }
+    }
+
+    public ReportSection addChild() {
+        synchronized (lock) {
+            if (closed)
+                throw new IllegalStateException("Report section is already closed");
+            ReportSection child = new ReportSection(reportWriter, lock);
+            unwrittenChildren.add(child);
+            return child;
+        }
+    }
+
+    public void finishContent() {
+        synchronized (lock) {
+            contentFinished = true;
+            writeCompletedSections();
+        }
+    }
+
+    public void close() {
+        synchronized (lock) {
+            contentFinished = true;
+            closed = true;
+            writeCompletedSections();
+        }
+    }
+
+    public boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    public String render(ReportRenderer renderer) {
+        synchronized (lock) {
+            StringWriter output = new StringWriter();
+            try {
+                renderTo(output, renderer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return output.toString();
+        }
+    }
+
+    private void renderTo(Writer output, ReportRenderer renderer) throws IOException {
+        if (page != null)
+            renderer.renderPage(page, output);
+        for (ReportSection child : unwrittenChildren) {
+            child.renderTo(output, renderer);
+        }
+    }
+
+    private void writeCompletedSections() {
+        if (reportWriter != null)
+            reportWriter.writeCompletedSections();
+    }
+
+    protected boolean writeCompleted(ReportWriter output) throws IOException {
+        // sections are written in tree order, the first unfinished section stops the walk and
+        // everything that was written is released, so only the unfinished part stays in memory
+        if (!contentFinished)
+            return false;
+        if (page != null) {
+            output.writePage(page);
+            page = null;
+        }
+        while (!unwrittenChildren.isEmpty()) {
+            if (!unwrittenChildren.peekFirst().writeCompleted(output))
+                return false;
+            unwrittenChildren.pollFirst();
+        }
+        return closed;
+    }
+}
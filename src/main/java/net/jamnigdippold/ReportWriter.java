@@ -0,0 +1,146 @@
+package net.jamnigdippold;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class ReportWriter implements Closeable {
+    private static final Logger logger = ErrorLogger.getInstance();
+    protected static final int BUFFER_SIZE = 64 * 1024;
+    private final Writer writer;
+    private final ReportRenderer renderer;
+    private final ReportSection rootSection;
+    private BinaryReportWriter binaryReportWriter;
+    private boolean writeFailed;
+    private CrawlMetrics metrics = new NoOpCrawlMetrics();
+
+    public enum Format {
+        MARKDOWN,
+        JSONL,
+        CSV
+    }
+
+    public ReportWriter(Path outputPath, ReportRenderer renderer) throws IOException {
+        this(new BufferedWriter(Channels.newWriter(FileChannel.open(outputPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.UTF_8), BUFFER_SIZE), renderer);
+    }
+
+    protected ReportWriter(Writer writer, ReportRenderer renderer) throws IOException {
+        this.writer = writer;
+        this.renderer = renderer;
+        this.rootSection = new ReportSection(this, this);
+        renderer.renderHeader(writer);
+        this.rootSection.finishContent();
+    }
+
+    public static ReportRenderer createRenderer(Format format) {
+        switch (format) {
+            case JSONL:
+                return new JsonLinesReportRenderer();
+            case CSV:
+                return new CsvReportRenderer();
+            default:
+                return new MarkdownReportRenderer();
+        }
+    }
+
+    public static String getFileExtension(Format format) {
+        switch (format) {
+            case JSONL:
+                return "jsonl";
+            case CSV:
+                return "csv";
+            default:
+                return "md";
+        }
+    }
+
+    public static String getFileDescription(Format format) {
+        switch (format) {
+            case JSONL:
+                return "JSON Lines File (.jsonl)";
+            case CSV:
+                return "CSV File (.csv)";
+            default:
+                return "Markdown File (.md)";
+        }
+    }
+
+    public ReportSection getRootSection() {
+        return rootSection;
+    }
+
+    protected synchronized void writeCompletedSections() {
+        if (writeFailed)
+            return;
+        try {
+            rootSection.writeCompleted(this);
+        } catch (IOException e) {
+            // the report is incomplete from here on, later sections are dropped instead of failing again
+            writeFailed = true;
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error whilst writing report: " + e);
+        }
+    }
+
+    protected void writePage(PageResult page) throws IOException {
+        long startTime = System.nanoTime();
+        renderer.renderPage(page, writer);
+        if (binaryReportWriter != null)
+            writeBinaryPage(page);
+        metrics.recordTime("report.write.time", System.nanoTime() - startTime);
+    }
+
+    private void writeBinaryPage(PageResult page) {
+        try {
+            binaryReportWriter.write(page);
+        } catch (IOException e) {
+            // the text report goes on without the binary copy
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error whilst writing binary report: " + e);
+            closeBinaryReportWriter();
+        }
+    }
+
+    public void setMetrics(CrawlMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public synchronized void setBinaryReportWriter(BinaryReportWriter binaryReportWriter) {
+        this.binaryReportWriter = binaryReportWriter;
+    }
+
+    private void closeBinaryReportWriter() {
+        try {
+            binaryReportWriter.close();
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error whilst closing binary report: " + e);
+        }
+        binaryReportWriter = null;
+    }
+
+    public synchronized void writeErrors(List<ErrorRecord> errors, ErrorSummary summary) {
+        rootSection.close();
+        if (writeFailed)
+            return;
+        try {
+            renderer.renderErrors(errors, summary, writer);
+        } catch (IOException e) {
+            writeFailed = true;
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error whilst writing report: " + e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        rootSection.close();
+        if (binaryReportWriter != null)
+            closeBinaryReportWriter();
+        writer.close();
+    }
+}
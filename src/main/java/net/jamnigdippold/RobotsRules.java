@@ -0,0 +1,98 @@
+package net.jamnigdippold;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class RobotsRules {
+    public static final RobotsRules ALLOW_ALL = new RobotsRules(new String[0], new boolean[0], 0);
+    public static final RobotsRules DISALLOW_ALL = new RobotsRules(new String[]{"/"}, new boolean[]{false}, 0);
+    // rules are kept as two parallel arrays ordered by decreasing pattern length,
+    // so the first matching rule is the most specific one
+    private final String[] patterns;
+    private final boolean[] allowed;
+    private final long crawlDelayMillis;
+
+    protected RobotsRules(String[] patterns, boolean[] allowed, long crawlDelayMillis) {
+        this.patterns = patterns;
+        this.allowed = allowed;
+        this.crawlDelayMillis = crawlDelayMillis;
+    }
+
+    public static RobotsRules of(List<String> allowPatterns, List<String> disallowPatterns, long crawlDelayMillis) {
+        List<Rule> rules = new ArrayList<>();
+        for (String allowPattern : allowPatterns) {
+            rules.add(new Rule(allowPattern, true));
+        }
+        for (String disallowPattern : disallowPatterns) {
+            rules.add(new Rule(disallowPattern, false));
+        }
+        // on equally long patterns the allow rule wins
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.pattern.length()).reversed()
+                .thenComparing(rule -> !rule.allowed));
+        String[] patterns = new String[rules.size()];
+        boolean[] allowed = new boolean[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            patterns[i] = rules.get(i).pattern;
+            allowed[i] = rules.get(i).allowed;
+        }
+        return new RobotsRules(patterns, allowed, crawlDelayMillis);
+    }
+
+    public boolean isAllowed(String pathAndQuery) {
+        for (int i = 0; i < patterns.length; i++) {
+            if (matches(patterns[i], pathAndQuery))
+                return allowed[i];
+        }
+        return true;
+    }
+
+    protected static boolean matches(String pattern, String path) {
+        // "*" matches any sequence of characters, a trailing "$" anchors the pattern at the end of the path,
+        // without it the pattern only needs to match a prefix of the path
+        boolean anchored = pattern.endsWith("$");
+        int patternLength = anchored ? pattern.length() - 1 : pattern.length();
+        int patternIndex = 0;
+        int pathIndex = 0;
+        int starIndex = -1;
+        int starPathIndex = 0;
+        while (pathIndex < path.length()) {
+            if (patternIndex == patternLength && !anchored)
+                return true;
+            if (patternIndex < patternLength && pattern.charAt(patternIndex) == '*') {
+                starIndex = patternIndex++;
+                starPathIndex = pathIndex;
+            } else if (patternIndex < patternLength && pattern.charAt(patternIndex) == path.charAt(pathIndex)) {
+                patternIndex++;
+                pathIndex++;
+            } else if (starIndex >= 0) {
+                patternIndex = starIndex + 1;
+                pathIndex = ++starPathIndex;
+            } else {
+                return false;
+            }
+        }
+        while (patternIndex < patternLength && pattern.charAt(patternIndex) == '*') {
+            patternIndex++;
+        }
+        return patternIndex == patternLength;
+    }
+
+    public long getCrawlDelayMillis() {
+        return crawlDelayMillis;
+    }
+
+    public int getRuleCount() {
+        return patterns.length;
+    }
+
+    protected static class Rule {
+        private final String pattern;
+        private final boolean allowed;
+
+        protected Rule(String pattern, boolean allowed) {
+            this.pattern = pattern;
+            this.allowed = allowed;
+        }
+    }
+}
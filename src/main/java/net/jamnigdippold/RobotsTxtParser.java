@@ -0,0 +1,89 @@
+package net.jamnigdippold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class RobotsTxtParser {
+    private RobotsTxtParser() {
+    }
+
+    public static RobotsRules parse(String robotsTxt, String userAgentToken) {
+        Group specificGroup = new Group();
+        Group wildcardGroup = new Group();
+        List<Group> currentGroups = new ArrayList<>();
+        boolean readingUserAgents = false;
+        String productToken = getProductToken(userAgentToken);
+
+        for (String line : robotsTxt.split("\r\n|\r|\n")) {
+            int separator = line.indexOf(':');
+            if (separator < 0)
+                continue;
+            String field = line.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+            String value = stripComment(line.substring(separator + 1)).trim();
+
+            if (field.equals("user-agent")) {
+                if (!readingUserAgents)
+                    currentGroups.clear();
+                readingUserAgents = true;
+                String userAgent = getProductToken(value);
+                if (userAgent.equals("*"))
+                    currentGroups.add(wildcardGroup);
+                else if (userAgent.equals(productToken))
+                    currentGroups.add(specificGroup);
+            } else if (Group.isRule(field)) {
+                readingUserAgents = false;
+                for (Group group : currentGroups) {
+                    group.add(field, value);
+                }
+            }
+        }
+        Group matchingGroup = specificGroup.isUsed() ? specificGroup : wildcardGroup;
+        return RobotsRules.of(matchingGroup.allowPatterns, matchingGroup.disallowPatterns, matchingGroup.crawlDelayMillis);
+    }
+
+    protected static String getProductToken(String userAgent) {
+        // only the name is compared, without a version or comment, e.g. "Cleancode-Webcrawler/1.0 (+info)"
+        String productToken = userAgent.trim().split("[/\\s]", 2)[0];
+        return productToken.toLowerCase(Locale.ROOT);
+    }
+
+    protected static String stripComment(String value) {
+        int commentStart = value.indexOf('#');
+        return commentStart < 0 ? value : value.substring(0, commentStart);
+    }
+
+    protected static class Group {
+        private final List<String> allowPatterns = new ArrayList<>();
+        private final List<String> disallowPatterns = new ArrayList<>();
+        private long crawlDelayMillis;
+        private boolean used;
+
+        protected static boolean isRule(String field) {
+            // other records like sitemap belong to no group and must not select one
+            return field.equals("allow") || field.equals("disallow") || field.equals("crawl-delay");
+        }
+
+        protected void add(String field, String value) {
+            used = true;
+            if (field.equals("allow") && !value.isEmpty())
+                allowPatterns.add(value);
+            else if (field.equals("disallow") && !value.isEmpty())
+                disallowPatterns.add(value);
+            else if (field.equals("crawl-delay"))
+                crawlDelayMillis = parseCrawlDelayMillis(value);
+        }
+
+        protected long parseCrawlDelayMillis(String value) {
+            try {
+                return Math.max(0, (long) (Double.parseDouble(value) * 1000));
+            } catch (NumberFormatException e) {
+                return crawlDelayMillis;
+            }
+        }
+
+        protected boolean isUsed() {
+            return used;
+        }
+    }
+}
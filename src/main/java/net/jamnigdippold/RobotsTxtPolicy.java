@@ -0,0 +1,134 @@
+package net.jamnigdippold;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class RobotsTxtPolicy {
+    protected static final String USER_AGENT_TOKEN = "cleancode-webcrawler";
+    protected static final long MAX_ROBOTS_TXT_BYTES = 500 * 1024;
+    // a server error disallows the whole host, but is retried much sooner than a regular robots.txt expires
+    protected static final long SERVER_ERROR_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private final HttpClient httpClient;
+    private final HostPolitenessScheduler scheduler;
+    private final long timeToLiveMillis;
+    private final Map<String, CachedRules> rulesByOrigin = new ConcurrentHashMap<>();
+
+    public RobotsTxtPolicy(HttpClient httpClient, HostPolitenessScheduler scheduler, long timeToLiveMillis) {
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    public boolean isAllowed(String url) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            return true;
+        }
+        if (uri.getHost() == null || uri.getScheme() == null || !uri.getScheme().toLowerCase(Locale.ROOT).startsWith("http"))
+            return true;
+        return getRules(getOrigin(uri)).isAllowed(getPathAndQuery(uri));
+    }
+
+    protected static String getOrigin(URI uri) {
+        String origin = uri.getScheme().toLowerCase(Locale.ROOT) + "://" + uri.getHost().toLowerCase(Locale.ROOT);
+        return uri.getPort() == -1 ? origin : origin + ":" + uri.getPort();
+    }
+
+    protected static String getPathAndQuery(URI uri) {
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        return uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery();
+    }
+
+    protected RobotsRules getRules(String origin) {
+        long now = currentTimeMillis();
+        CompletableFuture<RobotsRules> newDownload = new CompletableFuture<>();
+        CachedRules cachedRules = rulesByOrigin.compute(origin, (key, rules) ->
+                rules == null || rules.isExpired(now) ? new CachedRules(newDownload) : rules);
+        if (cachedRules.rules != newDownload)
+            return cachedRules.rules.join();
+
+        try {
+            DownloadedRules downloadedRules = downloadRules(origin);
+            cachedRules.expiresAtMillis = now + downloadedRules.timeToLiveMillis;
+            newDownload.complete(downloadedRules.rules);
+        } catch (RuntimeException e) {
+            rulesByOrigin.remove(origin, cachedRules);
+            newDownload.completeExceptionally(e);
+            throw e;
+        }
+        return newDownload.join();
+    }
+
+    protected DownloadedRules downloadRules(String origin) {
+        Request request = new Request.Builder()
+                .url(origin + "/robots.txt")
+                .header("User-Agent", HttpClientPageFetcher.USER_AGENT)
+                .build();
+        try {
+            DownloadedRules downloadedRules = scheduler.schedule(origin, () -> executeRequest(request));
+            if (downloadedRules.rules.getCrawlDelayMillis() > 0)
+                scheduler.applyCrawlDelay(origin, downloadedRules.rules.getCrawlDelayMillis());
+            return downloadedRules;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new DownloadedRules(RobotsRules.ALLOW_ALL, 0);
+        }
+    }
+
+    protected DownloadedRules executeRequest(Request request) {
+        try (Response response = httpClient.executeRequest(request)) {
+            if (response.isSuccessful())
+                return new DownloadedRules(RobotsTxtParser.parse(response.peekBody(MAX_ROBOTS_TXT_BYTES).string(), USER_AGENT_TOKEN), timeToLiveMillis);
+            if (response.code() >= 500)
+                return new DownloadedRules(RobotsRules.DISALLOW_ALL, Math.min(timeToLiveMillis, SERVER_ERROR_TIME_TO_LIVE_MILLIS));
+            // a missing robots.txt allows everything
+            return new DownloadedRules(RobotsRules.ALLOW_ALL, timeToLiveMillis);
+        } catch (IOException e) {
+            // an unreachable host shows up as broken links anyway, there is nothing to protect
+            return new DownloadedRules(RobotsRules.ALLOW_ALL, Math.min(timeToLiveMillis, SERVER_ERROR_TIME_TO_LIVE_MILLIS));
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public int size() {
+        return rulesByOrigin.size();
+    }
+
+    protected static class CachedRules {
+        private final CompletableFuture<RobotsRules> rules;
+        // rules still being downloaded never expire
+        private volatile long expiresAtMillis = Long.MAX_VALUE;
+
+        protected CachedRules(CompletableFuture<RobotsRules> rules) {
+            this.rules = rules;
+        }
+
+        protected boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    protected static class DownloadedRules {
+        private final RobotsRules rules;
+        private final long timeToLiveMillis;
+
+        protected DownloadedRules(RobotsRules rules, long timeToLiveMillis) {
+            this.rules = rules;
+            this.timeToLiveMillis = timeToLiveMillis;
+        }
+    }
+}
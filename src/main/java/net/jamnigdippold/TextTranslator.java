@@ -5,15 +5,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class TextTranslator implements Translator {
     private static final Logger logger = ErrorLogger.getInstance();
+    // headlines are sent as one text separated by line breaks, which the api keeps in place
+    protected static final String BATCH_DELIMITER = "\n";
+    protected static final int MAX_BATCH_LENGTH = 4000;
+    protected static final String DEFAULT_API_URL = "https://text-translator2.p.rapidapi.com/translate";
     private HttpClient httpClient;
-    private String sourceLanguage = "auto";
+    private volatile String sourceLanguage = "auto";
     private String targetLanguage;
+    private HttpUrl apiUrl = HttpUrl.get(DEFAULT_API_URL);
+    private CrawlMetrics metrics = new NoOpCrawlMetrics();
 
-    public TextTranslator() {
-        this.httpClient = new OkHttpWrapper();
+    public TextTranslator(HttpClient httpClient) {
+        this.httpClient = httpClient;
     }
 
 
@@ -24,21 +36,130 @@ public class TextTranslator implements Translator {
 
     @Override
     public String translate(String input) {
-        setSourceLanguage(input);
+        detectSourceLanguageIfUnknown(input);
         return getTranslatedHeadline(input);
     }
 
+    @Override
+    public List<String> translateAll(List<String> inputs) {
+        List<String> translations = new ArrayList<>(inputs.size());
+        for (List<String> batch : splitIntoBatches(inputs)) {
+            translations.addAll(translateBatch(batch));
+        }
+        return translations;
+    }
+
+    @Override
+    public CompletableFuture<List<String>> translateAllAsync(List<String> inputs) {
+        // the language is detected once up front, so the batches sent in parallel do not each detect it again
+        CompletableFuture<Void> languageDetection = inputs.isEmpty() ? CompletableFuture.completedFuture(null) : detectSourceLanguageIfUnknownAsync(inputs.get(0));
+        return languageDetection.thenCompose(detected -> {
+            List<CompletableFuture<List<String>>> batchTranslations = new ArrayList<>();
+            for (List<String> batch : splitIntoBatches(inputs)) {
+                batchTranslations.add(translateBatchAsync(batch));
+            }
+            return CompletableFuture.allOf(batchTranslations.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> joinBatchTranslations(batchTranslations));
+        });
+    }
+
+    protected List<String> joinBatchTranslations(List<CompletableFuture<List<String>>> batchTranslations) {
+        List<String> translations = new ArrayList<>();
+        for (CompletableFuture<List<String>> batchTranslation : batchTranslations) {
+            translations.addAll(batchTranslation.join());
+        }
+        return translations;
+    }
+
+    protected CompletableFuture<List<String>> translateBatchAsync(List<String> batch) {
+        String batchText = String.join(BATCH_DELIMITER, batch);
+        return detectSourceLanguageIfUnknownAsync(batch.get(0)).thenCompose(detected -> executeAPIRequestAsync(batchText)).thenCompose(apiResponse -> {
+            String translatedText = extractTranslatedText(apiResponse);
+            if (translatedText == null)
+                return CompletableFuture.completedFuture(createFailedTranslations(batch.size()));
+            if (batch.size() == 1)
+                return CompletableFuture.completedFuture(Collections.singletonList(translatedText));
+            String[] translations = translatedText.split(BATCH_DELIMITER, -1);
+            if (translations.length == batch.size())
+                return CompletableFuture.completedFuture(List.of(translations));
+
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), null, "Batch translation returned " + translations.length + " lines for " + batch.size() + " headlines, translating them one by one");
+            List<CompletableFuture<List<String>>> singleTranslations = new ArrayList<>();
+            for (String input : batch) {
+                singleTranslations.add(translateBatchAsync(List.of(input)));
+            }
+            return CompletableFuture.allOf(singleTranslations.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> joinBatchTranslations(singleTranslations));
+        });
+    }
+
+    protected List<List<String>> splitIntoBatches(List<String> inputs) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> currentBatch = new ArrayList<>();
+        int currentBatchLength = 0;
+        for (String input : inputs) {
+            String batchEntry = input.replace(BATCH_DELIMITER, " ");
+            if (!currentBatch.isEmpty() && currentBatchLength + BATCH_DELIMITER.length() + batchEntry.length() > MAX_BATCH_LENGTH) {
+                batches.add(currentBatch);
+                currentBatch = new ArrayList<>();
+                currentBatchLength = 0;
+            }
+            if (!currentBatch.isEmpty())
+                currentBatchLength += BATCH_DELIMITER.length();
+            currentBatch.add(batchEntry);
+            currentBatchLength += batchEntry.length();
+        }
+        if (!currentBatch.isEmpty())
+            batches.add(currentBatch);
+        return batches;
+    }
+
+    protected List<String> translateBatch(List<String> batch) {
+        if (batch.size() == 1)
+            return List.of(translate(batch.get(0)));
+
+        detectSourceLanguageIfUnknown(batch.get(0));
+        String translatedText = getTranslatedHeadline(String.join(BATCH_DELIMITER, batch));
+        if (translatedText == null)
+            return createFailedTranslations(batch.size());
+        String[] translations = translatedText.split(BATCH_DELIMITER, -1);
+        if (translations.length == batch.size())
+            return List.of(translations);
+
+        logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), null, "Batch translation returned " + translations.length + " lines for " + batch.size() + " headlines, translating them one by one");
+        List<String> fallbackTranslations = new ArrayList<>(batch.size());
+        for (String input : batch) {
+            fallbackTranslations.add(translate(input));
+        }
+        return fallbackTranslations;
+    }
+
+    protected static List<String> createFailedTranslations(int count) {
+        // a failed request translates nothing, every text of the batch is marked as untranslated
+        return Arrays.asList(new String[count]);
+    }
+
     @Override
     public String detectLanguage(String input) {
         return getLanguageCodeFromHeadline(input);
     }
 
-    protected void setSourceLanguage(String headlineText) {
+    protected void detectSourceLanguageIfUnknown(String headlineText) {
         if (sourceLanguage.equals("auto") && !headlineText.equals("")) {
             sourceLanguage = getLanguageCodeFromHeadline(headlineText);
         }
     }
 
+    protected CompletableFuture<Void> detectSourceLanguageIfUnknownAsync(String headlineText) {
+        if (!sourceLanguage.equals("auto") || headlineText.equals(""))
+            return CompletableFuture.completedFuture(null);
+        return executeAPIRequestAsync(headlineText).thenAccept(apiResponse -> {
+            String languageCode = extractLanguageCode(apiResponse);
+            if (sourceLanguage.equals("auto"))
+                sourceLanguage = languageCode;
+        });
+    }
+
     protected RequestBody createNewRequestBody(String headerText) {
         return new FormBody.Builder()
                 .add("source_language", sourceLanguage)
@@ -50,18 +171,18 @@ public class TextTranslator implements Translator {
     protected Request createTranslationApiRequest(okhttp3.RequestBody body) {
         String apiKey = getApiKey();
         return new Request.Builder()
-                .url("https://text-translator2.p.rapidapi.com/translate")
+                .url(apiUrl)
                 .post(body)
                 .addHeader("content-type", "application/x-www-form-urlencoded")
                 .addHeader("X-RapidAPI-Key", apiKey)
-                .addHeader("X-RapidAPI-Host", "text-translator2.p.rapidapi.com")
+                .addHeader("X-RapidAPI-Host", apiUrl.host())
                 .build();
     }
 
     protected String getApiKey() {
         String key = getApiKeyFromSystem();
         if (key == null) {
-            logger.logError("No API-Key found in System environment!");
+            logger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "No API-Key found in System environment!");
             return "invalid key";
         }
         return key;
@@ -72,14 +193,46 @@ public class TextTranslator implements Translator {
     }
 
     protected Response executeTranslationApiRequest(Request translationApiRequest) {
+        long startTime = System.nanoTime();
         try {
-            return httpClient.executeRequest(translationApiRequest);
+            Response response = httpClient.executeRequest(translationApiRequest);
+            recordApiResponse(startTime, response);
+            return response;
         } catch (IOException e) {
-            logger.logError("Error while executing translation request: " + e);
+            recordApiFailure(startTime);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getRequestUrl(translationApiRequest), e, "Error while executing translation request: " + e);
             return generateDefaultResponse(translationApiRequest);
         }
     }
 
+    protected CompletableFuture<Response> executeTranslationApiRequestAsync(Request translationApiRequest) {
+        long startTime = System.nanoTime();
+        return httpClient.executeRequestAsync(translationApiRequest).thenApply(response -> {
+            recordApiResponse(startTime, response);
+            return response;
+        }).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            recordApiFailure(startTime);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getRequestUrl(translationApiRequest), cause, "Error while executing translation request: " + cause);
+            return generateDefaultResponse(translationApiRequest);
+        });
+    }
+
+    protected void recordApiResponse(long startTime, Response response) {
+        metrics.recordTime("translation.api.time", System.nanoTime() - startTime);
+        if (response != null && !response.isSuccessful())
+            metrics.incrementCounter("translation.api.failures");
+    }
+
+    protected void recordApiFailure(long startTime) {
+        metrics.recordTime("translation.api.time", System.nanoTime() - startTime);
+        metrics.incrementCounter("translation.api.failures");
+    }
+
+    private static String getRequestUrl(Request request) {
+        return request.url() == null ? null : request.url().toString();
+    }
+
     protected Response generateDefaultResponse(Request translationApiRequest) {
         ResponseBody responseBody = ResponseBody.create(MediaType.parse("application/json"), "{\"status\":\"failure\"}");
         return new Response.Builder()
@@ -91,18 +244,19 @@ public class TextTranslator implements Translator {
                 .build();
     }
 
-    protected String extractTranslatedText(Response apiResponse, String input) {
+    protected String extractTranslatedText(Response apiResponse) {
+        // null tells the caller that there is no translation, so it is never cached as one
         try {
-            return extractTranslation(apiResponse, input);
+            return extractTranslation(apiResponse);
         } catch (IOException e) {
-            logger.logError("Error while trying to extract translated text: " + e);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), e, "Error while trying to extract translated text: " + e);
         } catch (NullPointerException e) {
-            logger.logError("Error while trying to extract translated text, the Json format is incorrect: " + e);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), e, "Error while trying to extract translated text, the Json format is incorrect: " + e);
         }
-        return input;
+        return null;
     }
 
-    protected String extractTranslation(Response apiResponse, String input) throws IOException, NullPointerException {
+    protected String extractTranslation(Response apiResponse) throws IOException, NullPointerException {
         JsonNode node;
 
         node = createNode(apiResponse);
@@ -110,19 +264,19 @@ public class TextTranslator implements Translator {
         if (checkNodeSuccessStatus(node)) {
             return node.get("data").get("translatedText").asText();
         } else {
-            return input;
+            return null;
         }
     }
 
     protected boolean checkNodeSuccessStatus(JsonNode node) {
         try {
             if (node.get("status") == null) {
-                logger.logError("Error while checking the success status of node: API-Response:" + node);
+                logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), null, "Error while checking the success status of node: API-Response:" + node);
                 return false;
             } else
                 return node.get("status").asText().equals("success");
         } catch (NullPointerException e) {
-            logger.logError("Error while checking the success status of node: " + e);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), e, "Error while checking the success status of node: " + e);
         }
         return false;
     }
@@ -131,9 +285,9 @@ public class TextTranslator implements Translator {
         try {
             return tryToExtractLanguageCode(apiResponse);
         } catch (IOException e) {
-            logger.logError("Error while trying to extract language code: " + e);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), e, "Error while trying to extract language code: " + e);
         } catch (NullPointerException e) {
-            logger.logError("Error while trying to extract language code, the Json format is incorrect: " + e);
+            logger.logError(ErrorRecord.Phase.TRANSLATION, getApiUrl(), e, "Error while trying to extract language code, the Json format is incorrect: " + e);
         }
         return "auto";
     }
@@ -157,7 +311,7 @@ public class TextTranslator implements Translator {
 
     protected String getTranslatedHeadline(String crawledHeadlineText) {
         Response apiResponse = executeAPIRequest(crawledHeadlineText);
-        return extractTranslatedText(apiResponse, crawledHeadlineText);
+        return extractTranslatedText(apiResponse);
     }
 
     protected String getLanguageCodeFromHeadline(String crawledHeadlineText) {
@@ -173,15 +327,45 @@ public class TextTranslator implements Translator {
         return executeTranslationApiRequest(request);
     }
 
+    protected CompletableFuture<Response> executeAPIRequestAsync(String crawledHeadlineText) {
+        RequestBody body = createNewRequestBody(crawledHeadlineText);
+        Request request = createTranslationApiRequest(body);
+
+        return executeTranslationApiRequestAsync(request);
+    }
+
+    @Override
     public String getSourceLanguage() {
         return sourceLanguage;
     }
 
+    @Override
+    public void setSourceLanguage(String sourceLanguage) {
+        this.sourceLanguage = sourceLanguage;
+    }
+
+    @Override
     public String getTargetLanguage() {
         return targetLanguage;
     }
 
+    public HttpClient getClient() {
+        return httpClient;
+    }
+
     public void setClient(HttpClient client) {
         this.httpClient = client;
     }
+
+    public String getApiUrl() {
+        return apiUrl.toString();
+    }
+
+    public void setApiUrl(String apiUrl) {
+        this.apiUrl = HttpUrl.get(apiUrl);
+    }
+
+    public void setMetrics(CrawlMetrics metrics) {
+        this.metrics = metrics;
+    }
 }
@@ -1,7 +1,8 @@
 package net.jamnigdippold;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 public class ThreadOrganizer {
     private static final Logger logger = ErrorLogger.getInstance();
@@ -9,23 +10,82 @@ public class ThreadOrganizer {
     private final int[] depthsOfRecursiveSearch;
     private final String[] languageCodes;
     private final String outputPath;
-    private String output;
+    private final CrawlerConfiguration configuration;
+    private ReportWriter reportWriter;
+    private ReportSection reportSection;
+    private CrawlEngine crawlEngine;
     private CrawlerLauncher launcher;
+    private ProgressReporter progressReporter;
 
     public ThreadOrganizer(String[] websiteUrls, int[] depthsOfRecursiveSearch, String[] languageCodes, String outputPath) {
+        this(websiteUrls, depthsOfRecursiveSearch, languageCodes, outputPath, CrawlerConfiguration.fromSystemProperties());
+    }
+
+    protected ThreadOrganizer(String[] websiteUrls, int[] depthsOfRecursiveSearch, String[] languageCodes, String outputPath, CrawlerConfiguration configuration) {
+        this(websiteUrls, depthsOfRecursiveSearch, languageCodes, outputPath, configuration, new CrawlEngine(configuration));
+    }
+
+    protected ThreadOrganizer(String[] websiteUrls, int[] depthsOfRecursiveSearch, String[] languageCodes, String outputPath, CrawlerConfiguration configuration, CrawlEngine crawlEngine) {
         this.websiteUrls = websiteUrls;
         this.depthsOfRecursiveSearch = depthsOfRecursiveSearch;
         this.languageCodes = languageCodes;
         this.outputPath = outputPath;
-        this.output = "";
-        this.launcher = new CrawlerLauncher();
+        this.reportSection = new ReportSection();
+        this.configuration = configuration;
+        this.crawlEngine = crawlEngine;
+        this.launcher = new CrawlerLauncher(crawlEngine);
     }
 
     public void startConcurrentCrawling() {
+        openOutputFile();
+        startProgressReporter();
         startCrawlers();
-        getOutputFromCrawlers();
+        waitForCrawlers();
+        stopProgressReporter();
         appendLoggingErrors();
-        saveOutputToFile();
+        closeOutputFile();
+        shutdownCrawlEngine();
+    }
+
+    protected void openOutputFile() {
+        // the report is streamed into the file while crawling, every finished section is written right away
+        try {
+            reportWriter = createReportWriter();
+            reportSection = reportWriter.getRootSection();
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error whilst opening output file " + outputPath + ": " + e);
+        }
+        launcher.setReportSection(reportSection);
+    }
+
+    protected ReportWriter createReportWriter() throws IOException {
+        ReportWriter reportWriter = new ReportWriter(Path.of(outputPath), ReportWriter.createRenderer(configuration.getReportFormat()));
+        reportWriter.setMetrics(crawlEngine.getMetrics());
+        if (configuration.getBinaryReportPath() != null)
+            attachBinaryReportWriter(reportWriter, configuration.getBinaryReportPath());
+        return reportWriter;
+    }
+
+    protected void attachBinaryReportWriter(ReportWriter reportWriter, String binaryReportPath) {
+        try {
+            reportWriter.setBinaryReportWriter(new BinaryReportWriter(Path.of(binaryReportPath)));
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error whilst opening binary report " + binaryReportPath + ": " + e);
+        }
+    }
+
+    protected void startProgressReporter() {
+        // the progress is read from the metrics, without them there is nothing to report
+        if (!configuration.isProgressEnabled() || !configuration.isMetricsEnabled())
+            return;
+        progressReporter = new ProgressReporter(crawlEngine.getMetrics(), logger, System.out,
+                TimeUnit.SECONDS.toMillis(configuration.getProgressIntervalSeconds()));
+        progressReporter.start();
+    }
+
+    protected void stopProgressReporter() {
+        if (progressReporter != null)
+            progressReporter.stop();
     }
 
     protected void startCrawlers() {
@@ -34,29 +94,37 @@ public class ThreadOrganizer {
         }
     }
 
-    protected void getOutputFromCrawlers() {
-        launcher.waitForCrawlerThreadsToFinish();
-        output = launcher.getOutputFromCrawlers();
+    protected void waitForCrawlers() {
+        launcher.waitForCrawlersToFinish();
     }
 
     protected void appendLoggingErrors() {
-        String errorLog = logger.getErrorLogAsString();
-        output += errorLog;
+        long startTime = System.nanoTime();
+        if (reportWriter != null)
+            reportWriter.writeErrors(logger.getErrorRecords(), logger.getErrorSummary());
+        crawlEngine.getMetrics().recordTime("report.errors.time", System.nanoTime() - startTime);
     }
 
-    protected void saveOutputToFile() {
-        try (FileWriter writer = new FileWriter(outputPath)) {
-            writer.write(output);
+    protected void closeOutputFile() {
+        reportSection.close();
+        if (reportWriter == null)
+            return;
+        try {
+            reportWriter.close();
         } catch (IOException e) {
-            logger.logError("Error while closing file writer: " + e);
+            logger.logError(ErrorRecord.Phase.REPORT, null, e, "Error while closing file writer: " + e);
         }
     }
 
-    protected String getOutput() {
-        return output;
+    protected void shutdownCrawlEngine() {
+        crawlEngine.shutdown();
     }
 
     protected void setLauncher(CrawlerLauncher launcher) {
         this.launcher = launcher;
     }
+
+    protected void setCrawlEngine(CrawlEngine crawlEngine) {
+        this.crawlEngine = crawlEngine;
+    }
 }
@@ -0,0 +1,136 @@
+package net.jamnigdippold;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranslationCache {
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<TranslationKey, CachedTranslation> cachedTranslations;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private TranslationCacheFile cacheFile;
+
+    public TranslationCache(int maxEntries, long timeToLiveMillis) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.cachedTranslations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TranslationKey, CachedTranslation> eldest) {
+                return size() > TranslationCache.this.maxEntries;
+            }
+        };
+    }
+
+    public String get(String sourceLanguage, String targetLanguage, String text) {
+        TranslationKey key = new TranslationKey(sourceLanguage, targetLanguage, text);
+        synchronized (cachedTranslations) {
+            CachedTranslation cachedTranslation = cachedTranslations.get(key);
+            if (cachedTranslation == null || isExpired(cachedTranslation)) {
+                if (cachedTranslation != null)
+                    cachedTranslations.remove(key);
+                missCount.increment();
+                return null;
+            }
+            hitCount.increment();
+            return cachedTranslation.translation;
+        }
+    }
+
+    public void put(String sourceLanguage, String targetLanguage, String text, String translation) {
+        // a missing translation is never cached, neither in memory nor in the cache file
+        if (translation == null)
+            return;
+        long createdAtMillis = currentTimeMillis();
+        TranslationKey key = new TranslationKey(sourceLanguage, targetLanguage, text);
+        CachedTranslation cachedTranslation = new CachedTranslation(translation, createdAtMillis + timeToLiveMillis);
+        synchronized (cachedTranslations) {
+            cachedTranslations.put(key, cachedTranslation);
+        }
+        if (cacheFile != null)
+            cacheFile.append(sourceLanguage, targetLanguage, text, translation, createdAtMillis);
+    }
+
+    public boolean restore(String sourceLanguage, String targetLanguage, String text, String translation, long createdAtMillis) {
+        CachedTranslation cachedTranslation = new CachedTranslation(translation, createdAtMillis + timeToLiveMillis);
+        if (isExpired(cachedTranslation))
+            return false;
+        TranslationKey key = new TranslationKey(sourceLanguage, targetLanguage, text);
+        synchronized (cachedTranslations) {
+            // translations made by the running crawl are newer than anything read back from disk
+            cachedTranslations.putIfAbsent(key, cachedTranslation);
+        }
+        return true;
+    }
+
+    protected boolean isExpired(CachedTranslation cachedTranslation) {
+        return currentTimeMillis() >= cachedTranslation.expiresAtMillis;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public int size() {
+        synchronized (cachedTranslations) {
+            return cachedTranslations.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setCacheFile(TranslationCacheFile cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    protected static class CachedTranslation {
+        private final String translation;
+        private final long expiresAtMillis;
+
+        protected CachedTranslation(String translation, long expiresAtMillis) {
+            this.translation = translation;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    protected static class TranslationKey {
+        private final String sourceLanguage;
+        private final String targetLanguage;
+        private final String text;
+
+        protected TranslationKey(String sourceLanguage, String targetLanguage, String text) {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (!(other instanceof TranslationKey))
+                return false;
+            TranslationKey otherKey = (TranslationKey) other;
+            return Objects.equals(sourceLanguage, otherKey.sourceLanguage)
+                    && Objects.equals(targetLanguage, otherKey.targetLanguage)
+                    && Objects.equals(text, otherKey.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceLanguage, targetLanguage, text);
+        }
+    }
+}
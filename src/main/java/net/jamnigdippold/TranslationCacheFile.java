@@ -0,0 +1,216 @@
+package net.jamnigdippold;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class TranslationCacheFile {
+    private static final Logger logger = ErrorLogger.getInstance();
+    protected static final String FILE_NAME = "translations.jsonl";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path file;
+    private BufferedWriter writer;
+    // entries appended while the file is loaded, null when no load is running
+    private List<Entry> pendingEntries;
+    private volatile CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+
+    public TranslationCacheFile(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    public CompletableFuture<Void> loadAsync(TranslationCache translationCache) {
+        // loading runs in the background, crawlers that start meanwhile simply miss and translate online
+        loading = CompletableFuture.runAsync(() -> load(translationCache));
+        return loading;
+    }
+
+    protected void load(TranslationCache translationCache) {
+        // the file is read and compacted without holding the lock, appends meanwhile are only queued
+        if (!Files.exists(file) || !startLoading())
+            return;
+        Map<TranslationCache.TranslationKey, Entry> latestEntries = new LinkedHashMap<>();
+        int lineCount = 0;
+        int skippedLines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineCount++;
+                Entry entry = parseEntry(line);
+                if (entry == null) {
+                    skippedLines++;
+                    continue;
+                }
+                // later lines supersede earlier ones, re-inserting keeps the map ordered from oldest to newest
+                latestEntries.remove(entry.getKey());
+                latestEntries.put(entry.getKey(), entry);
+            }
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.CACHE, null, e, "Error whilst loading translation cache file " + file + ": " + e);
+            finishLoading(null);
+            return;
+        }
+        if (skippedLines > 0)
+            logger.logError(ErrorRecord.Phase.CACHE, null, null, "Skipped " + skippedLines + " unreadable entries in translation cache file " + file);
+
+        List<Entry> keptEntries = restoreEntries(translationCache, latestEntries.values());
+        finishLoading(keptEntries.size() < lineCount ? writeCompactedFile(keptEntries) : null);
+    }
+
+    private synchronized boolean startLoading() {
+        if (pendingEntries != null)
+            return false;
+        pendingEntries = new ArrayList<>();
+        return true;
+    }
+
+    private synchronized void finishLoading(Path compactedFile) {
+        // only the swap holds the lock, entries appended while loading follow the compacted ones
+        if (compactedFile != null)
+            replaceFile(compactedFile);
+        List<Entry> queuedEntries = pendingEntries;
+        pendingEntries = null;
+        for (Entry entry : queuedEntries) {
+            write(entry);
+        }
+    }
+
+    protected List<Entry> restoreEntries(TranslationCache translationCache, Iterable<Entry> entries) {
+        List<Entry> keptEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (translationCache.restore(entry.sourceLanguage, entry.targetLanguage, entry.text, entry.translation, entry.createdAtMillis))
+                keptEntries.add(entry);
+        }
+        // the cache never holds more than its maximum, older entries would only be evicted again on the next load
+        int maxEntries = translationCache.getMaxEntries();
+        if (keptEntries.size() > maxEntries)
+            return keptEntries.subList(keptEntries.size() - maxEntries, keptEntries.size());
+        return keptEntries;
+    }
+
+    protected Entry parseEntry(String line) {
+        try {
+            JsonNode entry = objectMapper.readTree(line);
+            return new Entry(entry.get("source").asText(), entry.get("target").asText(), entry.get("text").asText(),
+                    entry.get("translation").asText(), entry.get("createdAt").asLong());
+        } catch (IOException | NullPointerException e) {
+            // a crawl killed mid-write leaves a truncated last line, which is simply dropped
+            return null;
+        }
+    }
+
+    protected Path writeCompactedFile(List<Entry> entries) {
+        // expired and superseded entries are dropped, the compacted file replaces the old one in a single move
+        Path compactedFile = file.resolveSibling(FILE_NAME + ".tmp");
+        try (BufferedWriter compactedWriter = Files.newBufferedWriter(compactedFile, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries) {
+                compactedWriter.write(toJson(entry));
+                compactedWriter.newLine();
+            }
+            return compactedFile;
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.CACHE, null, e, "Error whilst compacting translation cache file " + file + ": " + e);
+            return null;
+        }
+    }
+
+    private void replaceFile(Path compactedFile) {
+        try {
+            closeWriter();
+            Files.move(compactedFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.CACHE, null, e, "Error whilst compacting translation cache file " + file + ": " + e);
+        }
+    }
+
+    public synchronized void append(String sourceLanguage, String targetLanguage, String text, String translation, long createdAtMillis) {
+        Entry entry = new Entry(sourceLanguage, targetLanguage, text, translation, createdAtMillis);
+        if (pendingEntries != null)
+            pendingEntries.add(entry);
+        else
+            write(entry);
+    }
+
+    private void write(Entry entry) {
+        try {
+            BufferedWriter entryWriter = getWriter();
+            entryWriter.write(toJson(entry));
+            entryWriter.newLine();
+            entryWriter.flush();
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.CACHE, null, e, "Error whilst writing translation cache file " + file + ": " + e);
+        }
+    }
+
+    protected String toJson(Entry entry) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("source", entry.sourceLanguage);
+        node.put("target", entry.targetLanguage);
+        node.put("text", entry.text);
+        node.put("translation", entry.translation);
+        node.put("createdAt", entry.createdAtMillis);
+        return objectMapper.writeValueAsString(node);
+    }
+
+    protected BufferedWriter getWriter() throws IOException {
+        if (writer == null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return writer;
+    }
+
+    public void close() {
+        // a running load still holds the entries appended meanwhile, they are written before the file is closed
+        loading.handle((ignored, e) -> null).join();
+        closeWriter();
+    }
+
+    private synchronized void closeWriter() {
+        if (writer == null)
+            return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.logError(ErrorRecord.Phase.CACHE, null, e, "Error whilst closing translation cache file " + file + ": " + e);
+        }
+        writer = null;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    protected static class Entry {
+        private final String sourceLanguage;
+        private final String targetLanguage;
+        private final String text;
+        private final String translation;
+        private final long createdAtMillis;
+
+        protected Entry(String sourceLanguage, String targetLanguage, String text, String translation, long createdAtMillis) {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+            this.text = text;
+            this.translation = translation;
+            this.createdAtMillis = createdAtMillis;
+        }
+
+        protected TranslationCache.TranslationKey getKey() {
+            return new TranslationCache.TranslationKey(sourceLanguage, targetLanguage, text);
+        }
+    }
+}
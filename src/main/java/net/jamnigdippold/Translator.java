@@ -1,7 +1,16 @@
 package net.jamnigdippold;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface Translator {
     void setTargetLanguage(String targetLanguage);
     String detectLanguage(String input);
+    // texts that could not be translated are returned as null
     String translate(String input);
+    List<String> translateAll(List<String> inputs);
+    CompletableFuture<List<String>> translateAllAsync(List<String> inputs);
+    String getSourceLanguage();
+    void setSourceLanguage(String sourceLanguage);
+    String getTargetLanguage();
 }
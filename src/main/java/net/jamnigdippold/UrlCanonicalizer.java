@@ -0,0 +1,78 @@
+package net.jamnigdippold;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+public class UrlCanonicalizer {
+    private UrlCanonicalizer() {
+    }
+
+    public static String canonicalize(String url) {
+        String trimmedUrl = stripFragment(url.trim());
+        try {
+            URI uri = new URI(trimmedUrl);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmedUrl;
+            }
+            return buildCanonicalUrl(uri);
+        } catch (URISyntaxException e) {
+            return trimmedUrl;
+        }
+    }
+
+    public static String getHost(String url) {
+        try {
+            String host = new URI(url.trim()).getHost();
+            return host == null ? url : host.toLowerCase(Locale.ROOT);
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    protected static String stripFragment(String url) {
+        int fragmentStart = url.indexOf('#');
+        if (fragmentStart < 0) {
+            return url;
+        }
+        return url.substring(0, fragmentStart);
+    }
+
+    protected static String buildCanonicalUrl(URI uri) {
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonicalUrl = new StringBuilder();
+        canonicalUrl.append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonicalUrl.append(uri.getRawUserInfo()).append('@');
+        }
+        canonicalUrl.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (uri.getPort() != -1 && uri.getPort() != getDefaultPort(scheme)) {
+            canonicalUrl.append(':').append(uri.getPort());
+        }
+        canonicalUrl.append(normalizePath(uri.getRawPath()));
+        if (uri.getRawQuery() != null) {
+            canonicalUrl.append('?').append(uri.getRawQuery());
+        }
+        return canonicalUrl.toString();
+    }
+
+    protected static int getDefaultPort(String scheme) {
+        if (scheme.equals("http")) {
+            return 80;
+        }
+        if (scheme.equals("https")) {
+            return 443;
+        }
+        return -1;
+    }
+
+    protected static String normalizePath(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        if (path.length() > 1 && path.endsWith("/")) {
+            return path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+}
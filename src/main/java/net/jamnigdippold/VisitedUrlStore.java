@@ -0,0 +1,9 @@
+package net.jamnigdippold;
+
+public interface VisitedUrlStore {
+    boolean markVisited(String canonicalUrl);
+
+    boolean isVisited(String canonicalUrl);
+
+    long size();
+}
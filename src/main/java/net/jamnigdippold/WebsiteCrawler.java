@@ -1,26 +1,37 @@
 package net.jamnigdippold;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-public class WebsiteCrawler extends Thread {
+public class WebsiteCrawler implements Runnable {
     private static final Logger logger = ErrorLogger.getInstance();
+    protected static final String FETCH_STATUS_COUNTER_PREFIX = "crawler.fetch.status.";
+    // counter names for every valid status code are built once instead of for every fetched page
+    private static final String[] FETCH_STATUS_COUNTER_NAMES = createFetchStatusCounterNames();
     private String websiteUrl;
+    private String parentUrl;
     private int maxDepthOfRecursiveSearch;
     private int currentDepthOfRecursiveSearch;
+    private FetchResult fetchResult;
     private Document websiteDocumentConnection;
     private Elements crawledHeadlines;
+    private CompletableFuture<List<String>> headlineTranslations;
     private List<String> crawledLinks;
     private String sourceLanguage;
     private String targetLanguage;
-    private StringBuilder output;
+    private ReportSection reportSection;
+    private PageResult pageResult;
     private Translator translator;
+    private CrawlEngine crawlEngine;
+    private VisitedUrlStore visitedUrls;
+    private CrawlMetrics metrics = new NoOpCrawlMetrics();
 
     public WebsiteCrawler(String websiteUrl, int maxDepthOfRecursiveSearch, String targetLanguage) {
         initializeValues(websiteUrl, maxDepthOfRecursiveSearch, targetLanguage, 0);
@@ -31,12 +42,7 @@ public class WebsiteCrawler extends Thread {
     }
 
     protected static boolean isBrokenLink(String crawledLink) {
-        try {
-            Jsoup.connect(crawledLink).get();
-            return false;
-        } catch (IOException | IllegalArgumentException exception) {
-            return true;
-        }
+        return new JsoupPageFetcher().fetch(crawledLink).isBroken();
     }
 
     protected void initializeValues(String websiteUrl, int maxDepthOfRecursiveSearch, String targetLanguage, int currentDepthOfRecursiveSearch) {
@@ -45,71 +51,138 @@ public class WebsiteCrawler extends Thread {
         this.targetLanguage = targetLanguage;
         this.currentDepthOfRecursiveSearch = currentDepthOfRecursiveSearch;
         this.sourceLanguage = "auto";
-        this.output = new StringBuilder();
+        this.reportSection = new ReportSection();
+        this.pageResult = null;
     }
 
     @Override
     public void run() {
-        if (!isBrokenLink(websiteUrl)) {
-            if (currentDepthOfRecursiveSearch > maxDepthOfRecursiveSearch)
-                outputCrawledLink(websiteUrl, false);
-            else
-                startCrawling();
-        } else
+        try {
+            crawl();
+        } finally {
+            // a closed section can be written to the report, whatever happened to the crawl
+            closeOutput();
+            releasePage();
+        }
+    }
+
+    protected void crawl() {
+        // links beyond the maximum depth are only checked for reachability, their content is never downloaded
+        if (currentDepthOfRecursiveSearch > maxDepthOfRecursiveSearch) {
+            outputCrawledLink(websiteUrl, isUnreachable());
+            return;
+        }
+        fetchWebsite();
+        if (!fetchResult.isBroken())
+            startCrawling();
+        else
             outputCrawledLink(websiteUrl, true);
     }
 
+    protected void releasePage() {
+        fetchResult = null;
+        websiteDocumentConnection = null;
+        crawledHeadlines = null;
+        headlineTranslations = null;
+        crawledLinks = null;
+    }
+
+    protected boolean isUnreachable() {
+        long startTime = System.nanoTime();
+        boolean unreachable = crawlEngine.getPageFetcher().checkLink(websiteUrl).isBroken();
+        metrics.recordTime("crawler.linkCheck.time", System.nanoTime() - startTime);
+        return unreachable;
+    }
+
+    protected void fetchWebsite() {
+        // the body is parsed while it is downloaded, so the fetch time includes building the document
+        long startTime = System.nanoTime();
+        fetchResult = crawlEngine.getPageFetcher().fetch(websiteUrl);
+        metrics.recordTime("crawler.fetch.time", System.nanoTime() - startTime);
+        metrics.incrementCounter("crawler.pages.fetched");
+        recordFetchResult();
+    }
+
+    protected void recordFetchResult() {
+        metrics.incrementCounter(getFetchStatusCounterName(fetchResult.getStatusCode()));
+        if (fetchResult.getContentLength() != FetchResult.UNKNOWN_CONTENT_LENGTH)
+            metrics.recordValue("crawler.fetch.bytes", fetchResult.getContentLength());
+    }
+
+    protected static String getFetchStatusCounterName(int statusCode) {
+        if (statusCode == FetchResult.NO_STATUS_CODE)
+            return FETCH_STATUS_COUNTER_PREFIX + "none";
+        if (statusCode >= 100 && statusCode < 100 + FETCH_STATUS_COUNTER_NAMES.length)
+            return FETCH_STATUS_COUNTER_NAMES[statusCode - 100];
+        return FETCH_STATUS_COUNTER_PREFIX + statusCode;
+    }
+
+    private static String[] createFetchStatusCounterNames() {
+        String[] counterNames = new String[500];
+        for (int i = 0; i < counterNames.length; i++) {
+            counterNames[i] = FETCH_STATUS_COUNTER_PREFIX + (100 + i);
+        }
+        return counterNames;
+    }
+
     public void startCrawling() {
         establishConnection();
         crawlHeadlines();
         initializeTranslator();
         detectSourceLanguage();
         outputInput();
-        outputCrawledHeadlines();
+        translateHeadlines();
         crawlWebsiteLinks();
         recursivelyCrawlLinkedWebsites();
+        outputCrawledHeadlines();
+        closeOutput();
     }
 
     protected void outputInput() {
-        if (currentDepthOfRecursiveSearch == 0) {
-            output.append("input: <a>").append(websiteUrl).append("</a>\n");
-            output.append("<br>depth: ").append(maxDepthOfRecursiveSearch).append("\n");
-            output.append("<br>source language: ").append(sourceLanguage).append("\n");
-            output.append("<br>Target language: ").append(targetLanguage).append("\n");
-            output.append("<br>summary:\n");
-        } else {
-            outputCrawledLink(websiteUrl, false);
-        }
+        PageResult page = new PageResult(websiteUrl, currentDepthOfRecursiveSearch);
+        page.setParentUrl(parentUrl);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setMaxDepth(maxDepthOfRecursiveSearch);
+        page.setSourceLanguage(sourceLanguage);
+        page.setTargetLanguage(targetLanguage);
+        setPageResult(page);
     }
 
     protected void establishConnection() {
-        try {
-            websiteDocumentConnection = Jsoup.connect(websiteUrl).get();
-        } catch (IOException e) {
-            logger.logError("Error whilst connecting to websiteUrl " + websiteUrl + ": " + e);
-        }
+        if (fetchResult == null)
+            fetchWebsite();
+        if (fetchResult.isBroken())
+            logger.logError(ErrorRecord.Phase.FETCH, websiteUrl, fetchResult.getError(), "Error whilst connecting to websiteUrl " + websiteUrl + ": " + fetchResult.getError());
+        else
+            websiteDocumentConnection = fetchResult.getDocument();
     }
 
     protected void crawlHeadlines() {
+        long startTime = System.nanoTime();
         crawledHeadlines = websiteDocumentConnection.select("h1, h2, h3, h4, h5, h6");
+        metrics.recordTime("crawler.parse.headlines.time", System.nanoTime() - startTime);
     }
 
     protected void crawlWebsiteLinks() {
+        long startTime = System.nanoTime();
         Elements crawledLinkElements = websiteDocumentConnection.select("a[href]");
         crawledLinks = new ArrayList<>();
         for (Element crawledLinkElement : crawledLinkElements) {
             crawledLinks.add(crawledLinkElement.attr("href"));
         }
+        metrics.recordTime("crawler.parse.links.time", System.nanoTime() - startTime);
     }
 
     protected void recursivelyCrawlLinkedWebsites() {
-        CrawlerLauncher launcher = new CrawlerLauncher();
+        // every linked website writes into its own section below this one, in the order of the links,
+        // and is only queued in the frontier, so this crawler is done without waiting for it
+        CrawlerLauncher linkedWebsitesLauncher = new CrawlerLauncher(crawlEngine, visitedUrls);
+        linkedWebsitesLauncher.setReportSection(reportSection);
+        linkedWebsitesLauncher.setParentUrl(websiteUrl);
         for (String crawledLink : crawledLinks) {
             crawledLink = convertRelativeUrlToAbsoluteURL(crawledLink);
-            launcher.startNewCrawler(crawledLink, maxDepthOfRecursiveSearch, targetLanguage, currentDepthOfRecursiveSearch + 1);
+            linkedWebsitesLauncher.startNewCrawler(crawledLink, maxDepthOfRecursiveSearch, targetLanguage, currentDepthOfRecursiveSearch + 1);
         }
-        launcher.waitForCrawlerThreadsToFinish();
-        output.append(launcher.getOutputFromCrawlers());
     }
 
     protected String convertRelativeUrlToAbsoluteURL(String relativeUrl) {
@@ -121,31 +194,77 @@ public class WebsiteCrawler extends Thread {
     }
 
     protected void initializeTranslator() {
-        translator = new TextTranslator();
+        TextTranslator textTranslator = new TextTranslator(crawlEngine.getHttpClient());
+        textTranslator.setApiUrl(crawlEngine.getTranslationApiUrl());
+        textTranslator.setMetrics(metrics);
+        CachingTranslator cachingTranslator = new CachingTranslator(textTranslator, crawlEngine.getTranslationCache());
+        cachingTranslator.setMetrics(metrics);
+        translator = cachingTranslator;
         translator.setTargetLanguage(targetLanguage);
     }
 
     protected void detectSourceLanguage() {
-        sourceLanguage = translator.detectLanguage(crawledHeadlines.get(0).text());
+        sourceLanguage = getDeclaredLanguage();
+        if (sourceLanguage == null)
+            sourceLanguage = crawlEngine.getLanguageCache().getLanguage(UrlCanonicalizer.getHost(websiteUrl), this::detectLanguageFromHeadlines);
+        translator.setSourceLanguage(sourceLanguage);
     }
 
-    protected void outputCrawledHeadlines() {
+    protected String getDeclaredLanguage() {
+        Element htmlElement = websiteDocumentConnection.selectFirst("html[lang]");
+        if (htmlElement == null || htmlElement.attr("lang").isBlank())
+            return null;
+        // only the primary subtag of e.g. "en-US" is used as language code
+        return htmlElement.attr("lang").trim().split("[-_]")[0].toLowerCase(Locale.ROOT);
+    }
+
+    protected String detectLanguageFromHeadlines() {
+        if (crawledHeadlines.isEmpty())
+            return LanguageCache.UNKNOWN_LANGUAGE;
+        return translator.detectLanguage(crawledHeadlines.get(0).text());
+    }
+
+    protected void translateHeadlines() {
+        // translations run in the background while the linked websites are crawled
+        List<String> headlineTexts = new ArrayList<>();
         for (Element crawledHeadline : crawledHeadlines) {
-            outputHeaderLevel(crawledHeadline);
-            if (currentDepthOfRecursiveSearch > 0) {
-                outputDepthIndicator(currentDepthOfRecursiveSearch);
-            }
-            output.append(translator.translate(crawledHeadline.text()) + "\n");
+            headlineTexts.add(crawledHeadline.text());
+        }
+        headlineTranslations = translator.translateAllAsync(headlineTexts);
+    }
+
+    protected void outputCrawledHeadlines() {
+        if (headlineTranslations == null)
+            translateHeadlines();
+        if (pageResult == null)
+            outputInput();
+        List<String> translatedHeadlines = awaitHeadlineTranslations();
+        List<PageResult.Headline> headlines = new ArrayList<>();
+        for (int i = 0; i < crawledHeadlines.size(); i++) {
+            int headerLevel = getHeaderLevelFromName(crawledHeadlines.get(i).normalName());
+            String translatedHeadline = translatedHeadlines.get(i);
+            // headlines the translator could not translate are shown in their original language
+            headlines.add(new PageResult.Headline(headerLevel, translatedHeadline == null ? crawledHeadlines.get(i).text() : translatedHeadline));
         }
-        output.append("\n");
+        pageResult.setHeadlines(headlines);
+        // the own section is complete now, it is written as soon as all sections before it are
+        reportSection.finishContent();
     }
 
-    protected void outputHeaderLevel(Element crawledHeadline) {
-        int numOfHeader = getHeaderLevelFromName(crawledHeadline.normalName());
-        for (int i = 0; i < numOfHeader; i++) {
-            output.append("#");
+    protected List<String> awaitHeadlineTranslations() {
+        long startTime = System.nanoTime();
+        try {
+            return headlineTranslations.join();
+        } catch (CompletionException e) {
+            logger.logError(ErrorRecord.Phase.TRANSLATION, websiteUrl, e.getCause(), "Error whilst translating headlines of " + websiteUrl + ": " + e.getCause());
+            List<String> untranslatedHeadlines = new ArrayList<>();
+            for (Element crawledHeadline : crawledHeadlines) {
+                untranslatedHeadlines.add(crawledHeadline.text());
+            }
+            return untranslatedHeadlines;
+        } finally {
+            metrics.recordTime("crawler.translation.wait.time", System.nanoTime() - startTime);
         }
-        output.append(" ");
     }
 
     protected int getHeaderLevelFromName(String headerLevelName) {
@@ -155,19 +274,19 @@ public class WebsiteCrawler extends Thread {
     }
 
     protected void outputCrawledLink(String crawledLink, boolean isBrokenLink) {
-        output.append("<br>--");
-        outputDepthIndicator(currentDepthOfRecursiveSearch - 1);
-        if (isBrokenLink) output.append("broken link <a>");
-        else output.append("link to <a>");
-        output.append(crawledLink);
-        output.append("</a>\n\n");
+        if (isBrokenLink) outputLink(crawledLink, PageResult.Status.BROKEN);
+        else outputLink(crawledLink, PageResult.Status.LINKED);
     }
 
-    protected void outputDepthIndicator(int depth) {
-        for (int i = 0; i < depth; i++) {
-            output.append("--");
-        }
-        output.append("> ");
+    protected void outputDisallowedLink(String crawledLink) {
+        outputLink(crawledLink, PageResult.Status.DISALLOWED);
+    }
+
+    protected void outputLink(String crawledLink, PageResult.Status status) {
+        PageResult page = new PageResult(crawledLink, currentDepthOfRecursiveSearch);
+        page.setParentUrl(parentUrl);
+        page.setStatus(status);
+        setPageResult(page);
     }
 
     public Elements getCrawledHeadlines() {
@@ -186,6 +305,10 @@ public class WebsiteCrawler extends Thread {
         this.crawledLinks = crawledLinks;
     }
 
+    public void setFetchResult(FetchResult fetchResult) {
+        this.fetchResult = fetchResult;
+    }
+
     public void setWebsiteDocumentConnection(Document websiteDocumentConnection) {
         this.websiteDocumentConnection = websiteDocumentConnection;
     }
@@ -202,6 +325,14 @@ public class WebsiteCrawler extends Thread {
         return websiteUrl;
     }
 
+    public String getParentUrl() {
+        return parentUrl;
+    }
+
+    public void setParentUrl(String parentUrl) {
+        this.parentUrl = parentUrl;
+    }
+
     public int getMaxDepthOfRecursiveSearch() {
         return maxDepthOfRecursiveSearch;
     }
@@ -235,10 +366,43 @@ public class WebsiteCrawler extends Thread {
     }
 
     public String getOutput() {
-        return output.toString();
+        return reportSection.render(new MarkdownReportRenderer());
     }
 
     public void setUpOutput() {
-        output = new StringBuilder();
+        reportSection = new ReportSection();
+        pageResult = null;
+    }
+
+    public PageResult getPageResult() {
+        return pageResult;
+    }
+
+    protected void setPageResult(PageResult pageResult) {
+        this.pageResult = pageResult;
+        reportSection.setPage(pageResult);
+    }
+
+    protected void closeOutput() {
+        reportSection.close();
+    }
+
+    public ReportSection getReportSection() {
+        return reportSection;
+    }
+
+    public void setReportSection(ReportSection reportSection) {
+        this.reportSection = reportSection;
+        if (pageResult != null)
+            reportSection.setPage(pageResult);
+    }
+
+    public void setCrawlEngine(CrawlEngine crawlEngine) {
+        this.crawlEngine = crawlEngine;
+        this.metrics = crawlEngine.getMetrics();
+    }
+
+    public void setVisitedUrls(VisitedUrlStore visitedUrls) {
+        this.visitedUrls = visitedUrls;
     }
 }
@@ -0,0 +1,155 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryReportReaderTest {
+    private Path outputDirectory;
+    private Path outputPath;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("report");
+        outputPath = outputDirectory.resolve("report.bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        TranslationCacheFileTest.deleteRecursively(outputDirectory);
+    }
+
+    @Test
+    void testPagesSurviveRoundTrip() throws IOException {
+        PageResult crawledPage = new PageResult("https://example.com", 0);
+        crawledPage.setStatus(PageResult.Status.CRAWLED);
+        crawledPage.setMaxDepth(2);
+        crawledPage.setSourceLanguage("en");
+        crawledPage.setTargetLanguage("de");
+        crawledPage.setHeadlines(List.of(new PageResult.Headline(1, "Überschrift"), new PageResult.Headline(6, "")));
+        PageResult brokenLink = new PageResult("https://example.com/missing", 1);
+        brokenLink.setStatus(PageResult.Status.BROKEN);
+        writePages(crawledPage, brokenLink);
+
+        try (BinaryReportReader reader = new BinaryReportReader(outputPath)) {
+            assertEquals(2, reader.getPageCount());
+            PageResult page = reader.getPage(0);
+            assertEquals("https://example.com", page.getUrl());
+            assertEquals(0, page.getDepth());
+            assertEquals(PageResult.Status.CRAWLED, page.getStatus());
+            assertEquals(2, page.getMaxDepth());
+            assertEquals("en", page.getSourceLanguage());
+            assertEquals("de", page.getTargetLanguage());
+            assertEquals(6, page.getHeadlines().get(1).getLevel());
+            assertEquals("Überschrift", page.getHeadlines().get(0).getText());
+            assertEquals("", page.getHeadlines().get(1).getText());
+            PageResult link = reader.getPage(1);
+            assertEquals(PageResult.Status.BROKEN, link.getStatus());
+            assertNull(link.getSourceLanguage());
+            assertNull(link.getHeadlines());
+        }
+    }
+
+    @Test
+    void testIterateAndRandomAccess() throws IOException {
+        PageResult[] pages = new PageResult[1000];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = new PageResult("https://example.com/" + (i % 10), i % 4);
+        }
+        writePages(pages);
+
+        try (BinaryReportReader reader = new BinaryReportReader(outputPath)) {
+            List<String> urls = new ArrayList<>();
+            for (PageResult page : reader) {
+                urls.add(page.getUrl());
+            }
+            assertEquals(1000, urls.size());
+            assertEquals("https://example.com/7", reader.getPage(997).getUrl());
+            assertEquals(1, reader.getPage(997).getDepth());
+            assertEquals(0, reader.getStringCount());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.getPage(1000));
+        }
+    }
+
+    @Test
+    void testInternedAndInlineStringsSurviveRoundTrip() throws IOException {
+        String longHeadline = "A headline that is too long for the string table";
+        PageResult[] pages = new PageResult[BinaryReportWriter.MAX_INTERNED_STRINGS + 10];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = new PageResult("https://example.com/" + i, 1);
+            pages[i].setSourceLanguage("en");
+            pages[i].setHeadlines(List.of(new PageResult.Headline(1, "Headline " + i), new PageResult.Headline(2, longHeadline)));
+        }
+        writePages(pages);
+
+        try (BinaryReportReader reader = new BinaryReportReader(outputPath)) {
+            assertEquals(BinaryReportWriter.MAX_INTERNED_STRINGS, reader.getStringCount());
+            for (int i : new int[]{0, pages.length - 1}) {
+                PageResult page = reader.getPage(i);
+                assertEquals("https://example.com/" + i, page.getUrl());
+                assertEquals("en", page.getSourceLanguage());
+                assertEquals("Headline " + i, page.getHeadlines().get(0).getText());
+                assertEquals(longHeadline, page.getHeadlines().get(1).getText());
+                assertEquals(2, page.getHeadlines().get(1).getLevel());
+            }
+        }
+    }
+
+    @Test
+    void testRecordsAcrossMappedWindows() throws IOException {
+        PageResult[] pages = new PageResult[200];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = new PageResult("https://example.com/" + "a".repeat(i % 50) + i, i % 4);
+            pages[i].setTargetLanguage("de");
+            pages[i].setHeadlines(List.of(new PageResult.Headline(1, "Headline " + i)));
+        }
+        writePages(pages);
+
+        try (BinaryReportReader reader = new BinaryReportReader(outputPath, 64)) {
+            int pageIndex = 0;
+            for (PageResult page : reader) {
+                assertEquals(pages[pageIndex].getUrl(), page.getUrl());
+                assertEquals(pages[pageIndex].getDepth(), page.getDepth());
+                assertEquals("de", page.getTargetLanguage());
+                assertEquals("Headline " + pageIndex, page.getHeadlines().get(0).getText());
+                pageIndex++;
+            }
+            assertEquals(pages.length, pageIndex);
+        }
+    }
+
+    @Test
+    void testInvalidFile() throws IOException {
+        Files.writeString(outputPath, "# Not a binary report, just some markdown");
+
+        IOException exception = assertThrows(IOException.class, () -> new BinaryReportReader(outputPath));
+
+        assertEquals("Invalid binary report: " + outputPath, exception.getMessage());
+    }
+
+    @Test
+    void testTruncatedFile() throws IOException {
+        writePages(new PageResult("https://example.com", 0));
+        byte[] content = Files.readAllBytes(outputPath);
+        Files.write(outputPath, Arrays.copyOf(content, content.length - 1));
+
+        assertThrows(IOException.class, () -> new BinaryReportReader(outputPath));
+    }
+
+    private void writePages(PageResult... pages) throws IOException {
+        try (BinaryReportWriter writer = new BinaryReportWriter(outputPath)) {
+            for (PageResult page : pages) {
+                writer.write(page);
+            }
+        }
+    }
+}
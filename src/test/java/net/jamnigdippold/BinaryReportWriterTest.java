@@ -0,0 +1,123 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinaryReportWriterTest {
+    private Path outputDirectory;
+    private Path outputPath;
+    private BinaryReportWriter binaryReportWriter;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("report");
+        outputPath = outputDirectory.resolve("report.bin");
+        binaryReportWriter = new BinaryReportWriter(outputPath);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        binaryReportWriter.close();
+        TranslationCacheFileTest.deleteRecursively(outputDirectory);
+    }
+
+    @Test
+    void testRepeatedStringsAreStoredOnce() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            PageResult page = new PageResult("https://example.com/" + i, 1);
+            page.setStatus(PageResult.Status.CRAWLED);
+            page.setSourceLanguage("en");
+            page.setTargetLanguage("de");
+            page.setHeadlines(List.of(new PageResult.Headline(1, "Kontakt"), new PageResult.Headline(2, "Impressum")));
+            binaryReportWriter.write(page);
+        }
+
+        assertEquals(3, binaryReportWriter.getPageCount());
+        assertEquals(4, binaryReportWriter.getStringCount());
+    }
+
+    @Test
+    void testUrlsAndLongStringsAreWrittenInline() throws IOException {
+        PageResult page = new PageResult("https://example.com", 0);
+        page.setHeadlines(List.of(new PageResult.Headline(1, "x".repeat(BinaryReportWriter.MAX_INTERNED_LENGTH + 1))));
+
+        binaryReportWriter.write(page);
+
+        assertEquals(0, binaryReportWriter.getStringCount());
+    }
+
+    @Test
+    void testStringTableIsBounded() throws IOException {
+        for (int i = 0; i < BinaryReportWriter.MAX_INTERNED_STRINGS + 10; i++) {
+            assertEquals(i < BinaryReportWriter.MAX_INTERNED_STRINGS ? i : BinaryReportWriter.INLINE_STRING,
+                    binaryReportWriter.getStringId("headline " + i));
+        }
+
+        assertEquals(BinaryReportWriter.MAX_INTERNED_STRINGS, binaryReportWriter.getStringCount());
+        assertEquals(0, binaryReportWriter.getStringId("headline 0"));
+    }
+
+    @Test
+    void testLengthPrefixesLeadFromRecordToRecordUpToTheIndex() throws IOException {
+        PageResult linkOnly = new PageResult("https://example.com/link", 2);
+        PageResult page = new PageResult("https://example.com", 0);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setSourceLanguage("en");
+        page.setTargetLanguage("de");
+        page.setHeadlines(List.of(new PageResult.Headline(1, "Kontakt"), new PageResult.Headline(2, "x".repeat(100))));
+        binaryReportWriter.write(linkOnly);
+        binaryReportWriter.write(page);
+        binaryReportWriter.write(page);
+        binaryReportWriter.close();
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(outputPath));
+        long indexOffset = content.getLong(content.limit() - BinaryReportWriter.TRAILER_SIZE);
+        int position = BinaryReportWriter.HEADER_SIZE;
+        int stringRecords = 0;
+        int pageRecords = 0;
+        while (position < indexOffset) {
+            byte recordType = content.get(position + Integer.BYTES);
+            if (recordType == BinaryReportWriter.STRING_RECORD)
+                stringRecords++;
+            else if (recordType == BinaryReportWriter.PAGE_RECORD)
+                pageRecords++;
+            position += Integer.BYTES + content.getInt(position);
+        }
+
+        assertEquals(indexOffset, position);
+        assertEquals(3, stringRecords);
+        assertEquals(3, pageRecords);
+    }
+
+    @Test
+    void testEmptyReport() throws IOException {
+        binaryReportWriter.close();
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(outputPath));
+        assertEquals(BinaryReportWriter.HEADER_SIZE + BinaryReportWriter.TRAILER_SIZE, content.limit());
+        assertEquals(BinaryReportWriter.MAGIC, content.getInt(0));
+        assertEquals(BinaryReportWriter.VERSION, content.getInt(4));
+        assertEquals(BinaryReportWriter.HEADER_SIZE, content.getLong(BinaryReportWriter.HEADER_SIZE));
+    }
+
+    @Test
+    void testRecordsLargerThanBuffer() throws IOException {
+        PageResult page = new PageResult("https://example.com/" + "a".repeat(100_000), 0);
+
+        binaryReportWriter.write(page);
+        binaryReportWriter.close();
+
+        try (BinaryReportReader reader = new BinaryReportReader(outputPath)) {
+            assertEquals(page.getUrl(), reader.getPage(0).getUrl());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterVisitedUrlStoreTest {
+    private BloomFilterVisitedUrlStore visitedUrls = new BloomFilterVisitedUrlStore(1000, 0.01);
+
+    @Test
+    void testMarkVisited() {
+        assertTrue(visitedUrls.markVisited("https://example.com/"));
+        assertFalse(visitedUrls.markVisited("https://example.com/"));
+        assertEquals(1, visitedUrls.size());
+    }
+
+    @Test
+    void testIsVisited() {
+        visitedUrls.markVisited("https://example.com/");
+
+        assertTrue(visitedUrls.isVisited("https://example.com/"));
+        assertFalse(visitedUrls.isVisited("https://example.com/about"));
+    }
+
+    @Test
+    void testNoFalseNegatives() {
+        for (int i = 0; i < 5000; i++) {
+            visitedUrls.markVisited("https://example.com/page/" + i);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(visitedUrls.isVisited("https://example.com/page/" + i));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysWithinBudget() {
+        for (int i = 0; i < 5000; i++) {
+            visitedUrls.markVisited("https://example.com/page/" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (visitedUrls.isVisited("https://example.org/other/" + i))
+                falsePositives++;
+        }
+
+        assertTrue(falsePositives < 10000 * 0.01 * 2, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testGrowsWhenCapacityIsReached() {
+        visitedUrls = new BloomFilterVisitedUrlStore(100, 0.01);
+
+        for (int i = 0; i < 1000; i++) {
+            visitedUrls.markVisited("https://example.com/page/" + i);
+        }
+
+        assertTrue(visitedUrls.getStageCount() > 1);
+        assertTrue(visitedUrls.size() > 900);
+    }
+
+    @Test
+    void testConcurrentlyMarkedUrlIsNeverSkipped() throws Exception {
+        visitedUrls = new BloomFilterVisitedUrlStore(100, 0.01);
+        AtomicIntegerArray newlyVisited = new AtomicIntegerArray(2000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> markers = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            markers.add(executor.submit(() -> {
+                for (int i = 0; i < newlyVisited.length(); i++) {
+                    if (visitedUrls.markVisited("https://example.com/page/" + i))
+                        newlyVisited.incrementAndGet(i);
+                }
+            }));
+        }
+        for (Future<?> marker : markers) {
+            marker.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // only false positives of earlier urls may be skipped, a race never hides a url from all threads
+        int skippedUrls = 0;
+        for (int i = 0; i < newlyVisited.length(); i++) {
+            if (newlyVisited.get(i) == 0)
+                skippedUrls++;
+            assertFalse(visitedUrls.markVisited("https://example.com/page/" + i));
+        }
+        assertTrue(skippedUrls < newlyVisited.length() * 0.01 * 2, "skipped urls: " + skippedUrls);
+    }
+
+    @Test
+    void testEstimatedSizeInBytes() {
+        long expectedBits = BloomFilterVisitedUrlStore.FilterStage.calculateBitCount(1000, 0.005);
+
+        assertEquals(expectedBits / Byte.SIZE, visitedUrls.estimatedSizeInBytes());
+    }
+
+    @Test
+    void testFingerprintIsStable() {
+        assertEquals(BloomFilterVisitedUrlStore.fingerprint("https://example.com/"), BloomFilterVisitedUrlStore.fingerprint("https://example.com/"));
+        assertNotEquals(BloomFilterVisitedUrlStore.fingerprint("https://example.com/"), BloomFilterVisitedUrlStore.fingerprint("https://example.com/about"));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilterVisitedUrlStore(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilterVisitedUrlStore(1000, 1.5));
+    }
+}
@@ -0,0 +1,131 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPageFetcherTest {
+    private CachingPageFetcher cachingPageFetcher;
+    private PageFetcher pageFetcher;
+
+    @BeforeEach
+    public void setUp() {
+        pageFetcher = mock(PageFetcher.class);
+        cachingPageFetcher = spy(new CachingPageFetcher(pageFetcher, 1000, 100));
+        doReturn(0L).when(cachingPageFetcher).currentTimeMillis();
+        doAnswer(invocationOnMock -> FetchResult.success(invocationOnMock.getArgument(0), 200, null)).when(pageFetcher).checkLink(any());
+    }
+
+    @Test
+    void testLinkIsCheckedOncePerCanonicalUrl() {
+        assertFalse(cachingPageFetcher.checkLink("https://example.com/imprint").isBroken());
+        assertFalse(cachingPageFetcher.checkLink("https://EXAMPLE.com/imprint/#contact").isBroken());
+
+        verify(pageFetcher, times(1)).checkLink(any());
+        assertEquals(1, cachingPageFetcher.getHitCount());
+        assertEquals(1, cachingPageFetcher.getMissCount());
+    }
+
+    @Test
+    void testBrokenLinkIsCached() {
+        doReturn(FetchResult.failure("https://example.com/missing", 404, new IOException())).when(pageFetcher).checkLink("https://example.com/missing");
+
+        assertTrue(cachingPageFetcher.checkLink("https://example.com/missing").isBroken());
+        FetchResult cachedResult = cachingPageFetcher.checkLink("https://example.com/missing");
+
+        assertTrue(cachedResult.isBroken());
+        assertEquals(404, cachedResult.getStatusCode());
+        assertTrue(cachedResult.getError() instanceof CachingPageFetcher.CachedLinkFailure);
+        assertEquals(0, cachedResult.getError().getStackTrace().length);
+        verify(pageFetcher, times(1)).checkLink(any());
+    }
+
+    @Test
+    void testCacheIsBoundedAndDropsExpiredEntriesFirst() {
+        for (int i = 0; i < 50; i++) {
+            cachingPageFetcher.checkLink("https://example.com/old/" + i);
+        }
+        doReturn(1000L).when(cachingPageFetcher).currentTimeMillis();
+
+        for (int i = 0; i < 60; i++) {
+            cachingPageFetcher.checkLink("https://example.com/new/" + i);
+        }
+
+        assertTrue(cachingPageFetcher.size() <= 100);
+        cachingPageFetcher.checkLink("https://example.com/new/59");
+        assertEquals(1, cachingPageFetcher.getHitCount());
+    }
+
+    @Test
+    void testCacheStaysBelowMaximumWithoutExpiredEntries() {
+        for (int i = 0; i < 250; i++) {
+            cachingPageFetcher.checkLink("https://example.com/" + i);
+        }
+
+        assertTrue(cachingPageFetcher.size() <= 101, "size: " + cachingPageFetcher.size());
+    }
+
+    @Test
+    void testExpiredStatusIsCheckedAgain() {
+        cachingPageFetcher.checkLink("https://example.com");
+        doReturn(1000L).when(cachingPageFetcher).currentTimeMillis();
+
+        cachingPageFetcher.checkLink("https://example.com");
+
+        verify(pageFetcher, times(2)).checkLink(any());
+        assertEquals(1, cachingPageFetcher.size());
+    }
+
+    @Test
+    void testFetchIsNotCached() {
+        cachingPageFetcher.fetch("https://example.com");
+        cachingPageFetcher.fetch("https://example.com");
+
+        verify(pageFetcher, times(2)).fetch("https://example.com");
+    }
+
+    @Test
+    void testFailedCheckIsNotCached() {
+        doThrow(new IllegalStateException("Fetcher failed")).doReturn(FetchResult.success("https://example.com", 200, null))
+                .when(pageFetcher).checkLink("https://example.com");
+
+        assertThrows(IllegalStateException.class, () -> cachingPageFetcher.checkLink("https://example.com"));
+
+        assertFalse(cachingPageFetcher.checkLink("https://example.com").isBroken());
+    }
+
+    @Test
+    void testConcurrentChecksAreCoalesced() throws Exception {
+        CountDownLatch checkStarted = new CountDownLatch(1);
+        CountDownLatch releaseCheck = new CountDownLatch(1);
+        doAnswer(invocationOnMock -> {
+            checkStarted.countDown();
+            releaseCheck.await(5, TimeUnit.SECONDS);
+            return FetchResult.success("https://example.com", 200, null);
+        }).when(pageFetcher).checkLink(any());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<FetchResult> firstCheck = executor.submit(() -> cachingPageFetcher.checkLink("https://example.com"));
+        checkStarted.await(5, TimeUnit.SECONDS);
+        Future<FetchResult> secondCheck = executor.submit(() -> cachingPageFetcher.checkLink("https://example.com"));
+        Future<FetchResult> thirdCheck = executor.submit(() -> cachingPageFetcher.checkLink("https://example.com/"));
+        Thread.sleep(50);
+        releaseCheck.countDown();
+
+        assertEquals(200, firstCheck.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(200, secondCheck.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(200, thirdCheck.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(2, cachingPageFetcher.getHitCount());
+        verify(pageFetcher, times(1)).checkLink(any());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,140 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class CachingTranslatorTest {
+    private CachingTranslator cachingTranslator;
+    private TranslationCache translationCache;
+    @Mock
+    Translator translator;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        translationCache = new TranslationCache(100, 60_000);
+        cachingTranslator = new CachingTranslator(translator, translationCache);
+        doReturn("en").when(translator).getSourceLanguage();
+        doReturn("de").when(translator).getTargetLanguage();
+        doReturn("Kontakt").when(translator).translate("Contact");
+    }
+
+    @Test
+    void testRepeatedTranslationIsServedFromCache() {
+        assertEquals("Kontakt", cachingTranslator.translate("Contact"));
+        assertEquals("Kontakt", cachingTranslator.translate("Contact"));
+
+        verify(translator, times(1)).translate("Contact");
+        assertEquals(1, translationCache.getHitCount());
+        assertEquals(1, translationCache.getMissCount());
+    }
+
+    @Test
+    void testCacheLookupsAreCounted() {
+        LongAdderCrawlMetrics metrics = new LongAdderCrawlMetrics();
+        cachingTranslator.setMetrics(metrics);
+        doReturn(List.of("Impressum")).when(translator).translateAll(List.of("Imprint"));
+
+        cachingTranslator.translate("Contact");
+        cachingTranslator.translateAll(List.of("Contact", "Imprint"));
+
+        assertEquals(1, metrics.getSnapshot().getCounter("translation.cache.hits"));
+        assertEquals(2, metrics.getSnapshot().getCounter("translation.cache.misses"));
+    }
+
+    @Test
+    void testFailedTranslationIsNotCached() {
+        doReturn(null).when(translator).translate("Imprint");
+        doReturn(Arrays.asList("Neuigkeiten", null)).when(translator).translateAll(List.of("News", "About"));
+
+        assertNull(cachingTranslator.translate("Imprint"));
+        assertEquals(Arrays.asList("Neuigkeiten", null), cachingTranslator.translateAll(List.of("News", "About")));
+
+        assertNull(translationCache.get("en", "de", "Imprint"));
+        assertNull(translationCache.get("en", "de", "About"));
+        assertEquals("Neuigkeiten", translationCache.get("en", "de", "News"));
+    }
+
+    @Test
+    void testCacheIsSharedBetweenTranslators() {
+        Translator otherTranslator = mock(Translator.class);
+        doReturn("en").when(otherTranslator).getSourceLanguage();
+        doReturn("de").when(otherTranslator).getTargetLanguage();
+
+        cachingTranslator.translate("Contact");
+        String translation = new CachingTranslator(otherTranslator, translationCache).translate("Contact");
+
+        assertEquals("Kontakt", translation);
+        verify(otherTranslator, never()).translate(any());
+    }
+
+    @Test
+    void testTranslateAllOnlySendsUncachedHeadlines() {
+        cachingTranslator.translate("Contact");
+        doReturn(List.of("Neuigkeiten")).when(translator).translateAll(List.of("News"));
+
+        List<String> translations = cachingTranslator.translateAll(List.of("Contact", "News", "News"));
+
+        assertEquals(List.of("Kontakt", "Neuigkeiten", "Neuigkeiten"), translations);
+        verify(translator).translateAll(List.of("News"));
+        assertEquals("Neuigkeiten", translationCache.get("en", "de", "News"));
+    }
+
+    @Test
+    void testTranslateAllAsyncOnlySendsUncachedHeadlines() {
+        cachingTranslator.translate("Contact");
+        doReturn(CompletableFuture.completedFuture(List.of("Neuigkeiten"))).when(translator).translateAllAsync(List.of("News"));
+
+        List<String> translations = cachingTranslator.translateAllAsync(List.of("News", "Contact")).join();
+
+        assertEquals(List.of("Neuigkeiten", "Kontakt"), translations);
+        assertEquals("Neuigkeiten", translationCache.get("en", "de", "News"));
+    }
+
+    @Test
+    void testTranslateAllAsyncFullyCached() {
+        cachingTranslator.translate("Contact");
+
+        assertEquals(List.of("Kontakt"), cachingTranslator.translateAllAsync(List.of("Contact")).join());
+        verify(translator, never()).translateAllAsync(any());
+    }
+
+    @Test
+    void testTranslateAllFullyCached() {
+        cachingTranslator.translate("Contact");
+
+        assertEquals(List.of("Kontakt"), cachingTranslator.translateAll(List.of("Contact")));
+        verify(translator, never()).translateAll(any());
+    }
+
+    @Test
+    void testDifferentTargetLanguageIsNotServedFromCache() {
+        cachingTranslator.translate("Contact");
+        doReturn("fr").when(translator).getTargetLanguage();
+        doReturn("Contacter").when(translator).translate("Contact");
+
+        assertEquals("Contacter", cachingTranslator.translate("Contact"));
+    }
+
+    @Test
+    void testDelegatesLanguageHandling() {
+        doReturn("en").when(translator).detectLanguage("Contact");
+
+        cachingTranslator.setTargetLanguage("de");
+
+        assertEquals("en", cachingTranslator.detectLanguage("Contact"));
+        assertEquals("en", cachingTranslator.getSourceLanguage());
+        assertEquals("de", cachingTranslator.getTargetLanguage());
+        verify(translator).setTargetLanguage("de");
+    }
+}
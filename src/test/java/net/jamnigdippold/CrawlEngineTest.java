@@ -0,0 +1,296 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+class CrawlEngineTest {
+    private CrawlEngine crawlEngine;
+    private final Logger logger = ErrorLogger.getInstance();
+
+    @AfterEach
+    public void tearDown() {
+        logger.clearLog();
+        if (crawlEngine != null)
+            crawlEngine.shutdown();
+    }
+
+    @Test
+    void testCreateFixedPool() {
+        ExecutorService executor = CrawlEngine.createExecutor(CrawlEngine.PoolType.FIXED, 3);
+
+        assertTrue(executor instanceof ThreadPoolExecutor);
+        assertEquals(3, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        executor.shutdown();
+    }
+
+    @Test
+    void testCreateWorkStealingPool() {
+        ExecutorService executor = CrawlEngine.createExecutor(CrawlEngine.PoolType.WORK_STEALING, 2);
+
+        assertTrue(executor instanceof ForkJoinPool);
+        assertEquals(2, ((ForkJoinPool) executor).getParallelism());
+        executor.shutdown();
+    }
+
+    @Test
+    void testCreateVirtualThreadExecutor() throws InterruptedException {
+        crawlEngine = new CrawlEngine(CrawlEngine.createExecutor(CrawlEngine.PoolType.VIRTUAL, 2));
+        Runnable crawler = mock(Runnable.class);
+
+        crawlEngine.submit(crawler, 0);
+        crawlEngine.awaitIdle();
+
+        verify(crawler).run();
+    }
+
+    @Test
+    void testVirtualThreadFallbackOnOlderJvm() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        ExecutorService executor = CrawlEngine.createVirtualThreadExecutor(2);
+
+        assertTrue(executor instanceof ThreadPoolExecutor);
+        assertEquals(2, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        ErrorRecord errorRecord = logger.getErrorRecords().get(0);
+        assertEquals(ErrorRecord.Phase.CONFIGURATION, errorRecord.getPhase());
+        assertEquals(NoSuchMethodException.class.getName(), errorRecord.getExceptionClass());
+        assertEquals("Virtual threads are not supported by this JVM, falling back to platform threads", errorRecord.getMessage());
+        executor.shutdown();
+    }
+
+    @Test
+    void testWorkerThreadFactory() {
+        Thread worker = CrawlEngine.createWorkerThreadFactory().newThread(() -> {
+        });
+
+        assertEquals("crawler-worker-1", worker.getName());
+        assertTrue(worker.isDaemon());
+    }
+
+    @Test
+    void testSubmitRunsCrawler() throws InterruptedException {
+        crawlEngine = new CrawlEngine(CrawlEngine.createExecutor(CrawlEngine.PoolType.FIXED, 1));
+        Runnable crawler = mock(Runnable.class);
+
+        crawlEngine.submit(crawler, 0);
+        crawlEngine.awaitIdle();
+
+        verify(crawler).run();
+    }
+
+    @Test
+    void testSubmitTracksQueuedAndActiveCrawlers() throws InterruptedException {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+        AtomicInteger activeWhileRunning = new AtomicInteger();
+
+        crawlEngine.submit(() -> activeWhileRunning.set((int) crawlEngine.getMetrics().getSnapshot().getGauge("crawler.active")), 0);
+        assertEquals(1, crawlEngine.getMetrics().getSnapshot().getGauge("crawler.queued"));
+        crawlEngine.awaitIdle();
+
+        MetricsSnapshot snapshot = crawlEngine.getMetrics().getSnapshot();
+        assertEquals(1, activeWhileRunning.get());
+        assertEquals(0, snapshot.getGauge("crawler.queued"));
+        assertEquals(0, snapshot.getGauge("crawler.active"));
+        assertEquals(1, snapshot.getGaugePeak("crawler.queued"));
+        assertEquals(1, snapshot.getCounter("crawler.finished"));
+    }
+
+    @Test
+    void testSubmitTracksQueuedCrawlersPerDepth() throws InterruptedException {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+
+        crawlEngine.submit(() -> {}, 2);
+        assertEquals(1, crawlEngine.getMetrics().getSnapshot().getGauge(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 2));
+        crawlEngine.awaitIdle();
+
+        MetricsSnapshot snapshot = crawlEngine.getMetrics().getSnapshot();
+        assertEquals(0, snapshot.getGauge(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 2));
+        assertEquals(0, snapshot.getGauge("crawler.queued"));
+    }
+
+    @Test
+    void testQueuedDepthGaugeNamesAreReused() {
+        assertSame(CrawlEngine.getQueuedDepthGaugeName(3), CrawlEngine.getQueuedDepthGaugeName(3));
+        assertEquals(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 3, CrawlEngine.getQueuedDepthGaugeName(3));
+        assertEquals(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + CrawlEngine.PRECOMPUTED_DEPTH_GAUGE_COUNT,
+                CrawlEngine.getQueuedDepthGaugeName(CrawlEngine.PRECOMPUTED_DEPTH_GAUGE_COUNT));
+    }
+
+    @Test
+    void testShallowestCrawlerRunsFirst() throws InterruptedException {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+        List<String> runOrder = new ArrayList<>();
+
+        crawlEngine.submit(() -> runOrder.add("2a"), 2);
+        crawlEngine.submit(() -> {
+            runOrder.add("0");
+            crawlEngine.submit(() -> runOrder.add("1"), 1);
+        }, 0);
+        crawlEngine.submit(() -> runOrder.add("2b"), 2);
+        crawlEngine.awaitIdle();
+
+        assertEquals(List.of("0", "1", "2a", "2b"), runOrder);
+    }
+
+    @Test
+    void testThrottledHostDoesNotHoldBackOtherHosts() throws InterruptedException {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setRequestsPerSecondPerHost(5);
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+        List<String> runOrder = new ArrayList<>();
+        long start = System.nanoTime();
+
+        crawlEngine.submit(() -> runOrder.add("a1"), "https://a.example.com/1", 1);
+        crawlEngine.submit(() -> runOrder.add("a2"), "https://a.example.com/2", 1);
+        crawlEngine.submit(() -> runOrder.add("b1"), "https://b.example.com/1", 1);
+        crawlEngine.awaitIdle();
+
+        assertEquals(List.of("a1", "b1", "a2"), runOrder);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+    }
+
+    @Test
+    void testAwaitIdleWaitsForLinkedCrawlersWithoutBlockingParents() throws InterruptedException {
+        crawlEngine = new CrawlEngine(CrawlEngine.createExecutor(CrawlEngine.PoolType.FIXED, 1));
+        AtomicInteger crawlerRuns = new AtomicInteger();
+
+        // with a single worker a parent waiting for its children would never finish
+        crawlEngine.submit(() -> {
+            crawlerRuns.incrementAndGet();
+            for (int i = 0; i < 3; i++) {
+                crawlEngine.submit(() -> {
+                    crawlerRuns.incrementAndGet();
+                    crawlEngine.submit(crawlerRuns::incrementAndGet, 2);
+                }, 1);
+            }
+        }, 0);
+        crawlEngine.awaitIdle();
+
+        assertEquals(7, crawlerRuns.get());
+        assertEquals(0, crawlEngine.getMetrics().getSnapshot().getGauge("crawler.active"));
+    }
+
+    @Test
+    void testFailingCrawlerIsLogged() throws InterruptedException {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+        Runnable nextCrawler = mock(Runnable.class);
+
+        crawlEngine.submit(() -> {
+            throw new IllegalStateException("Crawler failed");
+        }, 0);
+        crawlEngine.submit(nextCrawler, 0);
+        crawlEngine.awaitIdle();
+
+        assertEquals("Error whilst executing crawler: java.lang.IllegalStateException: Crawler failed", logger.getErrorLog().get(0));
+        verify(nextCrawler).run();
+    }
+
+    @Test
+    void testMetricsCanBeDisabled() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setMetricsEnabled(false);
+
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+
+        assertTrue(crawlEngine.getMetrics() instanceof NoOpCrawlMetrics);
+    }
+
+    @Test
+    void testCreateHashVisitedUrlStoreByDefault() {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+
+        assertTrue(crawlEngine.createVisitedUrlStore() instanceof HashVisitedUrlStore);
+    }
+
+    @Test
+    void testCreateBloomFilterVisitedUrlStore() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setVisitedUrlStoreType(CrawlEngine.VisitedUrlStoreType.BLOOM_FILTER);
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+
+        VisitedUrlStore visitedUrls = crawlEngine.createVisitedUrlStore();
+
+        assertTrue(visitedUrls instanceof BloomFilterVisitedUrlStore);
+        assertNotSame(visitedUrls, crawlEngine.createVisitedUrlStore());
+    }
+
+    @Test
+    void testPageFetcherSelection() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+
+        assertTrue(crawlEngine.getPageFetcher() instanceof CachingPageFetcher);
+        PageFetcher politePageFetcher = ((CachingPageFetcher) crawlEngine.getPageFetcher()).getPageFetcher();
+        assertTrue(politePageFetcher instanceof PolitePageFetcher);
+        assertTrue(((PolitePageFetcher) politePageFetcher).getPageFetcher() instanceof HttpClientPageFetcher);
+        assertTrue(crawlEngine.createPageFetcher(CrawlEngine.PageFetcherType.JSOUP) instanceof JsoupPageFetcher);
+    }
+
+    @Test
+    void testRobotsTxtCanBeDisabled() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setRobotsTxtEnabled(false);
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+
+        assertNull(crawlEngine.getRobotsTxtPolicy());
+        assertFalse(crawlEngine.isDisallowedByRobotsTxt("https://example.com/private"));
+    }
+
+    @Test
+    void testTranslationCacheIsShared() {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+
+        assertSame(crawlEngine.getTranslationCache(), crawlEngine.getTranslationCache());
+    }
+
+    @Test
+    void testTranslationCacheFileIsOnlyCreatedWhenConfigured() {
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class));
+
+        assertNull(crawlEngine.getTranslationCacheFile());
+    }
+
+    @Test
+    void testTranslationCacheFileIsLoadedAndClosed() throws IOException {
+        Path cacheDirectory = Files.createTempDirectory("translation-cache");
+        Files.writeString(cacheDirectory.resolve(TranslationCacheFile.FILE_NAME),
+                "{\"source\":\"en\",\"target\":\"de\",\"text\":\"Contact\",\"translation\":\"Kontakt\",\"createdAt\":" + System.currentTimeMillis() + "}\n");
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setTranslationCacheDirectory(cacheDirectory.toString());
+        crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+        crawlEngine.getTranslationCache().put("en", "de", "News", "Neuigkeiten");
+
+        crawlEngine.shutdown();
+
+        assertEquals(2, Files.readAllLines(crawlEngine.getTranslationCacheFile().getFile()).size());
+        crawlEngine = null;
+        TranslationCacheFileTest.deleteRecursively(cacheDirectory);
+    }
+
+    @Test
+    void testShutdown() {
+        ExecutorService executor = mock(ExecutorService.class);
+        CrawlEngine engine = new CrawlEngine(executor);
+
+        engine.shutdown();
+
+        verify(executor).shutdown();
+        assertTrue(((OkHttpWrapper) engine.getHttpClient()).getClient().dispatcher().executorService().isShutdown());
+    }
+}
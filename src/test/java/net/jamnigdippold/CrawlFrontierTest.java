@@ -0,0 +1,132 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlFrontierTest {
+    private final HostPolitenessScheduler politenessScheduler = new HostPolitenessScheduler(2, 10_000);
+    private final CrawlFrontier frontier = new CrawlFrontier(politenessScheduler);
+
+    @Test
+    void testPollsByDepthThenInsertionOrder() {
+        Runnable deepCrawler = () -> {};
+        Runnable firstCrawler = () -> {};
+        Runnable secondCrawler = () -> {};
+        frontier.add(deepCrawler, null, 2);
+        frontier.add(firstCrawler, null, 1);
+        frontier.add(secondCrawler, null, 1);
+
+        assertSame(firstCrawler, frontier.poll().getCrawler());
+        assertSame(secondCrawler, frontier.poll().getCrawler());
+        CrawlFrontier.Entry deepEntry = frontier.poll();
+        assertSame(deepCrawler, deepEntry.getCrawler());
+        assertEquals(2, deepEntry.getDepth());
+        assertNull(frontier.poll());
+    }
+
+    @Test
+    void testPollsShallowestEntryAcrossHosts() {
+        Runnable deepCrawler = () -> {};
+        Runnable shallowCrawler = () -> {};
+        frontier.add(deepCrawler, "example.com", 2);
+        frontier.add(shallowCrawler, "other.example.com", 1);
+
+        assertSame(shallowCrawler, frontier.poll().getCrawler());
+        politenessScheduler.releaseUnusedReservation();
+        assertSame(deepCrawler, frontier.poll().getCrawler());
+    }
+
+    @Test
+    void testThrottledHostWaitsWhileOtherHostsAreCrawled() {
+        CrawlFrontier throttledFrontier = new CrawlFrontier(new HostPolitenessScheduler(2, 1));
+        Runnable otherHostCrawler = () -> {};
+        throttledFrontier.add(() -> {}, "example.com", 1);
+        throttledFrontier.add(() -> {}, "example.com", 1);
+        throttledFrontier.add(otherHostCrawler, "other.example.com", 2);
+
+        throttledFrontier.poll();
+
+        assertSame(otherHostCrawler, throttledFrontier.poll().getCrawler());
+        assertNull(throttledFrontier.poll());
+        assertFalse(throttledFrontier.hasReadyEntries());
+        long nanosUntilReady = throttledFrontier.getNanosUntilNextHostIsReady();
+        assertTrue(nanosUntilReady > TimeUnit.MILLISECONDS.toNanos(500) && nanosUntilReady <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, throttledFrontier.size());
+    }
+
+    @Test
+    void testHostWaitingForConnectionIsReadyAfterRelease() {
+        HostPolitenessScheduler singleConnectionScheduler = new HostPolitenessScheduler(1, 1e9);
+        CrawlFrontier singleConnectionFrontier = new CrawlFrontier(singleConnectionScheduler);
+        singleConnectionScheduler.setReleaseListener(singleConnectionFrontier::hostReleased);
+        Runnable secondCrawler = () -> {};
+        singleConnectionFrontier.add(() -> {}, "example.com", 1);
+        singleConnectionFrontier.add(secondCrawler, "example.com", 1);
+
+        singleConnectionFrontier.poll();
+        assertNull(singleConnectionFrontier.poll());
+        singleConnectionScheduler.releaseUnusedReservation();
+
+        assertTrue(singleConnectionFrontier.hasReadyEntries());
+        assertSame(secondCrawler, singleConnectionFrontier.poll().getCrawler());
+    }
+
+    @Test
+    void testOnlyEarliestWakeUpIsClaimed() {
+        assertTrue(frontier.claimWakeUp(200));
+        assertFalse(frontier.claimWakeUp(300));
+        assertTrue(frontier.claimWakeUp(100));
+
+        frontier.wakeUpFired();
+
+        assertTrue(frontier.claimWakeUp(300));
+    }
+
+    @Test
+    void testAwaitIdleReturnsWhenEmpty() throws InterruptedException {
+        frontier.awaitIdle();
+
+        assertTrue(frontier.isIdle());
+        assertEquals(0, frontier.size());
+    }
+
+    @Test
+    void testAwaitIdleWaitsForPolledEntriesToFinish() throws InterruptedException {
+        frontier.add(() -> {}, null, 0);
+        frontier.poll();
+        CountDownLatch idle = new CountDownLatch(1);
+        Thread waitingThread = new Thread(() -> {
+            try {
+                frontier.awaitIdle();
+                idle.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waitingThread.start();
+
+        assertFalse(idle.await(50, TimeUnit.MILLISECONDS));
+        frontier.add(() -> {}, null, 1);
+        frontier.finish();
+        assertFalse(idle.await(50, TimeUnit.MILLISECONDS));
+        frontier.poll();
+        frontier.finish();
+
+        assertTrue(idle.await(5, TimeUnit.SECONDS));
+        waitingThread.join();
+    }
+
+    @Test
+    void testAwaitChangeReturnsAtOnceWhenAlreadyChanged() throws InterruptedException {
+        long changeCount = frontier.getChangeCount();
+        frontier.add(() -> {}, null, 0);
+
+        frontier.awaitChange(changeCount, -1);
+
+        assertEquals(changeCount + 1, frontier.getChangeCount());
+    }
+}
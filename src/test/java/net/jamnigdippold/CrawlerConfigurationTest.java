@@ -0,0 +1,264 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlerConfigurationTest {
+    private final Logger logger = ErrorLogger.getInstance();
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("crawler.pool.type");
+        System.clearProperty("crawler.pool.size");
+        System.clearProperty("crawler.fetcher");
+        System.clearProperty("crawler.linkCheck.cacheTtlMinutes");
+        System.clearProperty("crawler.linkCheck.cacheSize");
+        System.clearProperty("crawler.politeness.maxConnectionsPerHost");
+        System.clearProperty("crawler.politeness.requestsPerSecond");
+        System.clearProperty("crawler.robots.enabled");
+        System.clearProperty("crawler.robots.cacheTtlMinutes");
+        System.clearProperty("crawler.output.format");
+        System.clearProperty("crawler.output.binaryFile");
+        System.clearProperty("crawler.visited.store");
+        System.clearProperty("crawler.visited.expectedUrls");
+        System.clearProperty("crawler.visited.falsePositiveRate");
+        System.clearProperty("crawler.translation.cacheSize");
+        System.clearProperty("crawler.translation.cacheTtlMinutes");
+        System.clearProperty("crawler.translation.cacheDir");
+        System.clearProperty("crawler.translation.apiUrl");
+        System.clearProperty("crawler.http.maxIdleConnections");
+        System.clearProperty("crawler.http.keepAliveSeconds");
+        System.clearProperty("crawler.http.maxRequestsPerHost");
+        System.clearProperty("crawler.http.connectTimeoutSeconds");
+        System.clearProperty("crawler.http.readTimeoutSeconds");
+        System.clearProperty("crawler.metrics.enabled");
+        System.clearProperty("crawler.metrics.reportIntervalSeconds");
+        System.clearProperty("crawler.progress.enabled");
+        System.clearProperty("crawler.progress.intervalSeconds");
+        logger.clearLog();
+    }
+
+    @Test
+    void testDefaults() {
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlEngine.PoolType.FIXED, configuration.getPoolType());
+        assertEquals(CrawlerConfiguration.DEFAULT_POOL_SIZE, configuration.getPoolSize());
+    }
+
+    @Test
+    void testPoolSettingsFromSystemProperties() {
+        System.setProperty("crawler.pool.type", "work-stealing");
+        System.setProperty("crawler.pool.size", "12");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlEngine.PoolType.WORK_STEALING, configuration.getPoolType());
+        assertEquals(12, configuration.getPoolSize());
+    }
+
+    @Test
+    void testVirtualPoolTypeFromSystemProperties() {
+        System.setProperty("crawler.pool.type", "virtual");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlEngine.PoolType.VIRTUAL, configuration.getPoolType());
+    }
+
+    @Test
+    void testPageFetcherFromSystemProperties() {
+        assertEquals(CrawlEngine.PageFetcherType.OKHTTP, CrawlerConfiguration.fromSystemProperties().getPageFetcherType());
+
+        System.setProperty("crawler.fetcher", "jsoup");
+
+        assertEquals(CrawlEngine.PageFetcherType.JSOUP, CrawlerConfiguration.fromSystemProperties().getPageFetcherType());
+    }
+
+    @Test
+    void testLinkStatusCacheTtlFromSystemProperties() {
+        assertEquals(CrawlerConfiguration.DEFAULT_LINK_STATUS_CACHE_TTL_MINUTES, CrawlerConfiguration.fromSystemProperties().getLinkStatusCacheTtlMinutes());
+
+        System.setProperty("crawler.linkCheck.cacheTtlMinutes", "5");
+
+        assertEquals(5, CrawlerConfiguration.fromSystemProperties().getLinkStatusCacheTtlMinutes());
+    }
+
+    @Test
+    void testLinkStatusCacheSizeFromSystemProperties() {
+        assertEquals(CrawlerConfiguration.DEFAULT_LINK_STATUS_CACHE_SIZE, CrawlerConfiguration.fromSystemProperties().getLinkStatusCacheSize());
+
+        System.setProperty("crawler.linkCheck.cacheSize", "500");
+
+        assertEquals(500, CrawlerConfiguration.fromSystemProperties().getLinkStatusCacheSize());
+    }
+
+    @Test
+    void testVisitedUrlStoreSettingsFromSystemProperties() {
+        System.setProperty("crawler.visited.store", "bloom-filter");
+        System.setProperty("crawler.visited.expectedUrls", "5000000");
+        System.setProperty("crawler.visited.falsePositiveRate", "0.0001");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlEngine.VisitedUrlStoreType.BLOOM_FILTER, configuration.getVisitedUrlStoreType());
+        assertEquals(5000000, configuration.getExpectedUrlCount());
+        assertEquals(0.0001, configuration.getFalsePositiveRate());
+    }
+
+    @Test
+    void testTranslationCacheSettingsFromSystemProperties() {
+        System.setProperty("crawler.translation.cacheSize", "500");
+        System.setProperty("crawler.translation.cacheTtlMinutes", "30");
+        System.setProperty("crawler.translation.cacheDir", "/var/cache/crawler");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(500, configuration.getTranslationCacheSize());
+        assertEquals(30, configuration.getTranslationCacheTtlMinutes());
+        assertEquals("/var/cache/crawler", configuration.getTranslationCacheDirectory());
+    }
+
+    @Test
+    void testHttpClientSettingsFromSystemProperties() {
+        System.setProperty("crawler.http.maxIdleConnections", "8");
+        System.setProperty("crawler.http.keepAliveSeconds", "60");
+        System.setProperty("crawler.http.maxRequestsPerHost", "20");
+        System.setProperty("crawler.http.connectTimeoutSeconds", "3");
+        System.setProperty("crawler.http.readTimeoutSeconds", "15");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(8, configuration.getHttpMaxIdleConnections());
+        assertEquals(60, configuration.getHttpKeepAliveSeconds());
+        assertEquals(20, configuration.getHttpMaxRequestsPerHost());
+        assertEquals(3, configuration.getHttpConnectTimeoutSeconds());
+        assertEquals(15, configuration.getHttpReadTimeoutSeconds());
+    }
+
+    @Test
+    void testPolitenessSettingsFromSystemProperties() {
+        System.setProperty("crawler.politeness.maxConnectionsPerHost", "1");
+        System.setProperty("crawler.politeness.requestsPerSecond", "0.5");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(1, configuration.getMaxConnectionsPerHost());
+        assertEquals(0.5, configuration.getRequestsPerSecondPerHost());
+    }
+
+    @Test
+    void testRobotsTxtSettingsFromSystemProperties() {
+        assertTrue(CrawlerConfiguration.fromSystemProperties().isRobotsTxtEnabled());
+        System.setProperty("crawler.robots.enabled", "FALSE");
+        System.setProperty("crawler.robots.cacheTtlMinutes", "90");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertFalse(configuration.isRobotsTxtEnabled());
+        assertEquals(90, configuration.getRobotsTxtCacheTtlMinutes());
+    }
+
+    @Test
+    void testReportFormatFromSystemProperties() {
+        assertEquals(ReportWriter.Format.MARKDOWN, CrawlerConfiguration.fromSystemProperties().getReportFormat());
+        System.setProperty("crawler.output.format", "csv");
+
+        assertEquals(ReportWriter.Format.CSV, CrawlerConfiguration.fromSystemProperties().getReportFormat());
+    }
+
+    @Test
+    void testBinaryReportPathFromSystemProperties() {
+        assertNull(CrawlerConfiguration.fromSystemProperties().getBinaryReportPath());
+        System.setProperty("crawler.output.binaryFile", "results.bin");
+
+        assertEquals("results.bin", CrawlerConfiguration.fromSystemProperties().getBinaryReportPath());
+    }
+
+    @Test
+    void testTranslationApiUrlFromSystemProperties() {
+        assertEquals(TextTranslator.DEFAULT_API_URL, CrawlerConfiguration.fromSystemProperties().getTranslationApiUrl());
+        System.setProperty("crawler.translation.apiUrl", "http://127.0.0.1:8080/translate");
+
+        assertEquals("http://127.0.0.1:8080/translate", CrawlerConfiguration.fromSystemProperties().getTranslationApiUrl());
+    }
+
+    @Test
+    void testInvalidTranslationApiUrl() {
+        System.setProperty("crawler.translation.apiUrl", "translate");
+
+        assertEquals(TextTranslator.DEFAULT_API_URL, CrawlerConfiguration.fromSystemProperties().getTranslationApiUrl());
+        assertEquals("Invalid value for crawler.translation.apiUrl: translate", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testMetricsSettingsFromSystemProperties() {
+        CrawlerConfiguration defaultConfiguration = CrawlerConfiguration.fromSystemProperties();
+        assertTrue(defaultConfiguration.isMetricsEnabled());
+        assertEquals(0, defaultConfiguration.getMetricsReportIntervalSeconds());
+        System.setProperty("crawler.metrics.enabled", "false");
+        System.setProperty("crawler.metrics.reportIntervalSeconds", "30");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertFalse(configuration.isMetricsEnabled());
+        assertEquals(30, configuration.getMetricsReportIntervalSeconds());
+    }
+
+    @Test
+    void testProgressSettingsFromSystemProperties() {
+        CrawlerConfiguration defaultConfiguration = CrawlerConfiguration.fromSystemProperties();
+        assertTrue(defaultConfiguration.isProgressEnabled());
+        assertEquals(CrawlerConfiguration.DEFAULT_PROGRESS_INTERVAL_SECONDS, defaultConfiguration.getProgressIntervalSeconds());
+        System.setProperty("crawler.progress.enabled", "false");
+        System.setProperty("crawler.progress.intervalSeconds", "2");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertFalse(configuration.isProgressEnabled());
+        assertEquals(2, configuration.getProgressIntervalSeconds());
+    }
+
+    @Test
+    void testInvalidBoolean() {
+        System.setProperty("crawler.robots.enabled", "maybe");
+
+        assertTrue(CrawlerConfiguration.fromSystemProperties().isRobotsTxtEnabled());
+        assertEquals("Invalid value for crawler.robots.enabled: maybe", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testInvalidRequestsPerSecond() {
+        System.setProperty("crawler.politeness.requestsPerSecond", "-3");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlerConfiguration.DEFAULT_REQUESTS_PER_SECOND_PER_HOST, configuration.getRequestsPerSecondPerHost());
+        assertEquals("Invalid value for crawler.politeness.requestsPerSecond: -3", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testInvalidFalsePositiveRate() {
+        System.setProperty("crawler.visited.falsePositiveRate", "1.5");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlerConfiguration.DEFAULT_FALSE_POSITIVE_RATE, configuration.getFalsePositiveRate());
+        assertEquals("Invalid value for crawler.visited.falsePositiveRate: 1.5", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testInvalidPoolSettings() {
+        System.setProperty("crawler.pool.type", "unlimited");
+        System.setProperty("crawler.pool.size", "-4");
+
+        CrawlerConfiguration configuration = CrawlerConfiguration.fromSystemProperties();
+
+        assertEquals(CrawlEngine.PoolType.FIXED, configuration.getPoolType());
+        assertEquals(CrawlerConfiguration.DEFAULT_POOL_SIZE, configuration.getPoolSize());
+        assertEquals("Invalid value for crawler.pool.type: unlimited", logger.getErrorLog().get(0));
+        assertEquals("Invalid value for crawler.pool.size: -4", logger.getErrorLog().get(1));
+    }
+}
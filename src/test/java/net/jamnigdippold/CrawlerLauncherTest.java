@@ -1,43 +1,116 @@
 package net.jamnigdippold;
 
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
-import java.util.List;
+import org.mockito.ArgumentCaptor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class CrawlerLauncherTest {
     private CrawlerLauncher launcher;
-    private List<WebsiteCrawler> crawlerList;
+    private CrawlEngine crawlEngine;
+    private final Logger logger = ErrorLogger.getInstance();
 
     @BeforeEach
     void setUp() {
-        launcher = new CrawlerLauncher();
-        WebsiteCrawler c1 = mock(WebsiteCrawler.class);
-        WebsiteCrawler c2 = mock(WebsiteCrawler.class);
-        WebsiteCrawler c3 = mock(WebsiteCrawler.class);
-        crawlerList = List.of(c1, c2, c3);
-        launcher.setCrawlers(crawlerList);
+        crawlEngine = mock(CrawlEngine.class);
+        doAnswer(invocationOnMock -> new HashVisitedUrlStore()).when(crawlEngine).createVisitedUrlStore();
+        doReturn(new NoOpCrawlMetrics()).when(crawlEngine).getMetrics();
+        launcher = new CrawlerLauncher(crawlEngine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.clearLog();
+    }
+
+    @Test
+    void testWaitForCrawlersToFinish() throws InterruptedException {
+        launcher.waitForCrawlersToFinish();
+
+        verify(crawlEngine).awaitIdle();
+    }
+
+    @Test
+    void testWaitForCrawlersToFinishException() throws InterruptedException {
+        doThrow(new InterruptedException("Error on line 10")).when(crawlEngine).awaitIdle();
+
+        launcher.waitForCrawlersToFinish();
+
+        assertEquals("Error whilst waiting for crawlers: java.lang.InterruptedException: Error on line 10", logger.getErrorLog().get(0));
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void testStartNewCrawlerSubmitsToEngine() {
+        launcher.startNewCrawler("https://example.com", 1, "de", 0);
+
+        verify(crawlEngine).submit(any(WebsiteCrawler.class), eq("https://example.com"), eq(0));
+        assertEquals("", launcher.getOutputFromCrawlers());
     }
 
     @Test
-    void testWaitForCrawlerThreadsToFinish() throws InterruptedException {
-        launcher.waitForCrawlerThreadsToFinish();
+    void testStartNewCrawlerPassesParentUrl() {
+        VisitedUrlStore visitedUrls = new HashVisitedUrlStore();
+        launcher = new CrawlerLauncher(crawlEngine, visitedUrls);
+        launcher.setParentUrl("https://example.com");
+        ArgumentCaptor<WebsiteCrawler> submittedCrawler = ArgumentCaptor.forClass(WebsiteCrawler.class);
+
+        launcher.startNewCrawler("https://example.com/about", 2, "de", 1);
+        launcher.startNewCrawler("https://example.com/about", 2, "de", 1);
+
+        verify(crawlEngine).submit(submittedCrawler.capture(), eq("https://example.com/about"), eq(1));
+        assertEquals("https://example.com", submittedCrawler.getValue().getParentUrl());
+    }
+
+    @Test
+    void testStartNewCrawlerSkipsVisitedUrl() {
+        VisitedUrlStore visitedUrls = new HashVisitedUrlStore();
+        launcher = new CrawlerLauncher(crawlEngine, visitedUrls);
+
+        launcher.startNewCrawler("https://example.com/about", 2, "de", 1);
+        launcher.startNewCrawler("https://EXAMPLE.com/about/#team", 2, "de", 1);
+
+        verify(crawlEngine, times(1)).submit(any(), anyString(), anyInt());
+        assertEquals("<br>--> link to <a>https://EXAMPLE.com/about/#team</a>\n\n", launcher.getOutputFromCrawlers());
+        assertTrue(visitedUrls.isVisited("https://example.com/about"));
+    }
+
+    @Test
+    void testStartNewCrawlerSkipsUrlDisallowedByRobotsTxt() {
+        doReturn(true).when(crawlEngine).isDisallowedByRobotsTxt("https://example.com/private");
+        VisitedUrlStore visitedUrls = new HashVisitedUrlStore();
+        launcher = new CrawlerLauncher(crawlEngine, visitedUrls);
+
+        launcher.startNewCrawler("https://example.com/private", 2, "de", 1);
+
+        verify(crawlEngine, never()).submit(any(), anyString(), anyInt());
+        assertEquals("<br>--> disallowed link <a>https://example.com/private</a>\n\n", launcher.getOutputFromCrawlers());
+        assertEquals(0, visitedUrls.size());
+    }
+
+    @Test
+    void testStartNewCrawlerAlwaysChecksLinksBeyondMaxDepth() {
+        VisitedUrlStore visitedUrls = new HashVisitedUrlStore();
+        visitedUrls.markVisited("https://example.com/");
+        launcher = new CrawlerLauncher(crawlEngine, visitedUrls);
+
+        launcher.startNewCrawler("https://example.com", 1, "de", 2);
 
-        for (WebsiteCrawler websiteCrawler : crawlerList) {
-            verify(websiteCrawler).join();
-        }
+        verify(crawlEngine).submit(any(), anyString(), anyInt());
     }
 
     @Test
-    void testWaitForCrawlerThreadsToFinishException() throws InterruptedException {
-        doThrow(new InterruptedException("Error on line 10")).when(crawlerList.get(0)).join();
+    void testRootCrawlsUseSeparateVisitedUrls() {
+        launcher = new CrawlerLauncher(crawlEngine);
 
-        launcher.waitForCrawlerThreadsToFinish();
+        launcher.startNewCrawler("https://example.com", 1, "de", 0);
+        launcher.startNewCrawler("https://example.com", 1, "en", 0);
 
-        assertEquals("Error whilst joining crawler threads: java.lang.InterruptedException: Error on line 10", ErrorLogger.getInstance().getErrorLog().get(0));
+        verify(crawlEngine, times(2)).submit(any(), anyString(), anyInt());
     }
 }
@@ -0,0 +1,72 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvReportRendererTest {
+    private CsvReportRenderer renderer;
+    private StringWriter output;
+
+    @BeforeEach
+    public void setUp() {
+        renderer = new CsvReportRenderer();
+        output = new StringWriter();
+    }
+
+    @Test
+    void testRenderOneRowPerHeadline() throws IOException {
+        PageResult page = new PageResult("https://example.com", 1);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setHeadlines(List.of(new PageResult.Headline(1, "Überschrift h1"), new PageResult.Headline(2, "Kontakt")));
+
+        renderer.renderHeader(output);
+        renderer.renderPage(page, output);
+
+        assertEquals("url,depth,status,parent,headline_level,headline\r\n" +
+                "https://example.com,1,crawled,,1,Überschrift h1\r\n" +
+                "https://example.com,1,crawled,,2,Kontakt\r\n", output.toString());
+    }
+
+    @Test
+    void testRenderPageWithoutHeadlines() throws IOException {
+        PageResult page = new PageResult("https://example.com/private", 2);
+        page.setStatus(PageResult.Status.DISALLOWED);
+
+        renderer.renderPage(page, output);
+
+        assertEquals("https://example.com/private,2,disallowed,,,\r\n", output.toString());
+    }
+
+    @Test
+    void testRenderParentUrl() throws IOException {
+        PageResult page = new PageResult("https://example.com/contact", 1);
+        page.setParentUrl("https://example.com/?a=1,2");
+        page.setStatus(PageResult.Status.BROKEN);
+
+        renderer.renderPage(page, output);
+
+        assertEquals("https://example.com/contact,1,broken,\"https://example.com/?a=1,2\",,\r\n", output.toString());
+    }
+
+    @Test
+    void testValuesAreEscaped() throws IOException {
+        PageResult page = new PageResult("https://example.com/?a=1,2", 0);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setHeadlines(List.of(new PageResult.Headline(1, "Say \"hi\"\nnow")));
+
+        renderer.renderPage(page, output);
+        renderer.renderErrors(List.of(new ErrorRecord(0, ErrorRecord.Phase.GENERAL, null, null, "Error, again"),
+                new ErrorRecord(0, ErrorRecord.Phase.FETCH, "https://example.com/missing", null, "Not found")), new ErrorSummary(1, 0, Map.of(), Map.of()), output);
+
+        assertEquals("\"https://example.com/?a=1,2\",0,crawled,,1,\"Say \"\"hi\"\"\nnow\"\r\n" +
+                ",,error,,,\"Error, again\"\r\n" +
+                "https://example.com/missing,,error,,,Not found\r\n", output.toString());
+    }
+}
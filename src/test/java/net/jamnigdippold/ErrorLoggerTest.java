@@ -4,9 +4,15 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ErrorLoggerTest {
     private final Logger logger = ErrorLogger.getInstance();
@@ -55,5 +61,77 @@ public class ErrorLoggerTest {
         logger.clearLog();
 
         assertEquals(expectedArrayList, logger.getErrorLog());
+        assertEquals(0, logger.getErrorSummary().getErrorCount());
+    }
+
+    @Test
+    void testSingleInstance() {
+        assertSame(ErrorLogger.getInstance(), ErrorLogger.getInstance());
+    }
+
+    @Test
+    void testStructuredErrorRecord() {
+        IOException error = new IOException("Connection reset");
+
+        logger.logError(ErrorRecord.Phase.FETCH, "https://Example.com/about", error, errorMessageMock);
+
+        ErrorRecord errorRecord = logger.getErrorRecords().get(0);
+        assertEquals(ErrorRecord.Phase.FETCH, errorRecord.getPhase());
+        assertEquals("https://Example.com/about", errorRecord.getUrl());
+        assertEquals("java.io.IOException", errorRecord.getExceptionClass());
+        assertEquals(errorMessageMock, errorRecord.getMessage());
+        assertTrue(errorRecord.getTimestamp() > 0);
+    }
+
+    @Test
+    void testRingKeepsNewestErrorsAndCountsDropped() {
+        ErrorLogger boundedLogger = new ErrorLogger(4);
+
+        for (int i = 0; i < 10; i++) {
+            boundedLogger.logError(ErrorRecord.Phase.FETCH, "https://host" + (i % 2) + ".example.com", new IOException(), "Error " + i);
+        }
+        boundedLogger.logError(ErrorRecord.Phase.CONFIGURATION, null, null, "Invalid value");
+
+        assertEquals(List.of("Error 7", "Error 8", "Error 9", "Invalid value"), boundedLogger.getErrorLog());
+        ErrorSummary summary = boundedLogger.getErrorSummary();
+        assertEquals(11L, summary.getErrorCount());
+        assertEquals(7L, summary.getDroppedErrorCount());
+        assertEquals(Long.valueOf(10), summary.getErrorCountsByType().get("java.io.IOException"));
+        assertEquals(Long.valueOf(1), summary.getErrorCountsByType().get("CONFIGURATION"));
+        assertEquals(Long.valueOf(5), summary.getErrorCountsByHost().get("host0.example.com"));
+        assertTrue(boundedLogger.getErrorLogAsString().contains("- 7 older errors were dropped, 11 errors in total<br>\n"));
+    }
+
+    @Test
+    void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(8, new ErrorLogger(5).getCapacity());
+        assertEquals(1, new ErrorLogger(1).getCapacity());
+        assertEquals(ErrorLogger.DEFAULT_CAPACITY, ErrorLogger.getInstance().getCapacity());
+    }
+
+    @Test
+    void testConcurrentLoggingLosesNoErrors() throws InterruptedException {
+        ErrorLogger concurrentLogger = new ErrorLogger(16 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    concurrentLogger.logError(errorMessageMock);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8000, concurrentLogger.getErrorLog().size());
+        assertEquals(Long.valueOf(8000), concurrentLogger.getErrorSummary().getErrorCountsByType().get("GENERAL"));
     }
 }
@@ -0,0 +1,36 @@
+package net.jamnigdippold;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetchResultTest {
+    @Test
+    void testSuccessfulFetch() {
+        Document document = Jsoup.parse("<html><h1>Heading h1</h1></html>");
+
+        FetchResult fetchResult = FetchResult.success("https://example.com", 200, document);
+
+        assertFalse(fetchResult.isBroken());
+        assertEquals("https://example.com", fetchResult.getUrl());
+        assertEquals(200, fetchResult.getStatusCode());
+        assertEquals(document, fetchResult.getDocument());
+        assertNull(fetchResult.getError());
+    }
+
+    @Test
+    void testFailedFetch() {
+        IOException error = new IOException("Connection refused");
+
+        FetchResult fetchResult = FetchResult.failure("https://example.com", FetchResult.NO_STATUS_CODE, error);
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(FetchResult.NO_STATUS_CODE, fetchResult.getStatusCode());
+        assertNull(fetchResult.getDocument());
+        assertEquals(error, fetchResult.getError());
+    }
+}
@@ -0,0 +1,24 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashVisitedUrlStoreTest {
+    private final VisitedUrlStore visitedUrls = new HashVisitedUrlStore();
+
+    @Test
+    void testMarkVisited() {
+        assertTrue(visitedUrls.markVisited("https://example.com/"));
+        assertFalse(visitedUrls.markVisited("https://example.com/"));
+        assertEquals(1, visitedUrls.size());
+    }
+
+    @Test
+    void testIsVisited() {
+        visitedUrls.markVisited("https://example.com/");
+
+        assertTrue(visitedUrls.isVisited("https://example.com/"));
+        assertFalse(visitedUrls.isVisited("https://example.com/about"));
+    }
+}
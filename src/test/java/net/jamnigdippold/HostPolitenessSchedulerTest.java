@@ -0,0 +1,153 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostPolitenessSchedulerTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new HostPolitenessScheduler(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HostPolitenessScheduler(1, 0));
+    }
+
+    @Test
+    void testConcurrentRequestsPerHostAreCapped() throws Exception {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(2, 10_000);
+        AtomicInteger runningRequests = new AtomicInteger();
+        AtomicInteger maxRunningRequests = new AtomicInteger();
+        List<Future<?>> requests = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            requests.add(executor.submit(() -> scheduler.schedule("https://example.com/" + Thread.currentThread().getName(), () -> {
+                maxRunningRequests.accumulateAndGet(runningRequests.incrementAndGet(), Math::max);
+                sleep(20);
+                return runningRequests.decrementAndGet();
+            })));
+        }
+        for (Future<?> request : requests) {
+            request.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2, maxRunningRequests.get());
+        assertEquals(1, scheduler.getHostCount());
+    }
+
+    @Test
+    void testRequestsPerHostAreRateLimited() throws InterruptedException {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(4, 20);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule("https://example.com/" + i, () -> null);
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 140);
+    }
+
+    @Test
+    void testDifferentHostsProgressIndependently() throws Exception {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(1, 1);
+        scheduler.schedule("https://slow.example.com", () -> null);
+        long start = System.nanoTime();
+
+        Future<?> otherHost = executor.submit(() -> scheduler.schedule("https://fast.example.com", () -> null));
+        otherHost.get(5, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        assertEquals(2, scheduler.getHostCount());
+    }
+
+    @Test
+    void testConnectionIsReleasedWhenRequestFails() throws InterruptedException {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(1, 10_000);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule("https://example.com", () -> {
+            throw new IllegalStateException("Request failed");
+        }));
+
+        assertEquals("done", scheduler.schedule("https://example.com", () -> "done"));
+    }
+
+    @Test
+    void testTryReserveNeverWaits() {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(1, 1);
+
+        assertEquals(0, scheduler.tryReserve("example.com"));
+        assertEquals(HostPolitenessScheduler.NO_CONNECTION_AVAILABLE, scheduler.tryReserve("example.com"));
+        scheduler.releaseUnusedReservation();
+        long throttledNanos = scheduler.tryReserve("example.com");
+
+        assertTrue(throttledNanos > TimeUnit.MILLISECONDS.toNanos(500) && throttledNanos <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, scheduler.tryReserve("other.example.com"));
+    }
+
+    @Test
+    void testReservedConnectionIsUsedByNextRequest() throws InterruptedException {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(1, 1);
+        List<String> releasedHosts = new ArrayList<>();
+        scheduler.setReleaseListener(releasedHosts::add);
+        scheduler.tryReserve("example.com");
+        long start = System.nanoTime();
+
+        assertEquals("done", scheduler.schedule("https://example.com/page", () -> {
+            assertEquals(0, scheduler.getHostQueue("example.com").getAvailableConnections());
+            return "done";
+        }));
+        scheduler.releaseUnusedReservation();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        assertEquals(1, scheduler.getHostQueue("example.com").getAvailableConnections());
+        assertEquals(List.of("example.com"), releasedHosts);
+    }
+
+    @Test
+    void testUnusedReservationIsReleased() {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(1, 10_000);
+        List<String> releasedHosts = new ArrayList<>();
+        scheduler.setReleaseListener(releasedHosts::add);
+        scheduler.releaseUnusedReservation();
+        scheduler.tryReserve("example.com");
+
+        scheduler.releaseUnusedReservation();
+
+        assertEquals(1, scheduler.getHostQueue("example.com").getAvailableConnections());
+        assertEquals(List.of("example.com"), releasedHosts);
+    }
+
+    @Test
+    void testCrawlDelayOnlySlowsDown() {
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(1, 4);
+
+        scheduler.applyCrawlDelay("https://example.com", 2000);
+        scheduler.applyCrawlDelay("https://EXAMPLE.com/robots.txt", 100);
+        scheduler.applyCrawlDelay("https://fast.example.com", 100);
+
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.getHostQueue("example.com").getMinimumIntervalNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), scheduler.getHostQueue("fast.example.com").getMinimumIntervalNanos());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
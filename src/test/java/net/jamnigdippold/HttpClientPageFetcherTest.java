@@ -0,0 +1,193 @@
+package net.jamnigdippold;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HttpClientPageFetcherTest {
+    private HttpClientPageFetcher pageFetcher;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    public void setUp() {
+        httpClient = mock(HttpClient.class);
+        pageFetcher = new HttpClientPageFetcher(httpClient);
+    }
+
+    @Test
+    void testFetchParsesStreamedBody() throws IOException {
+        mockResponse(200, "text/html; charset=utf-8", "<html><body><h1>Überschrift</h1><a href=\"/about\">About</a></body></html>");
+
+        FetchResult fetchResult = pageFetcher.fetch("https://example.com");
+
+        assertFalse(fetchResult.isBroken());
+        assertEquals(200, fetchResult.getStatusCode());
+        assertEquals("Überschrift", fetchResult.getDocument().selectFirst("h1").text());
+        assertEquals("https://example.com/about", fetchResult.getDocument().selectFirst("a").absUrl("href"));
+        assertEquals(73, fetchResult.getContentLength());
+    }
+
+    @Test
+    void testFetchStopsReadingAtMaxBodySize() throws IOException {
+        pageFetcher = new HttpClientPageFetcher(httpClient, 100);
+        mockResponse(200, "text/html", "<html><body><h1>Start</h1>" + "x".repeat(1000) + "<h2>Cut off</h2></body></html>");
+
+        FetchResult fetchResult = pageFetcher.fetch("https://example.com");
+
+        assertFalse(fetchResult.isBroken());
+        assertEquals("Start", fetchResult.getDocument().selectFirst("h1").text());
+        assertNull(fetchResult.getDocument().selectFirst("h2"));
+        assertEquals(100, fetchResult.getContentLength());
+    }
+
+    @Test
+    void testFetchSendsUserAgent() throws IOException {
+        mockResponse(200, "text/html", "<html></html>");
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+
+        pageFetcher.fetch("https://example.com");
+
+        verify(httpClient).executeRequest(request.capture());
+        assertEquals(HttpClientPageFetcher.USER_AGENT, request.getValue().header("User-Agent"));
+    }
+
+    @Test
+    void testFetchHttpError() throws IOException {
+        mockResponse(404, "text/html", "not found");
+
+        FetchResult fetchResult = pageFetcher.fetch("https://example.com/missing");
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(404, fetchResult.getStatusCode());
+        assertTrue(fetchResult.getError() instanceof HttpStatusException);
+    }
+
+    @Test
+    void testFetchUnsupportedContentType() throws IOException {
+        mockResponse(200, "application/pdf", "%PDF");
+
+        FetchResult fetchResult = pageFetcher.fetch("https://example.com/file.pdf");
+
+        assertTrue(fetchResult.isBroken());
+        assertTrue(fetchResult.getError() instanceof UnsupportedMimeTypeException);
+    }
+
+    @Test
+    void testFetchXmlContentType() throws IOException {
+        mockResponse(200, "application/xhtml+xml", "<html><h1>Heading</h1></html>");
+
+        assertFalse(pageFetcher.fetch("https://example.com").isBroken());
+    }
+
+    @Test
+    void testFetchMalformedUrl() {
+        FetchResult fetchResult = pageFetcher.fetch("Not a real URL");
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(FetchResult.NO_STATUS_CODE, fetchResult.getStatusCode());
+        verifyNoInteractions(httpClient);
+    }
+
+    @Test
+    void testFetchConnectionError() throws IOException {
+        doThrow(new IOException("Connection refused")).when(httpClient).executeRequest(any());
+
+        FetchResult fetchResult = pageFetcher.fetch("https://looksRealButIsNot");
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(FetchResult.NO_STATUS_CODE, fetchResult.getStatusCode());
+    }
+
+    @Test
+    void testCheckLinkUsesHead() throws IOException {
+        mockResponse(200, "application/pdf", "");
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+
+        FetchResult fetchResult = pageFetcher.checkLink("https://example.com/file.pdf");
+
+        assertFalse(fetchResult.isBroken());
+        assertNull(fetchResult.getDocument());
+        verify(httpClient, times(1)).executeRequest(request.capture());
+        assertEquals("HEAD", request.getValue().method());
+    }
+
+    @Test
+    void testCheckLinkFallsBackToRangedGet() throws IOException {
+        doAnswer(invocationOnMock -> {
+            Request request = invocationOnMock.getArgument(0);
+            int statusCode = request.method().equals("HEAD") ? 405 : 206;
+            return createResponse(request, statusCode, "text/html", "<");
+        }).when(httpClient).executeRequest(any());
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+
+        FetchResult fetchResult = pageFetcher.checkLink("https://example.com");
+
+        assertFalse(fetchResult.isBroken());
+        assertEquals(206, fetchResult.getStatusCode());
+        verify(httpClient, times(2)).executeRequest(request.capture());
+        assertEquals("GET", request.getAllValues().get(1).method());
+        assertEquals("bytes=0-0", request.getAllValues().get(1).header("Range"));
+    }
+
+    @Test
+    void testCheckLinkBrokenLink() throws IOException {
+        mockResponse(404, "text/html", "");
+
+        FetchResult fetchResult = pageFetcher.checkLink("https://example.com/missing");
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(404, fetchResult.getStatusCode());
+        verify(httpClient, times(2)).executeRequest(any());
+    }
+
+    @Test
+    void testCheckLinkEmptyResource() throws IOException {
+        doAnswer(invocationOnMock -> {
+            Request request = invocationOnMock.getArgument(0);
+            return createResponse(request, request.method().equals("HEAD") ? 405 : 416, "text/plain", "");
+        }).when(httpClient).executeRequest(any());
+
+        assertFalse(pageFetcher.checkLink("https://example.com/empty").isBroken());
+    }
+
+    @Test
+    void testCheckLinkUnreachableHostIsNotRetried() throws IOException {
+        doThrow(new IOException("Connection refused")).when(httpClient).executeRequest(any());
+
+        assertTrue(pageFetcher.checkLink("https://looksRealButIsNot").isBroken());
+        verify(httpClient, times(1)).executeRequest(any());
+    }
+
+    @Test
+    void testCheckLinkMalformedUrl() {
+        assertTrue(pageFetcher.checkLink("Not a real URL").isBroken());
+        verifyNoInteractions(httpClient);
+    }
+
+    private void mockResponse(int statusCode, String contentType, String body) throws IOException {
+        doAnswer(invocationOnMock -> createResponse(invocationOnMock.getArgument(0), statusCode, contentType, body))
+                .when(httpClient).executeRequest(any());
+    }
+
+    private Response createResponse(Request request, int statusCode, String contentType, String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(statusCode)
+                .message("status " + statusCode)
+                .body(ResponseBody.create(MediaType.parse(contentType), body))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package net.jamnigdippold;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesReportRendererTest {
+    private JsonLinesReportRenderer renderer;
+    private StringWriter output;
+
+    @BeforeEach
+    public void setUp() {
+        renderer = new JsonLinesReportRenderer();
+        output = new StringWriter();
+    }
+
+    @Test
+    void testRenderCrawledPage() throws IOException {
+        PageResult page = new PageResult("https://example.com", 0);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setSourceLanguage("en");
+        page.setTargetLanguage("de");
+        page.setHeadlines(List.of(new PageResult.Headline(1, "Line\n\"quoted\"")));
+
+        renderer.renderPage(page, output);
+
+        assertEquals("{\"url\":\"https://example.com\",\"depth\":0,\"status\":\"crawled\",\"sourceLanguage\":\"en\",\"targetLanguage\":\"de\"," +
+                "\"headlines\":[{\"level\":1,\"text\":\"Line\\n\\\"quoted\\\"\"}]}\n", output.toString());
+    }
+
+    @Test
+    void testRenderParentUrl() throws IOException {
+        PageResult page = new PageResult("https://example.com/contact", 1);
+        page.setParentUrl("https://example.com");
+        page.setStatus(PageResult.Status.LINKED);
+
+        renderer.renderPage(page, output);
+
+        assertEquals("{\"url\":\"https://example.com/contact\",\"depth\":1,\"parent\":\"https://example.com\",\"status\":\"linked\"}\n", output.toString());
+    }
+
+    @Test
+    void testOnePageOrErrorPerLine() throws IOException {
+        PageResult brokenLink = new PageResult("https://example.com/missing", 1);
+        brokenLink.setStatus(PageResult.Status.BROKEN);
+
+        renderer.renderPage(brokenLink, output);
+        renderer.renderPage(new PageResult("https://example.com", 2), output);
+        renderer.renderErrors(List.of(new ErrorRecord(1234, ErrorRecord.Phase.FETCH, "https://example.com/missing", "java.io.IOException", "Error whilst connecting")),
+                new ErrorSummary(1, 0, Map.of("java.io.IOException", 1L), Map.of("example.com", 1L)), output);
+
+        String[] lines = output.toString().split("\n");
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(4, lines.length);
+        assertEquals("broken", objectMapper.readTree(lines[0]).get("status").asText());
+        JsonNode linkedPage = objectMapper.readTree(lines[1]);
+        assertEquals(2, linkedPage.get("depth").asInt());
+        assertFalse(linkedPage.has("headlines"));
+        assertFalse(linkedPage.has("parent"));
+        assertEquals("{\"error\":\"Error whilst connecting\",\"phase\":\"fetch\",\"url\":\"https://example.com/missing\",\"exception\":\"java.io.IOException\",\"timestamp\":1234}", lines[2]);
+        assertEquals("{\"errorSummary\":{\"total\":1,\"dropped\":0,\"byType\":{\"java.io.IOException\":1},\"byHost\":{\"example.com\":1}}}", lines[3]);
+    }
+}
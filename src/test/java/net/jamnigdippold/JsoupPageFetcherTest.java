@@ -0,0 +1,107 @@
+package net.jamnigdippold;
+
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JsoupPageFetcherTest {
+    private JsoupPageFetcher pageFetcher;
+    private Connection mockedConnection;
+    private MockedStatic<Jsoup> mockedJsoup;
+
+    @BeforeEach
+    public void setUp() {
+        pageFetcher = new JsoupPageFetcher();
+        mockedConnection = mock(Connection.class, RETURNS_SELF);
+        mockedJsoup = mockStatic(Jsoup.class);
+        mockedJsoup.when(() -> Jsoup.connect(any())).thenReturn(mockedConnection);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mockedJsoup.close();
+    }
+
+    @Test
+    void testFetchSuccess() throws IOException {
+        Document document = new Document("https://example.com");
+        Connection.Response response = mock(Connection.Response.class);
+        doReturn(200).when(response).statusCode();
+        doReturn(document).when(response).parse();
+        doReturn(response).when(mockedConnection).execute();
+
+        FetchResult fetchResult = pageFetcher.fetch("https://example.com");
+
+        assertFalse(fetchResult.isBroken());
+        assertEquals(200, fetchResult.getStatusCode());
+        assertEquals(document, fetchResult.getDocument());
+    }
+
+    @Test
+    void testFetchHttpError() throws IOException {
+        doThrow(new HttpStatusException("HTTP error fetching URL", 404, "https://example.com/missing")).when(mockedConnection).execute();
+
+        FetchResult fetchResult = pageFetcher.fetch("https://example.com/missing");
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(404, fetchResult.getStatusCode());
+        assertNull(fetchResult.getDocument());
+    }
+
+    @Test
+    void testFetchMalformedUrl() throws IOException {
+        doThrow(new MalformedURLException()).when(mockedConnection).execute();
+
+        FetchResult fetchResult = pageFetcher.fetch("Not a real URL");
+
+        assertTrue(fetchResult.isBroken());
+        assertEquals(FetchResult.NO_STATUS_CODE, fetchResult.getStatusCode());
+    }
+
+    @Test
+    void testCheckLinkUsesHead() throws IOException {
+        Connection.Response response = mock(Connection.Response.class);
+        doReturn(200).when(response).statusCode();
+        doReturn(response).when(mockedConnection).execute();
+
+        FetchResult fetchResult = pageFetcher.checkLink("https://example.com");
+
+        assertFalse(fetchResult.isBroken());
+        verify(mockedConnection).method(Connection.Method.HEAD);
+        verify(mockedConnection, never()).method(Connection.Method.GET);
+        verify(response, never()).parse();
+    }
+
+    @Test
+    void testCheckLinkFallsBackToRangedGet() throws IOException {
+        Connection.Response response = mock(Connection.Response.class);
+        doReturn(206).when(response).statusCode();
+        doThrow(new HttpStatusException("HTTP error fetching URL", 405, "https://example.com")).doReturn(response).when(mockedConnection).execute();
+
+        FetchResult fetchResult = pageFetcher.checkLink("https://example.com");
+
+        assertFalse(fetchResult.isBroken());
+        assertEquals(206, fetchResult.getStatusCode());
+        verify(mockedConnection).method(Connection.Method.GET);
+        verify(mockedConnection).header("Range", "bytes=0-0");
+    }
+
+    @Test
+    void testCheckLinkUnreachableHostIsNotRetried() throws IOException {
+        doThrow(new IOException()).when(mockedConnection).execute();
+
+        assertTrue(pageFetcher.checkLink("https://looksRealButIsNot").isBroken());
+        verify(mockedConnection, times(1)).execute();
+    }
+}
@@ -0,0 +1,90 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class LanguageCacheTest {
+    private LanguageCache languageCache;
+
+    @BeforeEach
+    public void setUp() {
+        languageCache = new LanguageCache();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLanguageIsDetectedOncePerHost() {
+        Supplier<String> languageDetection = mock(Supplier.class);
+        doReturn("en").when(languageDetection).get();
+
+        assertEquals("en", languageCache.getLanguage("example.com", languageDetection));
+        assertEquals("en", languageCache.getLanguage("example.com", languageDetection));
+
+        verify(languageDetection, times(1)).get();
+        assertEquals(1, languageCache.size());
+    }
+
+    @Test
+    void testHostsAreCachedSeparately() {
+        languageCache.getLanguage("example.com", () -> "en");
+
+        assertEquals("de", languageCache.getLanguage("example.at", () -> "de"));
+        assertEquals(2, languageCache.size());
+    }
+
+    @Test
+    void testUnknownLanguageIsNotCached() {
+        assertEquals("auto", languageCache.getLanguage("example.com", () -> "auto"));
+
+        assertEquals("en", languageCache.getLanguage("example.com", () -> "en"));
+    }
+
+    @Test
+    void testConcurrentLookupsDetectOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch detectionStarted = new CountDownLatch(1);
+        CountDownLatch detectionReleased = new CountDownLatch(1);
+        AtomicInteger detections = new AtomicInteger();
+        Supplier<String> slowDetection = () -> {
+            detections.incrementAndGet();
+            detectionStarted.countDown();
+            try {
+                detectionReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "en";
+        };
+
+        Future<String> firstLookup = executor.submit(() -> languageCache.getLanguage("example.com", slowDetection));
+        detectionStarted.await(5, TimeUnit.SECONDS);
+        Future<String> secondLookup = executor.submit(() -> languageCache.getLanguage("example.com", slowDetection));
+        detectionReleased.countDown();
+
+        assertEquals("en", firstLookup.get(5, TimeUnit.SECONDS));
+        assertEquals("en", secondLookup.get(5, TimeUnit.SECONDS));
+        assertEquals(1, detections.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testFailedDetectionIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> languageCache.getLanguage("example.com", () -> {
+            throw new IllegalStateException("Detection failed");
+        }));
+
+        assertEquals("en", languageCache.getLanguage("example.com", () -> "en"));
+    }
+}
@@ -0,0 +1,74 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogLinearHistogramTest {
+    private final LogLinearHistogram histogram = new LogLinearHistogram();
+
+    @Test
+    void testSmallValuesHaveExactBuckets() {
+        for (int value = 0; value < LogLinearHistogram.SUB_BUCKET_COUNT; value++) {
+            assertEquals(value, LogLinearHistogram.getBucketIndex(value));
+            assertEquals(value, LogLinearHistogram.getBucketUpperBound(value));
+        }
+    }
+
+    @Test
+    void testBucketsAreContiguousAndAtMostOneEighthWide() {
+        long previousUpperBound = LogLinearHistogram.SUB_BUCKET_COUNT - 1;
+        for (int bucket = LogLinearHistogram.SUB_BUCKET_COUNT; bucket < LogLinearHistogram.BUCKET_COUNT; bucket++) {
+            long lowerBound = previousUpperBound + 1;
+            long upperBound = LogLinearHistogram.getBucketUpperBound(bucket);
+            assertEquals(bucket, LogLinearHistogram.getBucketIndex(lowerBound));
+            assertEquals(bucket, LogLinearHistogram.getBucketIndex(upperBound));
+            assertTrue(upperBound - lowerBound <= lowerBound / LogLinearHistogram.SUB_BUCKET_COUNT);
+            previousUpperBound = upperBound;
+        }
+        assertEquals(Long.MAX_VALUE, previousUpperBound);
+    }
+
+    @Test
+    void testLargestValueIsRecorded() {
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, histogram.getSnapshot().getMax());
+    }
+
+    @Test
+    void testSnapshot() {
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500, snapshot.getSum());
+        assertEquals(500.5, snapshot.getMean());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500, snapshot.getP50(), 500 / 8.0);
+        assertEquals(900, snapshot.getP90(), 900 / 8.0);
+        assertEquals(990, snapshot.getP99(), 990 / 8.0);
+        assertTrue(snapshot.getP99() <= snapshot.getMax());
+    }
+
+    @Test
+    void testNegativeValuesAreRecordedAsZero() {
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getSnapshot().getMax());
+        assertEquals(1, histogram.getSnapshot().getCount());
+    }
+
+    @Test
+    void testEmptySnapshot() {
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.getP99());
+    }
+}
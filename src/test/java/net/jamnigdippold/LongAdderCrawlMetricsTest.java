@@ -0,0 +1,89 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongAdderCrawlMetricsTest {
+    private final LongAdderCrawlMetrics metrics = new LongAdderCrawlMetrics();
+
+    @Test
+    void testCounters() {
+        metrics.incrementCounter("crawler.fetch.status.200");
+        metrics.addToCounter("crawler.fetch.status.200", 2);
+
+        assertEquals(3, metrics.getSnapshot().getCounter("crawler.fetch.status.200"));
+        assertEquals(0, metrics.getSnapshot().getCounter("crawler.fetch.status.404"));
+    }
+
+    @Test
+    void testGaugeKeepsPeak() {
+        metrics.addToGauge("crawler.active", 1);
+        metrics.addToGauge("crawler.active", 1);
+        metrics.addToGauge("crawler.active", -1);
+
+        MetricsSnapshot snapshot = metrics.getSnapshot();
+        assertEquals(1, snapshot.getGauge("crawler.active"));
+        assertEquals(2, snapshot.getGaugePeak("crawler.active"));
+    }
+
+    @Test
+    void testTimersAndHistogramsAreSeparate() {
+        metrics.recordTime("crawler.fetch.time", 2_000_000);
+        metrics.recordValue("crawler.fetch.bytes", 4096);
+
+        MetricsSnapshot snapshot = metrics.getSnapshot();
+        assertEquals(1, snapshot.getTimer("crawler.fetch.time").getCount());
+        assertNull(snapshot.getHistogram("crawler.fetch.time"));
+        assertEquals(4096, snapshot.getHistogram("crawler.fetch.bytes").getSum());
+    }
+
+    @Test
+    void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.incrementCounter("crawler.launched");
+                    metrics.recordTime("crawler.fetch.time", i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(80_000, metrics.getSnapshot().getCounter("crawler.launched"));
+        assertEquals(80_000, metrics.getSnapshot().getTimer("crawler.fetch.time").getCount());
+    }
+
+    @Test
+    void testFormatSnapshot() {
+        metrics.incrementCounter("crawler.launched");
+        metrics.addToGauge("crawler.active", 2);
+        metrics.recordTime("crawler.fetch.time", 1_500_000);
+        metrics.recordValue("crawler.fetch.bytes", 100);
+
+        String output = metrics.getSnapshot().format();
+
+        assertTrue(output.startsWith("metrics after "));
+        assertTrue(output.contains("  crawler.launched = 1\n"));
+        assertTrue(output.contains("  crawler.active = 2 (peak 2)\n"));
+        assertTrue(output.contains("  crawler.fetch.time: count 1, mean 1.50 ms,"));
+        assertTrue(output.contains("  crawler.fetch.bytes: count 1, sum 100, mean 100.0,"));
+    }
+
+    @Test
+    void testNoOpMetricsRecordNothing() {
+        CrawlMetrics noOpMetrics = new NoOpCrawlMetrics();
+
+        noOpMetrics.incrementCounter("crawler.launched");
+        noOpMetrics.recordTime("crawler.fetch.time", 1);
+
+        assertEquals(0, noOpMetrics.getSnapshot().getCounter("crawler.launched"));
+        assertTrue(noOpMetrics.getSnapshot().getTimers().isEmpty());
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.*;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileFilter;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -46,6 +47,7 @@ class MainTest {
         System.setOut(defaultOut);
         System.setErr(defaultErr);
         System.setSecurityManager(null);
+        System.clearProperty("crawler.output.format");
     }
 
     private void resetMainField() {
@@ -176,6 +178,17 @@ class MainTest {
         assertEquals(expectedFilterDescription, filter.getDescription());
     }
 
+    @Test
+    void testFileChooserFilterOfReportFormat() {
+        System.setProperty("crawler.output.format", "jsonl");
+
+        Main.createFileChooser();
+        FileNameExtensionFilter filter = (FileNameExtensionFilter) Main.fileChooser.getFileFilter();
+
+        assertEquals("JSON Lines File (.jsonl)", filter.getDescription());
+        assertArrayEquals(new String[]{"jsonl"}, filter.getExtensions());
+    }
+
     @Test
     void testRunFileChooser() {
         mockJFileChooser(0, "Test.md");
@@ -251,6 +264,16 @@ class MainTest {
 
     }
 
+    @Test
+    void testAddFileExtensionOfReportFormat() {
+        System.setProperty("crawler.output.format", "csv");
+        Main.outputPath = "E:\\RealFolder\\output.md";
+
+        Main.addFileExtension();
+
+        assertEquals("E:\\RealFolder\\output.md.csv", Main.outputPath);
+    }
+
     @Test
     void testUnnecessaryAddFileExtension() {
         Main.outputPath = "E:\\RealFolder\\output.md";
@@ -0,0 +1,104 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MarkdownReportRendererTest {
+    private MarkdownReportRenderer renderer;
+    private StringWriter output;
+
+    @BeforeEach
+    public void setUp() {
+        renderer = new MarkdownReportRenderer();
+        output = new StringWriter();
+    }
+
+    @Test
+    void testRenderInputPage() throws IOException {
+        PageResult page = new PageResult("https://example.com", 0);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setMaxDepth(2);
+        page.setSourceLanguage("en");
+        page.setTargetLanguage("de");
+        page.setHeadlines(List.of(new PageResult.Headline(1, "Überschrift h1"), new PageResult.Headline(2, "Kontakt")));
+
+        renderer.renderPage(page, output);
+
+        assertEquals("input: <a>https://example.com</a>\n<br>depth: 2\n<br>source language: en\n<br>Target language: de\n<br>summary:\n" +
+                "# Überschrift h1\n## Kontakt\n\n", output.toString());
+    }
+
+    @Test
+    void testRenderLinkedPage() throws IOException {
+        PageResult page = new PageResult("https://example.com/about", 2);
+        page.setStatus(PageResult.Status.CRAWLED);
+        page.setHeadlines(List.of(new PageResult.Headline(3, "Team")));
+
+        renderer.renderPage(page, output);
+
+        assertEquals("<br>----> link to <a>https://example.com/about</a>\n\n### ----> Team\n\n", output.toString());
+    }
+
+    @Test
+    void testRenderLinks() throws IOException {
+        PageResult brokenLink = new PageResult("https://example.com/missing", 1);
+        brokenLink.setStatus(PageResult.Status.BROKEN);
+        PageResult disallowedLink = new PageResult("https://example.com/private", 3);
+        disallowedLink.setStatus(PageResult.Status.DISALLOWED);
+
+        renderer.renderPage(brokenLink, output);
+        renderer.renderPage(disallowedLink, output);
+        renderer.renderPage(new PageResult("https://example.com", 1), output);
+
+        assertEquals("<br>--> broken link <a>https://example.com/missing</a>\n\n" +
+                "<br>------> disallowed link <a>https://example.com/private</a>\n\n" +
+                "<br>--> link to <a>https://example.com</a>\n\n", output.toString());
+    }
+
+    @Test
+    void testRenderHeaderLevel() throws IOException {
+        renderer.renderHeaderLevel(1, output);
+
+        assertEquals("# ", output.toString());
+    }
+
+    @Test
+    void testRenderZeroDepth() throws IOException {
+        renderer.renderDepthIndicator(0, output);
+
+        assertEquals("> ", output.toString());
+    }
+
+    @Test
+    void testRenderHigherDepth() throws IOException {
+        renderer.renderDepthIndicator(3, output);
+
+        assertEquals("------> ", output.toString());
+    }
+
+    @Test
+    void testRenderErrors() throws IOException {
+        renderer.renderErrors(List.of(new ErrorRecord(0, ErrorRecord.Phase.FETCH, null, null, "Error whilst connecting")), new ErrorSummary(1, 0, Map.of(), Map.of()), output);
+
+        assertEquals("# <br> ------- ERRORS ------- <br>\n- Error whilst connecting<br>\n", output.toString());
+    }
+
+    @Test
+    void testRenderSummaryOfDroppedErrors() throws IOException {
+        ErrorSummary summary = new ErrorSummary(5, 4, Map.of("java.io.IOException", 5L), Map.of("example.com", 3L));
+
+        renderer.renderErrors(List.of(new ErrorRecord(0, ErrorRecord.Phase.FETCH, null, null, "Error whilst connecting")), summary, output);
+
+        assertEquals("# <br> ------- ERRORS ------- <br>\n- Error whilst connecting<br>\n" +
+                "- 4 older errors were dropped, 5 errors in total<br>\n" +
+                "- errors by type: java.io.IOException: 5<br>\n" +
+                "- errors by host: example.com: 3<br>\n", output.toString());
+    }
+}
@@ -0,0 +1,39 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsReporterTest {
+    private final LongAdderCrawlMetrics metrics = new LongAdderCrawlMetrics();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void testReportsPeriodically() throws InterruptedException {
+        MetricsReporter reporter = new MetricsReporter(metrics, new PrintStream(output, true, StandardCharsets.UTF_8), 10);
+        metrics.incrementCounter("crawler.launched");
+
+        reporter.start();
+        Thread.sleep(100);
+        reporter.stop();
+
+        String report = output.toString(StandardCharsets.UTF_8);
+        assertTrue(report.split("metrics after ").length > 2);
+        assertTrue(report.contains("  crawler.launched = 1\n"));
+    }
+
+    @Test
+    void testStopReportsFinalSnapshot() {
+        MetricsReporter reporter = new MetricsReporter(metrics, new PrintStream(output, true, StandardCharsets.UTF_8), 60_000);
+        reporter.start();
+        metrics.incrementCounter("crawler.skipped.visited");
+
+        reporter.stop();
+
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("  crawler.skipped.visited = 1\n"));
+    }
+}
@@ -1,13 +1,17 @@
 package net.jamnigdippold;
 
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.*;
@@ -31,4 +35,65 @@ public class OkHttpWrapperTest {
         verify(call).execute();
         Assertions.assertEquals(response, actualResponse);
     }
+
+    @Test
+    void testExecuteRequestAsync() {
+        OkHttpWrapper wrapper = spy(OkHttpWrapper.class);
+        OkHttpClient client = mock(OkHttpClient.class);
+        Call call = mock(Call.class);
+        Request request = mock(Request.class);
+        Response response = mock(Response.class);
+
+        doReturn(call).when(client).newCall(request);
+        doAnswer(invocationOnMock -> {
+            ((Callback) invocationOnMock.getArgument(0)).onResponse(call, response);
+            return null;
+        }).when(call).enqueue(any());
+        wrapper.setClient(client);
+
+        Assertions.assertEquals(response, wrapper.executeRequestAsync(request).join());
+    }
+
+    @Test
+    void testExecuteRequestAsyncFailure() {
+        OkHttpWrapper wrapper = spy(OkHttpWrapper.class);
+        OkHttpClient client = mock(OkHttpClient.class);
+        Call call = mock(Call.class);
+        Request request = mock(Request.class);
+        IOException failure = new IOException("Connection reset");
+
+        doReturn(call).when(client).newCall(request);
+        doAnswer(invocationOnMock -> {
+            ((Callback) invocationOnMock.getArgument(0)).onFailure(call, failure);
+            return null;
+        }).when(call).enqueue(any());
+        wrapper.setClient(client);
+
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> wrapper.executeRequestAsync(request).join());
+        Assertions.assertEquals(failure, exception.getCause());
+    }
+
+    @Test
+    void testCreateClientFromConfiguration() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setHttpMaxRequestsPerHost(20);
+        configuration.setHttpConnectTimeoutSeconds(3);
+        configuration.setHttpReadTimeoutSeconds(15);
+
+        OkHttpClient client = OkHttpWrapper.createClient(configuration);
+
+        Assertions.assertEquals(20, client.dispatcher().getMaxRequestsPerHost());
+        Assertions.assertEquals(3000, client.connectTimeoutMillis());
+        Assertions.assertEquals(15000, client.readTimeoutMillis());
+        Assertions.assertEquals(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1), client.protocols());
+    }
+
+    @Test
+    void testClose() {
+        OkHttpWrapper wrapper = new OkHttpWrapper(OkHttpWrapper.createClient(new CrawlerConfiguration()));
+
+        wrapper.close();
+
+        Assertions.assertTrue(wrapper.getClient().dispatcher().executorService().isShutdown());
+    }
 }
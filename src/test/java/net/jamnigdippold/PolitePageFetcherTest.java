@@ -0,0 +1,60 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PolitePageFetcherTest {
+    private PolitePageFetcher politePageFetcher;
+    private PageFetcher pageFetcher;
+    private HostPolitenessScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        pageFetcher = mock(PageFetcher.class);
+        scheduler = spy(new HostPolitenessScheduler(1, 10_000));
+        politePageFetcher = new PolitePageFetcher(pageFetcher, scheduler);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void testFetchIsScheduled() throws InterruptedException {
+        FetchResult fetchResult = FetchResult.success("https://example.com", 200, null);
+        doReturn(fetchResult).when(pageFetcher).fetch("https://example.com");
+
+        assertSame(fetchResult, politePageFetcher.fetch("https://example.com"));
+        verify(scheduler).schedule(eq("https://example.com"), any());
+    }
+
+    @Test
+    void testCheckLinkIsScheduled() throws InterruptedException {
+        FetchResult fetchResult = FetchResult.success("https://example.com", 200, null);
+        doReturn(fetchResult).when(pageFetcher).checkLink("https://example.com");
+
+        assertSame(fetchResult, politePageFetcher.checkLink("https://example.com"));
+        verify(scheduler).schedule(eq("https://example.com"), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInterruptedWhileWaitingForHost() throws InterruptedException {
+        doThrow(new InterruptedException()).when(scheduler).schedule(any(), any(Supplier.class));
+
+        FetchResult fetchResult = politePageFetcher.fetch("https://example.com");
+
+        assertTrue(fetchResult.isBroken());
+        assertTrue(Thread.currentThread().isInterrupted());
+        verifyNoInteractions(pageFetcher);
+    }
+}
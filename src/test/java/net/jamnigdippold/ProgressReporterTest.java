@@ -0,0 +1,92 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressReporterTest {
+    private final Logger logger = ErrorLogger.getInstance();
+    private final LongAdderCrawlMetrics metrics = new LongAdderCrawlMetrics();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final ProgressReporter reporter = new ProgressReporter(metrics, logger, new PrintStream(output, true, StandardCharsets.UTF_8), 60_000);
+
+    @AfterEach
+    void tearDown() {
+        logger.clearLog();
+    }
+
+    @Test
+    void testReportContainsFrontierAndThroughput() {
+        long start = System.nanoTime();
+        metrics.addToCounter("crawler.pages.fetched", 20);
+        metrics.addToCounter("crawler.finished", 30);
+        metrics.addToCounter("translation.cache.hits", 10);
+        metrics.recordTime("translation.api.time", 1_000_000);
+        metrics.recordTime("translation.api.time", 2_000_000);
+        metrics.addToGauge("crawler.queued", 3);
+        metrics.addToGauge(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 2, 1);
+        metrics.addToGauge(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 10, 2);
+        metrics.addToGauge("crawler.active", 1);
+        logger.logError("Error whilst connecting");
+
+        String report = reporter.report(start + TimeUnit.SECONDS.toNanos(10));
+
+        assertTrue(report.contains("20 pages fetched (2.0/s)"), report);
+        assertTrue(report.contains("3 queued (depth 2: 1, depth 10: 2), 1 active"), report);
+        assertTrue(report.contains("30 crawlers finished (3.0/s)"), report);
+        assertTrue(report.contains("2 translation requests (0.2/s)"), report);
+        assertTrue(report.contains("1 errors"), report);
+        assertTrue(report.endsWith("ETA 00:00:01"), report);
+    }
+
+    @Test
+    void testRatesCoverOnlyTheLastInterval() {
+        long start = System.nanoTime();
+        metrics.addToCounter("crawler.pages.fetched", 100);
+        metrics.addToCounter("crawler.finished", 100);
+        reporter.report(start + TimeUnit.SECONDS.toNanos(10));
+        metrics.addToCounter("crawler.pages.fetched", 5);
+        metrics.addToCounter("crawler.finished", 5);
+        metrics.addToGauge("crawler.queued", 1);
+
+        String report = reporter.report(start + TimeUnit.SECONDS.toNanos(20));
+
+        assertTrue(report.startsWith("[00:00:20] 105 pages fetched (0.5/s)"), report);
+        assertTrue(report.endsWith("ETA 00:00:02"), report);
+    }
+
+    @Test
+    void testEtaUnknownWithoutProgress() {
+        assertEquals("unknown", ProgressReporter.formatEta(5, 0));
+        assertEquals("00:00:00", ProgressReporter.formatEta(0, 0));
+        assertEquals("01:01:40", ProgressReporter.formatEta(3700, 1));
+    }
+
+    @Test
+    void testQueuedPerDepthSkipsEmptyDepthsAndOtherGauges() {
+        assertEquals(" (depth 1: 4)", ProgressReporter.formatQueuedPerDepth(Map.of(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 0, 0L,
+                CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 1, 4L, "crawler.active", 2L)));
+        assertEquals("", ProgressReporter.formatQueuedPerDepth(Map.of()));
+    }
+
+    @Test
+    void testReportsPeriodicallyAndOnStop() throws InterruptedException {
+        ProgressReporter periodicReporter = new ProgressReporter(metrics, logger, new PrintStream(output, true, StandardCharsets.UTF_8), 10);
+        metrics.incrementCounter("crawler.pages.fetched");
+
+        periodicReporter.start();
+        Thread.sleep(100);
+        periodicReporter.stop();
+
+        String progress = output.toString(StandardCharsets.UTF_8);
+        assertTrue(progress.split("1 pages fetched").length > 2);
+        assertTrue(progress.contains("finished: ["));
+    }
+}
@@ -0,0 +1,105 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportSectionTest {
+    private StringWriter report;
+    private ReportSection rootSection;
+    private final ReportRenderer urlRenderer = new ReportRenderer() {
+        @Override
+        public void renderPage(PageResult page, Writer output) throws IOException {
+            output.append(page.getUrl()).append(' ');
+        }
+
+        @Override
+        public void renderErrors(List<ErrorRecord> errors, ErrorSummary summary, Writer output) {
+        }
+    };
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        report = new StringWriter();
+        rootSection = new ReportWriter(report, urlRenderer).getRootSection();
+    }
+
+    @Test
+    void testSectionIsWrittenOnceContentIsFinished() {
+        ReportSection section = rootSection.addChild();
+        section.setPage(new PageResult("input", 0));
+
+        assertEquals("", report.toString());
+        section.finishContent();
+
+        assertEquals("input ", report.toString());
+    }
+
+    @Test
+    void testLaterSectionWaitsForEarlierSections() {
+        ReportSection first = rootSection.addChild();
+        ReportSection second = rootSection.addChild();
+        second.setPage(new PageResult("second", 1));
+        second.close();
+
+        assertEquals("", report.toString());
+        first.setPage(new PageResult("first", 1));
+        first.close();
+
+        assertEquals("first second ", report.toString());
+    }
+
+    @Test
+    void testChildrenAreWrittenAfterParentContent() {
+        ReportSection parent = rootSection.addChild();
+        ReportSection child = parent.addChild();
+        ReportSection sibling = rootSection.addChild();
+        parent.setPage(new PageResult("parent", 0));
+        child.setPage(new PageResult("child", 1));
+        sibling.setPage(new PageResult("sibling", 0));
+        child.close();
+        sibling.close();
+        parent.finishContent();
+
+        assertEquals("parent child ", report.toString());
+        parent.close();
+
+        assertEquals("parent child sibling ", report.toString());
+    }
+
+    @Test
+    void testWrittenContentIsReleased() {
+        ReportSection section = rootSection.addChild();
+        ReportSection pending = rootSection.addChild();
+        section.setPage(new PageResult("written", 1));
+        section.close();
+        pending.setPage(new PageResult("pending", 1));
+
+        assertEquals("pending ", rootSection.render(urlRenderer));
+    }
+
+    @Test
+    void testRenderWithoutWriter() {
+        ReportSection section = new ReportSection();
+        section.setPage(new PageResult("parent", 0));
+        section.addChild().setPage(new PageResult("child", 1));
+        section.close();
+
+        assertEquals("parent child ", section.render(urlRenderer));
+    }
+
+    @Test
+    void testFinishedSectionCannotBeChanged() {
+        ReportSection section = rootSection.addChild();
+        section.close();
+
+        assertThrows(IllegalStateException.class, () -> section.setPage(new PageResult("late", 1)));
+        assertThrows(IllegalStateException.class, section::addChild);
+    }
+}
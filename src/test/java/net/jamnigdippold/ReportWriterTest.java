@@ -0,0 +1,134 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReportWriterTest {
+    private Path outputDirectory;
+    private Path outputPath;
+    private final Logger logger = ErrorLogger.getInstance();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("report");
+        outputPath = outputDirectory.resolve("report.md");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        logger.clearLog();
+        TranslationCacheFileTest.deleteRecursively(outputDirectory);
+    }
+
+    @Test
+    void testSectionsAreWrittenToFile() throws IOException {
+        Files.writeString(outputPath, "previous report that is much longer");
+        ReportWriter reportWriter = new ReportWriter(outputPath, new MarkdownReportRenderer());
+        addLink(reportWriter, "https://example.com/über");
+
+        reportWriter.close();
+
+        assertEquals("<br>--> link to <a>https://example.com/über</a>\n\n", Files.readString(outputPath, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLargeReportIsWrittenWhileSectionsFinish() throws IOException {
+        ReportWriter reportWriter = new ReportWriter(outputPath, new MarkdownReportRenderer());
+        String line = "<br>--> link to <a>https://example.com</a>\n\n";
+        int sectionCount = ReportWriter.BUFFER_SIZE / line.length() + 10;
+        for (int i = 0; i < sectionCount; i++) {
+            addLink(reportWriter, "https://example.com");
+        }
+
+        long sizeBeforeClose = Files.size(outputPath);
+        reportWriter.close();
+
+        assertEquals((long) line.length() * sectionCount, Files.size(outputPath));
+        assertTrue(sizeBeforeClose > 0);
+    }
+
+    @Test
+    void testHeaderAndErrorsFrameTheReport() throws IOException {
+        ReportWriter reportWriter = new ReportWriter(outputPath, new CsvReportRenderer());
+        ReportSection pendingSection = reportWriter.getRootSection().addChild();
+        pendingSection.setPage(new PageResult("https://example.com", 1));
+        pendingSection.close();
+
+        reportWriter.writeErrors(List.of(new ErrorRecord(0, ErrorRecord.Phase.GENERAL, null, null, "Error whilst connecting")), new ErrorSummary(1, 0, Map.of(), Map.of()));
+        reportWriter.close();
+
+        assertEquals(CsvReportRenderer.HEADER + "https://example.com,1,linked,,,\r\n,,error,,,Error whilst connecting\r\n",
+                Files.readString(outputPath, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testPagesAreAlsoWrittenToBinaryReport() throws IOException {
+        Path binaryPath = outputDirectory.resolve("report.bin");
+        ReportWriter reportWriter = new ReportWriter(outputPath, new MarkdownReportRenderer());
+        reportWriter.setBinaryReportWriter(new BinaryReportWriter(binaryPath));
+        addLink(reportWriter, "https://example.com");
+
+        reportWriter.close();
+
+        assertEquals("<br>--> link to <a>https://example.com</a>\n\n", Files.readString(outputPath, StandardCharsets.UTF_8));
+        try (BinaryReportReader reader = new BinaryReportReader(binaryPath)) {
+            assertEquals("https://example.com", reader.getPage(0).getUrl());
+        }
+    }
+
+    @Test
+    void testBinaryWriteErrorKeepsTextReport() throws IOException {
+        BinaryReportWriter binaryReportWriter = mock(BinaryReportWriter.class);
+        doThrow(new IOException("Disk full")).when(binaryReportWriter).write(any());
+        ReportWriter reportWriter = new ReportWriter(outputPath, new MarkdownReportRenderer());
+        reportWriter.setBinaryReportWriter(binaryReportWriter);
+
+        addLink(reportWriter, "https://example.com");
+        addLink(reportWriter, "https://example.com/about");
+        reportWriter.close();
+
+        assertEquals("Error whilst writing binary report: java.io.IOException: Disk full", logger.getErrorLog().get(0));
+        assertEquals(1, logger.getErrorLog().size());
+        verify(binaryReportWriter).close();
+        assertTrue(Files.readString(outputPath, StandardCharsets.UTF_8).endsWith("<a>https://example.com/about</a>\n\n"));
+    }
+
+    @Test
+    void testCreateRenderer() {
+        assertTrue(ReportWriter.createRenderer(ReportWriter.Format.MARKDOWN) instanceof MarkdownReportRenderer);
+        assertTrue(ReportWriter.createRenderer(ReportWriter.Format.JSONL) instanceof JsonLinesReportRenderer);
+        assertTrue(ReportWriter.createRenderer(ReportWriter.Format.CSV) instanceof CsvReportRenderer);
+    }
+
+    @Test
+    void testWriteErrorIsLoggedOnce() throws IOException {
+        Writer writer = mock(Writer.class);
+        doThrow(new IOException("Disk full")).when(writer).append(any());
+        ReportWriter reportWriter = new ReportWriter(writer, new MarkdownReportRenderer());
+
+        addLink(reportWriter, "https://example.com");
+        addLink(reportWriter, "https://example.com");
+        reportWriter.writeErrors(List.of(), new ErrorSummary(0, 0, Map.of(), Map.of()));
+
+        assertEquals(1, logger.getErrorLog().size());
+        assertEquals("Error whilst writing report: java.io.IOException: Disk full", logger.getErrorLog().get(0));
+    }
+
+    private static void addLink(ReportWriter reportWriter, String url) {
+        ReportSection section = reportWriter.getRootSection().addChild();
+        section.setPage(new PageResult(url, 1));
+        section.close();
+    }
+}
@@ -0,0 +1,53 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobotsRulesTest {
+    @Test
+    void testWithoutRulesEverythingIsAllowed() {
+        assertTrue(RobotsRules.ALLOW_ALL.isAllowed("/private"));
+        assertFalse(RobotsRules.DISALLOW_ALL.isAllowed("/"));
+    }
+
+    @Test
+    void testLongestMatchWins() {
+        RobotsRules rules = RobotsRules.of(List.of("/private/public"), List.of("/private"), 0);
+
+        assertFalse(rules.isAllowed("/private/secret.html"));
+        assertTrue(rules.isAllowed("/private/public/index.html"));
+        assertTrue(rules.isAllowed("/about"));
+    }
+
+    @Test
+    void testAllowWinsOnEqualLength() {
+        RobotsRules rules = RobotsRules.of(List.of("/page"), List.of("/page"), 0);
+
+        assertTrue(rules.isAllowed("/page"));
+    }
+
+    @Test
+    void testWildcards() {
+        assertTrue(RobotsRules.matches("/*.pdf", "/docs/report.pdf"));
+        assertTrue(RobotsRules.matches("/*.pdf", "/docs/report.pdf?download=1"));
+        assertFalse(RobotsRules.matches("/*.pdf$", "/docs/report.pdf?download=1"));
+        assertTrue(RobotsRules.matches("/*.pdf$", "/docs/report.pdf"));
+        assertTrue(RobotsRules.matches("/search*", "/search"));
+        assertTrue(RobotsRules.matches("/*/edit", "/articles/42/edit/history"));
+        assertFalse(RobotsRules.matches("/*/edit", "/articles/42"));
+        assertFalse(RobotsRules.matches("/private", "/priv"));
+        assertTrue(RobotsRules.matches("/", "/"));
+        assertFalse(RobotsRules.matches("/$", "/index.html"));
+    }
+
+    @Test
+    void testRulesAreStoredCompactly() {
+        RobotsRules rules = RobotsRules.of(List.of("/a"), List.of("/b", "/c"), 1500);
+
+        assertEquals(3, rules.getRuleCount());
+        assertEquals(1500, rules.getCrawlDelayMillis());
+    }
+}
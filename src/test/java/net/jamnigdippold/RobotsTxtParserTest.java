@@ -0,0 +1,87 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobotsTxtParserTest {
+    private static final String TOKEN = RobotsTxtPolicy.USER_AGENT_TOKEN;
+
+    @Test
+    void testWildcardGroup() {
+        RobotsRules rules = RobotsTxtParser.parse("User-agent: *\nDisallow: /private # internal\nCrawl-delay: 2.5\n", TOKEN);
+
+        assertFalse(rules.isAllowed("/private/data"));
+        assertTrue(rules.isAllowed("/public"));
+        assertEquals(2500, rules.getCrawlDelayMillis());
+    }
+
+    @Test
+    void testSpecificGroupReplacesWildcardGroup() {
+        String robotsTxt = "User-agent: *\r\nDisallow: /\r\n\r\nUser-agent: Cleancode-Webcrawler\r\nDisallow: /admin\r\n";
+
+        RobotsRules rules = RobotsTxtParser.parse(robotsTxt, TOKEN);
+
+        assertTrue(rules.isAllowed("/articles"));
+        assertFalse(rules.isAllowed("/admin"));
+    }
+
+    @Test
+    void testGroupWithSeveralUserAgents() {
+        String robotsTxt = "User-agent: googlebot\nUser-agent: cleancode-webcrawler\nDisallow: /search\n\nUser-agent: otherbot\nDisallow: /\n";
+
+        RobotsRules rules = RobotsTxtParser.parse(robotsTxt, TOKEN);
+
+        assertFalse(rules.isAllowed("/search?q=test"));
+        assertTrue(rules.isAllowed("/"));
+    }
+
+    @Test
+    void testOtherAgentsAreIgnored() {
+        RobotsRules rules = RobotsTxtParser.parse("User-agent: otherbot\nDisallow: /\n", TOKEN);
+
+        assertTrue(rules.isAllowed("/"));
+        assertEquals(0, rules.getRuleCount());
+    }
+
+    @Test
+    void testEmptyDisallowAllowsEverything() {
+        RobotsRules rules = RobotsTxtParser.parse("User-agent: *\nDisallow:\n", TOKEN);
+
+        assertTrue(rules.isAllowed("/anything"));
+    }
+
+    @Test
+    void testInvalidLinesAreIgnored() {
+        RobotsRules rules = RobotsTxtParser.parse("<html>not a robots.txt</html>\nUser-agent: *\nCrawl-delay: soon\nDisallow: /tmp\n", TOKEN);
+
+        assertFalse(rules.isAllowed("/tmp/file"));
+        assertEquals(0, rules.getCrawlDelayMillis());
+    }
+
+    @Test
+    void testUserAgentMustMatchWholeProductToken() {
+        String robotsTxt = "User-agent: crawler\nDisallow: /\n\nUser-agent: cleancode\nDisallow: /\n\nUser-agent: *\nDisallow: /tmp\n";
+
+        RobotsRules rules = RobotsTxtParser.parse(robotsTxt, TOKEN);
+
+        assertTrue(rules.isAllowed("/articles"));
+        assertFalse(rules.isAllowed("/tmp/file"));
+    }
+
+    @Test
+    void testUserAgentWithVersionMatchesCaseInsensitively() {
+        RobotsRules rules = RobotsTxtParser.parse("User-agent: CLEANCODE-WEBCRAWLER/1.0\nDisallow: /admin\n", TOKEN);
+
+        assertFalse(rules.isAllowed("/admin"));
+    }
+
+    @Test
+    void testOtherRecordsDoNotSelectGroup() {
+        String robotsTxt = "User-agent: cleancode-webcrawler\nSitemap: https://example.com/sitemap.xml\n\nUser-agent: *\nDisallow: /private\n";
+
+        RobotsRules rules = RobotsTxtParser.parse(robotsTxt, TOKEN);
+
+        assertFalse(rules.isAllowed("/private"));
+    }
+}
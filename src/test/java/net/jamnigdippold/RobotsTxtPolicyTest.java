@@ -0,0 +1,125 @@
+package net.jamnigdippold;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RobotsTxtPolicyTest {
+    private RobotsTxtPolicy robotsTxtPolicy;
+    private HttpClient httpClient;
+    private HostPolitenessScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        httpClient = mock(HttpClient.class);
+        scheduler = spy(new HostPolitenessScheduler(2, 10_000));
+        robotsTxtPolicy = spy(new RobotsTxtPolicy(httpClient, scheduler, TimeUnit.HOURS.toMillis(1)));
+        doReturn(0L).when(robotsTxtPolicy).currentTimeMillis();
+    }
+
+    @Test
+    void testRobotsTxtIsFetchedOncePerOrigin() throws IOException {
+        mockRobotsTxt(200, "User-agent: *\nDisallow: /private\n");
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+
+        assertFalse(robotsTxtPolicy.isAllowed("https://example.com/private/page"));
+        assertTrue(robotsTxtPolicy.isAllowed("https://EXAMPLE.com/public?page=2"));
+
+        verify(httpClient, times(1)).executeRequest(request.capture());
+        assertEquals("https://example.com/robots.txt", request.getValue().url().toString());
+        assertEquals(1, robotsTxtPolicy.size());
+    }
+
+    @Test
+    void testOriginsAreCachedSeparately() throws IOException {
+        mockRobotsTxt(200, "User-agent: *\nDisallow: /\n");
+
+        robotsTxtPolicy.isAllowed("https://example.com/");
+        robotsTxtPolicy.isAllowed("http://example.com/");
+        robotsTxtPolicy.isAllowed("https://example.com:8443/");
+
+        verify(httpClient, times(3)).executeRequest(any());
+    }
+
+    @Test
+    void testExpiredRulesAreFetchedAgain() throws IOException {
+        mockRobotsTxt(200, "User-agent: *\nDisallow: /private\n");
+        robotsTxtPolicy.isAllowed("https://example.com/");
+        doReturn(TimeUnit.HOURS.toMillis(1)).when(robotsTxtPolicy).currentTimeMillis();
+
+        robotsTxtPolicy.isAllowed("https://example.com/");
+
+        verify(httpClient, times(2)).executeRequest(any());
+    }
+
+    @Test
+    void testMissingRobotsTxtAllowsEverything() throws IOException {
+        mockRobotsTxt(404, "not found");
+
+        assertTrue(robotsTxtPolicy.isAllowed("https://example.com/private"));
+    }
+
+    @Test
+    void testServerErrorDisallowsEverythingForShortTime() throws IOException {
+        mockRobotsTxt(503, "unavailable");
+
+        assertFalse(robotsTxtPolicy.isAllowed("https://example.com/"));
+        doReturn(RobotsTxtPolicy.SERVER_ERROR_TIME_TO_LIVE_MILLIS).when(robotsTxtPolicy).currentTimeMillis();
+        robotsTxtPolicy.isAllowed("https://example.com/");
+
+        verify(httpClient, times(2)).executeRequest(any());
+    }
+
+    @Test
+    void testUnreachableHostIsAllowed() throws IOException {
+        doThrow(new IOException("Connection refused")).when(httpClient).executeRequest(any());
+
+        assertTrue(robotsTxtPolicy.isAllowed("https://looksRealButIsNot/"));
+    }
+
+    @Test
+    void testCrawlDelayIsAppliedToScheduler() throws IOException {
+        mockRobotsTxt(200, "User-agent: *\nCrawl-delay: 3\n");
+
+        robotsTxtPolicy.isAllowed("https://example.com/");
+
+        verify(scheduler).applyCrawlDelay("https://example.com", 3000);
+    }
+
+    @Test
+    void testRobotsTxtRequestIsScheduled() throws IOException, InterruptedException {
+        mockRobotsTxt(200, "");
+
+        robotsTxtPolicy.isAllowed("https://example.com/");
+
+        verify(scheduler).schedule(eq("https://example.com"), any());
+    }
+
+    @Test
+    void testNonHttpUrlsAreNotChecked() {
+        assertTrue(robotsTxtPolicy.isAllowed("mailto:office@example.com"));
+        assertTrue(robotsTxtPolicy.isAllowed("Not a real URL"));
+        verifyNoInteractions(httpClient);
+    }
+
+    private void mockRobotsTxt(int statusCode, String body) throws IOException {
+        doAnswer(invocationOnMock -> new Response.Builder()
+                .request(invocationOnMock.getArgument(0))
+                .protocol(Protocol.HTTP_1_1)
+                .code(statusCode)
+                .message("status " + statusCode)
+                .body(ResponseBody.create(MediaType.parse("text/plain"), body))
+                .build()).when(httpClient).executeRequest(any());
+    }
+}
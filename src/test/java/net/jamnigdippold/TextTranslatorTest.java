@@ -12,6 +12,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +37,7 @@ class TextTranslatorTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        translator = spy(new TextTranslator());
+        translator = spy(new TextTranslator(mockedClient));
         translator.setTargetLanguage("de");
     }
 
@@ -83,6 +86,7 @@ class TextTranslatorTest {
 
         assertFalse(result);
         assertEquals("Error while checking the success status of node: API-Response:{\"error\":\"No Status Field here\"}", logger.getErrorLog().get(0));
+        assertEquals(ErrorRecord.Phase.TRANSLATION, logger.getErrorRecords().get(0).getPhase());
     }
 
     @Test
@@ -100,16 +104,170 @@ class TextTranslatorTest {
     void testTranslate() {
         String input = "Headline";
         String expectedTranslation = "Überschrift";
-        doNothing().when(translator).setSourceLanguage(input);
+        doNothing().when(translator).detectSourceLanguageIfUnknown(input);
         doReturn(expectedTranslation).when(translator).getTranslatedHeadline(input);
 
         String result = translator.translate(input);
 
         assertEquals(expectedTranslation, result);
-        verify(translator).setSourceLanguage(input);
+        verify(translator).detectSourceLanguageIfUnknown(input);
         verify(translator).getTranslatedHeadline(input);
     }
 
+    @Test
+    void testTranslateAllSendsOneRequestPerBatch() {
+        doNothing().when(translator).detectSourceLanguageIfUnknown("Headline");
+        doReturn("Überschrift\nKontakt").when(translator).getTranslatedHeadline("Headline\nContact");
+
+        List<String> result = translator.translateAll(List.of("Headline", "Contact"));
+
+        assertEquals(List.of("Überschrift", "Kontakt"), result);
+        verify(translator, times(1)).getTranslatedHeadline(any());
+        verify(translator, never()).translate(any());
+    }
+
+    @Test
+    void testTranslateAllSingleHeadline() {
+        doReturn("Überschrift").when(translator).translate("Headline");
+
+        assertEquals(List.of("Überschrift"), translator.translateAll(List.of("Headline")));
+    }
+
+    @Test
+    void testTranslateAllFallsBackOnLineCountMismatch() {
+        doNothing().when(translator).detectSourceLanguageIfUnknown(any());
+        doReturn("Überschrift Kontakt").when(translator).getTranslatedHeadline("Headline\nContact");
+        doReturn("Überschrift").when(translator).translate("Headline");
+        doReturn("Kontakt").when(translator).translate("Contact");
+
+        List<String> result = translator.translateAll(List.of("Headline", "Contact"));
+
+        assertEquals(List.of("Überschrift", "Kontakt"), result);
+        assertEquals("Batch translation returned 1 lines for 2 headlines, translating them one by one", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testTranslateAllAsync() throws IOException {
+        mockResponseExtraction("{\"status\": \"success\", \"data\": {\"translatedText\": \"Überschrift\\nKontakt\"}}");
+        doReturn(CompletableFuture.completedFuture(mockedResponse)).when(translator).executeAPIRequestAsync("Headline\nContact");
+        doReturn(CompletableFuture.completedFuture(null)).when(translator).detectSourceLanguageIfUnknownAsync(any());
+
+        List<String> result = translator.translateAllAsync(List.of("Headline", "Contact")).join();
+
+        assertEquals(List.of("Überschrift", "Kontakt"), result);
+        verify(translator, never()).executeAPIRequest(any());
+    }
+
+    @Test
+    void testTranslateAllAsyncFallsBackOnLineCountMismatch() {
+        Response mismatchedResponse = createJsonResponse("{\"status\": \"success\", \"data\": {\"translatedText\": \"Überschrift Kontakt\"}}");
+        doReturn(CompletableFuture.completedFuture(mismatchedResponse)).when(translator).executeAPIRequestAsync("Headline\nContact");
+        doReturn(CompletableFuture.completedFuture(createJsonResponse("{\"status\": \"success\", \"data\": {\"translatedText\": \"Überschrift\"}}")))
+                .when(translator).executeAPIRequestAsync("Headline");
+        doReturn(CompletableFuture.completedFuture(createJsonResponse("{\"status\": \"success\", \"data\": {\"translatedText\": \"Kontakt\"}}")))
+                .when(translator).executeAPIRequestAsync("Contact");
+        doReturn(CompletableFuture.completedFuture(null)).when(translator).detectSourceLanguageIfUnknownAsync(any());
+
+        List<String> result = translator.translateAllAsync(List.of("Headline", "Contact")).join();
+
+        assertEquals(List.of("Überschrift", "Kontakt"), result);
+        assertEquals("Batch translation returned 1 lines for 2 headlines, translating them one by one", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testTranslateAllMarksFailedBatchAsUntranslated() throws IOException {
+        mockResponseExtraction("{\"status\": \"error\"}");
+        doReturn(CompletableFuture.completedFuture(mockedResponse)).when(translator).executeAPIRequestAsync("Headline\nContact");
+        doReturn(CompletableFuture.completedFuture(null)).when(translator).detectSourceLanguageIfUnknownAsync(any());
+
+        List<String> result = translator.translateAllAsync(List.of("Headline", "Contact")).join();
+
+        assertEquals(Arrays.asList(null, null), result);
+    }
+
+    @Test
+    void testTranslateAllAsyncDetectsSourceLanguageFirst() {
+        String detectionResponse = "{\"status\": \"success\", \"data\": {\"translatedText\": \"Überschrift\", \"detectedSourceLanguage\": {\"code\": \"en\", \"name\": \"English\"}}}";
+        doReturn(CompletableFuture.completedFuture(createJsonResponse(detectionResponse))).when(translator).executeAPIRequestAsync("Headline");
+        doAnswer(invocationOnMock -> {
+            assertEquals("en", translator.getSourceLanguage());
+            return CompletableFuture.completedFuture(createJsonResponse("{\"status\": \"success\", \"data\": {\"translatedText\": \"Überschrift\\nKontakt\"}}"));
+        }).when(translator).executeAPIRequestAsync("Headline\nContact");
+
+        List<String> result = translator.translateAllAsync(List.of("Headline", "Contact")).join();
+
+        assertEquals(List.of("Überschrift", "Kontakt"), result);
+        assertEquals("en", translator.getSourceLanguage());
+        verify(translator, times(1)).executeAPIRequestAsync("Headline");
+        verify(translator, never()).executeAPIRequest(any());
+    }
+
+    @Test
+    void testKnownSourceLanguageSkipsAsyncDetection() {
+        translator.setSourceLanguage("en");
+
+        translator.detectSourceLanguageIfUnknownAsync("Headline").join();
+
+        assertEquals("en", translator.getSourceLanguage());
+        verify(translator, never()).executeAPIRequestAsync(any());
+    }
+
+    @Test
+    void testTranslationRequestExecutionAsyncError() {
+        mockGetAPIKey();
+        Request request = translator.createTranslationApiRequest(translator.createNewRequestBody("Headline"));
+        doReturn(CompletableFuture.failedFuture(new IOException("Timeout"))).when(mockedClient).executeRequestAsync(request);
+        translator.setClient(mockedClient);
+
+        Response response = translator.executeTranslationApiRequestAsync(request).join();
+
+        assertEquals(444, response.code());
+        assertEquals("Error while executing translation request: java.io.IOException: Timeout", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testTranslationRequestMetrics() throws IOException {
+        LongAdderCrawlMetrics metrics = new LongAdderCrawlMetrics();
+        translator.setMetrics(metrics);
+        when(mockedClient.executeRequest(any())).thenReturn(createJsonResponse("{}")).thenThrow(new IOException("Unspecified Exception"));
+        translator.setClient(mockedClient);
+
+        translator.executeTranslationApiRequest(mockedRequest);
+        translator.executeTranslationApiRequest(mockedRequest);
+
+        assertEquals(2, metrics.getSnapshot().getTimer("translation.api.time").getCount());
+        assertEquals(1, metrics.getSnapshot().getCounter("translation.api.failures"));
+    }
+
+    private Response createJsonResponse(String json) {
+        return new Response.Builder()
+                .code(200)
+                .message("ok")
+                .body(ResponseBody.create(MediaType.parse("application/json"), json))
+                .request(new Request.Builder().url("https://example.com").build())
+                .protocol(Protocol.HTTP_2)
+                .build();
+    }
+
+    @Test
+    void testSplitIntoBatches() {
+        String longHeadline = "a".repeat(TextTranslator.MAX_BATCH_LENGTH - 1);
+
+        List<List<String>> batches = translator.splitIntoBatches(List.of("b", longHeadline, "c\nd", "e"));
+
+        assertEquals(List.of(List.of("b"), List.of(longHeadline), List.of("c d", "e")), batches);
+    }
+
+    @Test
+    void testKnownSourceLanguageSkipsDetection() {
+        translator.setSourceLanguage("en");
+
+        translator.detectSourceLanguageIfUnknown("Headline");
+
+        assertEquals("en", translator.getSourceLanguage());
+        verify(translator, never()).executeAPIRequest(any());
+    }
+
     @Test
     void testCorrectSettingOfSourceLanguageEnglish() throws IOException {
         String expectedSourceLanguage = "en";
@@ -119,7 +277,7 @@ class TextTranslatorTest {
         mockResponseExtraction(expectedResponseOutput);
         doReturn(mockedResponse).when(translator).executeAPIRequest("Heading h1");
 
-        translator.setSourceLanguage(headlineText);
+        translator.detectSourceLanguageIfUnknown(headlineText);
 
         assertEquals(expectedSourceLanguage, translator.getSourceLanguage());
     }
@@ -133,7 +291,7 @@ class TextTranslatorTest {
         mockResponseExtraction(expectedResponseOutput);
         doReturn(mockedResponse).when(translator).executeAPIRequest("Heading h1");
 
-        translator.setSourceLanguage(headlineText);
+        translator.detectSourceLanguageIfUnknown(headlineText);
 
         assertEquals(expectedSourceLanguage, translator.getSourceLanguage());
     }
@@ -175,7 +333,7 @@ class TextTranslatorTest {
         String expectedResponseOutput = "{\n\"status\": \"success\",\n\"data\": {\n\"translatedText\": \"Überschrift h1\"\n}\n}";
         mockResponseExtraction(expectedResponseOutput);
 
-        String actualReturnValue = translator.extractTranslatedText(mockedResponse, "Headline 1");
+        String actualReturnValue = translator.extractTranslatedText(mockedResponse);
 
         assertEquals(expectedReturnValue, actualReturnValue);
     }
@@ -186,10 +344,14 @@ class TextTranslatorTest {
         mockResponseExtraction(expectedResponseOutput);
         doThrow(new IOException("Unspecified Exception")).when(mockedResponseBody).string();
 
-        String output = translator.extractTranslatedText(mockedResponse, "Headline 1");
+        String output = translator.extractTranslatedText(mockedResponse);
 
-        assertEquals("Headline 1", output);
+        assertNull(output);
         assertEquals("Error while trying to extract translated text: java.io.IOException: Unspecified Exception", logger.getErrorLog().get(0));
+        ErrorRecord errorRecord = logger.getErrorRecords().get(0);
+        assertEquals(ErrorRecord.Phase.TRANSLATION, errorRecord.getPhase());
+        assertEquals(translator.getApiUrl(), errorRecord.getUrl());
+        assertEquals("java.io.IOException", errorRecord.getExceptionClass());
     }
 
     @Test
@@ -197,9 +359,9 @@ class TextTranslatorTest {
         String expectedResponseOutput = "{\n\"status\": \"success\",\n\"notRealDataField\": {\n\"translatedText\": \"Ueberschrift h1\"\n}\n}";
         mockResponseExtraction(expectedResponseOutput);
 
-        String output = translator.extractTranslatedText(mockedResponse, "Headline 1");
+        String output = translator.extractTranslatedText(mockedResponse);
 
-        assertEquals("Headline 1", output);
+        assertNull(output);
         assertEquals("Error while trying to extract translated text, the Json format is incorrect: java.lang.NullPointerException", logger.getErrorLog().get(0));
     }
 
@@ -208,9 +370,9 @@ class TextTranslatorTest {
         String expectedResponseOutput = "{\n\"status\": \"error\",\n\"message\": \"source language cannot be the same as target language\"\n}";
         mockResponseExtraction(expectedResponseOutput);
 
-        String actualReturnValue = translator.extractTranslatedText(mockedResponse, "Headline 1");
+        String actualReturnValue = translator.extractTranslatedText(mockedResponse);
 
-        assertEquals("Headline 1", actualReturnValue);
+        assertNull(actualReturnValue);
     }
 
     @Test
@@ -271,14 +433,13 @@ class TextTranslatorTest {
 
     @Test
     void testGetTranslatedHeadlineFallback() throws IOException {
-        String expectedTranslatedHeadline = "Heading h1";
         String expectedResponseOutput = "{\n\"status\": \"error\",\n\"message\": \"source language cannot be the same as target language\"\n}";
         mockResponseExtraction(expectedResponseOutput);
         doReturn(mockedResponse).when(translator).executeAPIRequest("Heading h1");
 
         String actualTranslatedHeadline = translator.getTranslatedHeadline("Heading h1");
 
-        assertEquals("Heading h1", actualTranslatedHeadline);
+        assertNull(actualTranslatedHeadline);
     }
 
     @Test
@@ -347,6 +508,17 @@ class TextTranslatorTest {
         assertEquals(expectedRequest.headers(), actualRequestOutput.headers());
     }
 
+    @Test
+    void testTranslationApiRequestToConfiguredUrl() {
+        mockGetAPIKey();
+        translator.setApiUrl("http://127.0.0.1:8080/translate");
+
+        Request actualRequestOutput = translator.createTranslationApiRequest(new FormBody.Builder().build());
+
+        assertEquals("http://127.0.0.1:8080/translate", actualRequestOutput.url().toString());
+        assertEquals("127.0.0.1", actualRequestOutput.header("X-RapidAPI-Host"));
+    }
+
     private void createRequest() {
         String mockApiKey = "mocked-api-key";
         expectedRequest = new Request.Builder()
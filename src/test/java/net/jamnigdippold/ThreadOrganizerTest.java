@@ -3,41 +3,44 @@ package net.jamnigdippold;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedConstruction;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class ThreadOrganizerTest {
     private final String[] websiteUrls = {"http://example.com", "http://exampl2.com"};
     private final int[] maxDepthsOfRecursiveSearch = {2, 3};
     private final String[] languageCodes = {"en", "de"};
-    private final String outputPath = "test.md";
     private ThreadOrganizer threadOrganizer;
     private CrawlerLauncher launcher;
+    private Path outputDirectory;
+    private Path outputPath;
     private final Logger logger = ErrorLogger.getInstance();
-    MockedConstruction<FileWriter> mockedConstruction;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
         MockitoAnnotations.openMocks(this);
-        threadOrganizer = new ThreadOrganizer(websiteUrls, maxDepthsOfRecursiveSearch, languageCodes, outputPath);
+        outputDirectory = Files.createTempDirectory("report");
+        outputPath = outputDirectory.resolve("test.md");
+        threadOrganizer = spy(new ThreadOrganizer(websiteUrls, maxDepthsOfRecursiveSearch, languageCodes, outputPath.toString()));
         launcher = mock(CrawlerLauncher.class);
         threadOrganizer.setLauncher(launcher);
     }
 
     @AfterEach
-    public void tearDown() {
+    public void tearDown() throws IOException {
         threadOrganizer = null;
         logger.clearLog();
-        if (mockedConstruction != null) {
-            mockedConstruction.close();
-            mockedConstruction = null;
-        }
+        TranslationCacheFileTest.deleteRecursively(outputDirectory);
     }
 
     @Test
@@ -47,10 +50,25 @@ class ThreadOrganizerTest {
 
         threadOrganizer.startConcurrentCrawling();
 
-        verify(threadOrganizer).startCrawlers();
-        verify(threadOrganizer).getOutputFromCrawlers();
-        verify(threadOrganizer).appendLoggingErrors();
-        verify(threadOrganizer).saveOutputToFile();
+        InOrder inOrder = inOrder(threadOrganizer);
+        inOrder.verify(threadOrganizer).openOutputFile();
+        inOrder.verify(threadOrganizer).startProgressReporter();
+        inOrder.verify(threadOrganizer).startCrawlers();
+        inOrder.verify(threadOrganizer).waitForCrawlers();
+        inOrder.verify(threadOrganizer).stopProgressReporter();
+        inOrder.verify(threadOrganizer).appendLoggingErrors();
+        inOrder.verify(threadOrganizer).closeOutputFile();
+        inOrder.verify(threadOrganizer).shutdownCrawlEngine();
+    }
+
+    @Test
+    void testShutdownCrawlEngine() {
+        CrawlEngine crawlEngine = mock(CrawlEngine.class);
+        threadOrganizer.setCrawlEngine(crawlEngine);
+
+        threadOrganizer.shutdownCrawlEngine();
+
+        verify(crawlEngine).shutdown();
     }
 
     @Test
@@ -63,44 +81,95 @@ class ThreadOrganizerTest {
     }
 
     @Test
-    void testGetOutputFromCrawlers() {
-        doReturn("All outputs").when(launcher).getOutputFromCrawlers();
+    void testWaitForCrawlers() {
+        threadOrganizer.waitForCrawlers();
 
-        threadOrganizer.getOutputFromCrawlers();
+        verify(launcher).waitForCrawlersToFinish();
+    }
+
+    @Test
+    void testCrawlersWriteIntoOutputFile() throws IOException {
+        ArgumentCaptor<ReportSection> reportSection = ArgumentCaptor.forClass(ReportSection.class);
+        threadOrganizer.openOutputFile();
+        verify(launcher).setReportSection(reportSection.capture());
+        ReportSection crawlerSection = reportSection.getValue().addChild();
+        crawlerSection.setPage(new PageResult("https://example.com/über", 1));
+        crawlerSection.close();
 
-        assertEquals("All outputs", threadOrganizer.getOutput());
-        verify(launcher).waitForCrawlerThreadsToFinish();
+        threadOrganizer.closeOutputFile();
+
+        assertEquals("<br>--> link to <a>https://example.com/über</a>\n\n", Files.readString(outputPath, StandardCharsets.UTF_8));
     }
 
     @Test
-    void testSaveOutputToFile() throws Exception {
-        mockedConstruction = mockConstruction(FileWriter.class);
-        threadOrganizer.getOutputFromCrawlers();
+    void testLoggingErrorsAreWrittenLast() throws IOException {
+        threadOrganizer.openOutputFile();
 
-        threadOrganizer.saveOutputToFile();
+        threadOrganizer.appendLoggingErrors();
+        threadOrganizer.closeOutputFile();
 
-        verify(mockedConstruction.constructed().get(0)).write(threadOrganizer.getOutput());
-        verify(mockedConstruction.constructed().get(0)).close();
+        assertEquals("# <br> ------- ERRORS ------- <br>\n- No errors thrown while executing program <br>\n", Files.readString(outputPath, StandardCharsets.UTF_8));
     }
 
     @Test
-    void testAppendLoggingErrorsToOutput() {
-        String expectedOutput = "# <br> ------- ERRORS ------- <br>\n- No errors thrown while executing program <br>\n";
+    void testOutputFormatFromConfiguration() throws IOException {
+        System.setProperty("crawler.output.format", "jsonl");
+        threadOrganizer = spy(new ThreadOrganizer(websiteUrls, maxDepthsOfRecursiveSearch, languageCodes, outputPath.toString()));
+        System.clearProperty("crawler.output.format");
+        threadOrganizer.setLauncher(launcher);
 
+        logger.logError("Error whilst connecting");
+
+        threadOrganizer.openOutputFile();
         threadOrganizer.appendLoggingErrors();
+        threadOrganizer.closeOutputFile();
+
+        assertTrue(Files.readString(outputPath, StandardCharsets.UTF_8).startsWith("{\"error\":\"Error whilst connecting\",\"phase\":\"general\","));
+    }
+
+    @Test
+    void testBinaryReportIsWrittenAlongside() throws IOException {
+        Path binaryPath = outputDirectory.resolve("test.bin");
+        System.setProperty("crawler.output.binaryFile", binaryPath.toString());
+        threadOrganizer = spy(new ThreadOrganizer(websiteUrls, maxDepthsOfRecursiveSearch, languageCodes, outputPath.toString()));
+        System.clearProperty("crawler.output.binaryFile");
+        threadOrganizer.setLauncher(launcher);
+        ArgumentCaptor<ReportSection> reportSection = ArgumentCaptor.forClass(ReportSection.class);
+        threadOrganizer.openOutputFile();
+        verify(launcher).setReportSection(reportSection.capture());
+        ReportSection crawlerSection = reportSection.getValue().addChild();
+        crawlerSection.setPage(new PageResult("https://example.com", 1));
+        crawlerSection.close();
+
+        threadOrganizer.closeOutputFile();
+
+        assertTrue(Files.readString(outputPath, StandardCharsets.UTF_8).contains("https://example.com"));
+        try (BinaryReportReader reader = new BinaryReportReader(binaryPath)) {
+            assertEquals(1, reader.getPageCount());
+        }
+    }
+
+    @Test
+    void testOpenOutputFileException() {
+        threadOrganizer = new ThreadOrganizer(websiteUrls, maxDepthsOfRecursiveSearch, languageCodes, outputDirectory.resolve("missing/test.md").toString());
+        threadOrganizer.setLauncher(launcher);
+
+        threadOrganizer.openOutputFile();
 
-        assertEquals(expectedOutput, threadOrganizer.getOutput());
+        assertTrue(logger.getErrorLog().get(0).startsWith("Error whilst opening output file "));
+        verify(launcher).setReportSection(any());
     }
 
     @Test
-    void testSaveOutputToFileException() throws IOException {
-        mockedConstruction = mockConstruction(FileWriter.class, (mock, context) -> {
-            doThrow(new IOException("java.io.FileNotFoundException in line 100")).when(mock).write(anyString());
-        });
+    void testCloseOutputFileException() throws IOException {
+        ReportWriter reportWriter = mock(ReportWriter.class);
+        doReturn(new ReportSection()).when(reportWriter).getRootSection();
+        doThrow(new IOException("java.io.FileNotFoundException in line 100")).when(reportWriter).close();
+        doReturn(reportWriter).when(threadOrganizer).createReportWriter();
+        threadOrganizer.openOutputFile();
 
-        threadOrganizer.saveOutputToFile();
+        threadOrganizer.closeOutputFile();
 
         assertEquals("Error while closing file writer: java.io.IOException: java.io.FileNotFoundException in line 100", logger.getErrorLog().get(0));
-        verify(mockedConstruction.constructed().get(0)).close();
     }
 }
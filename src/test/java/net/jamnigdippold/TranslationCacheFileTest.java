@@ -0,0 +1,209 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranslationCacheFileTest {
+    private TranslationCacheFile cacheFile;
+    private TranslationCache translationCache;
+    private final Logger logger = ErrorLogger.getInstance();
+    private Path cacheDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("translation-cache");
+        cacheFile = new TranslationCacheFile(cacheDirectory.resolve("translations"));
+        translationCache = new TranslationCache(100, 60_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        cacheFile.close();
+        logger.clearLog();
+        deleteRecursively(cacheDirectory);
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testTranslationsSurviveRestart() throws ExecutionException, InterruptedException {
+        long now = System.currentTimeMillis();
+        cacheFile.append("en", "de", "Contact", "Kontakt", now);
+        cacheFile.append("en", "de", "Line\nbreak \"quoted\"", "Zeilen\numbruch", now);
+        cacheFile.close();
+
+        new TranslationCacheFile(cacheDirectory.resolve("translations")).loadAsync(translationCache).get();
+
+        assertEquals("Kontakt", translationCache.get("en", "de", "Contact"));
+        assertEquals("Zeilen\numbruch", translationCache.get("en", "de", "Line\nbreak \"quoted\""));
+    }
+
+    @Test
+    void testAppendIsIncremental() throws IOException {
+        cacheFile.append("en", "de", "Contact", "Kontakt", 0L);
+
+        assertEquals(1, Files.readAllLines(cacheFile.getFile()).size());
+
+        cacheFile.append("en", "de", "News", "Neuigkeiten", 0L);
+
+        assertEquals(2, Files.readAllLines(cacheFile.getFile()).size());
+    }
+
+    @Test
+    void testLoadWithoutFile() {
+        cacheFile.load(translationCache);
+
+        assertEquals(0, translationCache.size());
+        assertTrue(logger.getErrorLog().isEmpty());
+    }
+
+    @Test
+    void testTruncatedEntryIsSkipped() throws IOException {
+        cacheFile.append("en", "de", "Contact", "Kontakt", System.currentTimeMillis());
+        cacheFile.close();
+        Files.writeString(cacheFile.getFile(), "{\"source\":\"en\",\"tar", StandardOpenOption.APPEND);
+
+        cacheFile.load(translationCache);
+
+        assertEquals(1, translationCache.size());
+        assertEquals("Skipped 1 unreadable entries in translation cache file " + cacheFile.getFile(), logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testLoadCompactsExpiredAndSupersededEntries() throws IOException {
+        long now = System.currentTimeMillis();
+        cacheFile.append("en", "de", "Contact", "Kontaktformular", now - 1000);
+        cacheFile.append("en", "de", "News", "Neuigkeiten", now - 120_000);
+        cacheFile.append("en", "de", "Contact", "Kontakt", now);
+
+        cacheFile.load(translationCache);
+
+        assertEquals("Kontakt", translationCache.get("en", "de", "Contact"));
+        assertNull(translationCache.get("en", "de", "News"));
+        List<String> lines = Files.readAllLines(cacheFile.getFile());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"translation\":\"Kontakt\""));
+    }
+
+    @Test
+    void testLoadKeepsOnlyAsManyEntriesAsTheCacheHolds() throws IOException {
+        long now = System.currentTimeMillis();
+        cacheFile.append("en", "de", "Contact", "Kontakt", now);
+        cacheFile.append("en", "de", "News", "Neuigkeiten", now);
+        cacheFile.append("en", "de", "Imprint", "Impressum", now);
+
+        cacheFile.load(new TranslationCache(2, 60_000));
+
+        List<String> lines = Files.readAllLines(cacheFile.getFile());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"text\":\"News\""));
+    }
+
+    @Test
+    void testAppendAfterCompactionGoesToCompactedFile() throws IOException {
+        cacheFile.append("en", "de", "Contact", "Kontakt", 0L);
+
+        cacheFile.load(translationCache);
+        cacheFile.append("en", "de", "News", "Neuigkeiten", System.currentTimeMillis());
+
+        List<String> lines = Files.readAllLines(cacheFile.getFile());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"text\":\"News\""));
+        assertFalse(Files.exists(cacheFile.getFile().resolveSibling(TranslationCacheFile.FILE_NAME + ".tmp")));
+    }
+
+    @Test
+    void testUnchangedFileIsNotRewritten() throws IOException {
+        cacheFile.append("en", "de", "Contact", "Kontakt", System.currentTimeMillis());
+        cacheFile.close();
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(cacheFile.getFile(), lastModified);
+
+        cacheFile.load(translationCache);
+
+        assertEquals(lastModified, Files.getLastModifiedTime(cacheFile.getFile()));
+    }
+
+    @Test
+    void testAppendDoesNotWaitForLoading() throws Exception {
+        cacheFile.append("en", "de", "Contact", "Kontakt", 0L);
+        cacheFile.close();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch loadReleased = new CountDownLatch(1);
+        TranslationCacheFile slowCacheFile = new TranslationCacheFile(cacheDirectory.resolve("translations")) {
+            @Override
+            protected Entry parseEntry(String line) {
+                loadStarted.countDown();
+                try {
+                    loadReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.parseEntry(line);
+            }
+        };
+        CompletableFuture<Void> loading = slowCacheFile.loadAsync(translationCache);
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture.runAsync(() -> slowCacheFile.append("en", "de", "News", "Neuigkeiten", System.currentTimeMillis()))
+                .get(5, TimeUnit.SECONDS);
+        loadReleased.countDown();
+        loading.get(5, TimeUnit.SECONDS);
+        slowCacheFile.close();
+
+        List<String> lines = Files.readAllLines(cacheFile.getFile());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"text\":\"News\""));
+    }
+
+    @Test
+    void testCloseWritesEntriesAppendedWhileLoading() throws Exception {
+        cacheFile.append("en", "de", "Contact", "Kontakt", System.currentTimeMillis());
+        cacheFile.close();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch loadReleased = new CountDownLatch(1);
+        TranslationCacheFile slowCacheFile = new TranslationCacheFile(cacheDirectory.resolve("translations")) {
+            @Override
+            protected Entry parseEntry(String line) {
+                loadStarted.countDown();
+                try {
+                    loadReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.parseEntry(line);
+            }
+        };
+        slowCacheFile.loadAsync(translationCache);
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        slowCacheFile.append("en", "de", "News", "Neuigkeiten", System.currentTimeMillis());
+
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(slowCacheFile::close);
+        loadReleased.countDown();
+        closing.get(5, TimeUnit.SECONDS);
+
+        List<String> lines = Files.readAllLines(cacheFile.getFile());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"text\":\"News\""));
+    }
+}
@@ -0,0 +1,101 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TranslationCacheTest {
+    private TranslationCache translationCache;
+
+    @BeforeEach
+    public void setUp() {
+        translationCache = spy(new TranslationCache(2, 1000));
+        doReturn(0L).when(translationCache).currentTimeMillis();
+    }
+
+    @Test
+    void testCacheHit() {
+        translationCache.put("en", "de", "Contact", "Kontakt");
+
+        assertEquals("Kontakt", translationCache.get("en", "de", "Contact"));
+        assertEquals(1, translationCache.getHitCount());
+        assertEquals(0, translationCache.getMissCount());
+    }
+
+    @Test
+    void testCacheMiss() {
+        translationCache.put("en", "de", "Contact", "Kontakt");
+
+        assertNull(translationCache.get("en", "fr", "Contact"));
+        assertNull(translationCache.get("auto", "de", "Contact"));
+        assertNull(translationCache.get("en", "de", "News"));
+        assertEquals(0, translationCache.getHitCount());
+        assertEquals(3, translationCache.getMissCount());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        translationCache.put("en", "de", "Contact", "Kontakt");
+        translationCache.put("en", "de", "News", "Neuigkeiten");
+        translationCache.get("en", "de", "Contact");
+
+        translationCache.put("en", "de", "About", "Über uns");
+
+        assertEquals(2, translationCache.size());
+        assertEquals("Kontakt", translationCache.get("en", "de", "Contact"));
+        assertNull(translationCache.get("en", "de", "News"));
+    }
+
+    @Test
+    void testExpiredEntryIsRemoved() {
+        translationCache.put("en", "de", "Contact", "Kontakt");
+        doReturn(1000L).when(translationCache).currentTimeMillis();
+
+        assertNull(translationCache.get("en", "de", "Contact"));
+        assertEquals(0, translationCache.size());
+        assertEquals(1, translationCache.getMissCount());
+    }
+
+    @Test
+    void testPutAppendsToCacheFile() {
+        TranslationCacheFile cacheFile = mock(TranslationCacheFile.class);
+        translationCache.setCacheFile(cacheFile);
+
+        translationCache.put("en", "de", "Contact", "Kontakt");
+
+        verify(cacheFile).append("en", "de", "Contact", "Kontakt", 0L);
+    }
+
+    @Test
+    void testMissingTranslationIsNeitherCachedNorAppended() {
+        TranslationCacheFile cacheFile = mock(TranslationCacheFile.class);
+        translationCache.setCacheFile(cacheFile);
+
+        translationCache.put("en", "de", "Contact", null);
+
+        assertEquals(0, translationCache.size());
+        verifyNoInteractions(cacheFile);
+    }
+
+    @Test
+    void testRestoreKeepsNewerTranslation() {
+        translationCache.put("en", "de", "Contact", "Kontakt");
+
+        translationCache.restore("en", "de", "Contact", "Kontaktformular", 0L);
+        translationCache.restore("en", "de", "News", "Neuigkeiten", 0L);
+
+        assertEquals("Kontakt", translationCache.get("en", "de", "Contact"));
+        assertEquals("Neuigkeiten", translationCache.get("en", "de", "News"));
+    }
+
+    @Test
+    void testRestoreSkipsExpiredTranslation() {
+        doReturn(5000L).when(translationCache).currentTimeMillis();
+
+        assertFalse(translationCache.restore("en", "de", "Contact", "Kontakt", 3000L));
+
+        assertEquals(0, translationCache.size());
+    }
+}
@@ -0,0 +1,55 @@
+package net.jamnigdippold;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UrlCanonicalizerTest {
+    @Test
+    void testLowercasesSchemeAndHost() {
+        assertEquals("https://example.com/About", UrlCanonicalizer.canonicalize("HTTPS://Example.COM/About"));
+    }
+
+    @Test
+    void testStripsFragment() {
+        assertEquals("https://example.com/page", UrlCanonicalizer.canonicalize("https://example.com/page#section"));
+    }
+
+    @Test
+    void testRemovesDefaultPorts() {
+        assertEquals("http://example.com/", UrlCanonicalizer.canonicalize("http://example.com:80"));
+        assertEquals("https://example.com/", UrlCanonicalizer.canonicalize("https://example.com:443/"));
+    }
+
+    @Test
+    void testKeepsNonDefaultPort() {
+        assertEquals("https://example.com:8443/", UrlCanonicalizer.canonicalize("https://example.com:8443"));
+    }
+
+    @Test
+    void testNormalizesTrailingSlash() {
+        assertEquals("https://example.com/about", UrlCanonicalizer.canonicalize("https://example.com/about/"));
+        assertEquals("https://example.com/", UrlCanonicalizer.canonicalize("https://example.com"));
+    }
+
+    @Test
+    void testKeepsQuery() {
+        assertEquals("https://example.com/search?q=Crawler", UrlCanonicalizer.canonicalize(" https://example.com/search/?q=Crawler#results "));
+    }
+
+    @Test
+    void testInvalidUrlIsReturnedTrimmed() {
+        assertEquals("Not a real URL", UrlCanonicalizer.canonicalize("Not a real URL#anchor"));
+        assertEquals("./relativeUrl", UrlCanonicalizer.canonicalize("./relativeUrl"));
+    }
+
+    @Test
+    void testGetHost() {
+        assertEquals("example.com", UrlCanonicalizer.getHost("https://EXAMPLE.com:8080/about?page=1"));
+    }
+
+    @Test
+    void testGetHostOfInvalidUrl() {
+        assertEquals("not a url", UrlCanonicalizer.getHost("not a url"));
+    }
+}
@@ -1,6 +1,7 @@
 package net.jamnigdippold;
 
 import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -14,9 +15,13 @@ import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,6 +49,7 @@ class WebsiteCrawlerTest {
         mockedDocument = Jsoup.parse(htmlMock);
 
         webCrawler = spy(new WebsiteCrawler("https://example.com", 1, "de"));
+        webCrawler.setCrawlEngine(createSameThreadCrawlEngine());
 
         doAnswer(invocationOnMock -> {
             webCrawler.setWebsiteDocumentConnection(mockedDocument);
@@ -51,6 +57,19 @@ class WebsiteCrawlerTest {
         }).when(webCrawler).establishConnection();
     }
 
+    private CrawlEngine createSameThreadCrawlEngine() {
+        ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocationOnMock -> {
+            ((Runnable) invocationOnMock.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setPageFetcherType(CrawlEngine.PageFetcherType.JSOUP);
+        configuration.setRequestsPerSecondPerHost(1000);
+        configuration.setRobotsTxtEnabled(false);
+        return new CrawlEngine(executor, configuration);
+    }
+
     @AfterEach
     public void tearDown() {
         logger.clearLog();
@@ -128,9 +147,53 @@ class WebsiteCrawlerTest {
         verify(webCrawler).initializeTranslator();
         verify(webCrawler).detectSourceLanguage();
         verify(webCrawler).outputInput();
-        verify(webCrawler).outputCrawledHeadlines();
+        verify(webCrawler).translateHeadlines();
         verify(webCrawler).crawlWebsiteLinks();
         verify(webCrawler).recursivelyCrawlLinkedWebsites();
+        verify(webCrawler).outputCrawledHeadlines();
+        verify(webCrawler).closeOutput();
+    }
+
+    @Test
+    void testHeadlinesAreFilledInBeforeLinkedWebsites() {
+        webCrawler.setTranslator(translator);
+        CompletableFuture<List<String>> pendingTranslation = new CompletableFuture<>();
+        doReturn(pendingTranslation).when(translator).translateAllAsync(List.of("Heading h1"));
+        webCrawler.setCrawledHeadlines(addElements());
+        webCrawler.setUpOutput();
+
+        webCrawler.translateHeadlines();
+        webCrawler.getReportSection().addChild().setPage(new PageResult("https://example.com", 1));
+        pendingTranslation.complete(List.of("Überschrift h1"));
+        webCrawler.outputCrawledHeadlines();
+
+        assertTrue(webCrawler.getOutput().endsWith("# Überschrift h1\n\n<br>--> link to <a>https://example.com</a>\n\n"));
+    }
+
+    @Test
+    void testFailedTranslationKeepsOriginalHeadlines() {
+        webCrawler.setTranslator(translator);
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("Api down"))).when(translator).translateAllAsync(any());
+        webCrawler.setCrawledHeadlines(addElements());
+        webCrawler.setWebsiteUrl("https://example.com");
+        webCrawler.setUpOutput();
+
+        webCrawler.outputCrawledHeadlines();
+
+        assertEquals("input: <a>https://example.com</a>\n<br>depth: 1\n<br>source language: auto\n<br>Target language: de\n<br>summary:\n" + "# Heading h1\n\n", webCrawler.getOutput());
+        assertEquals("Error whilst translating headlines of https://example.com: java.lang.IllegalStateException: Api down", logger.getErrorLog().get(0));
+    }
+
+    @Test
+    void testUntranslatedHeadlineKeepsOriginalText() {
+        webCrawler.setTranslator(translator);
+        doReturn(CompletableFuture.completedFuture(Collections.singletonList(null))).when(translator).translateAllAsync(any());
+        webCrawler.setCrawledHeadlines(addElements());
+        webCrawler.setUpOutput();
+
+        webCrawler.outputCrawledHeadlines();
+
+        assertTrue(webCrawler.getOutput().endsWith("# Heading h1\n\n"));
     }
 
     @Test
@@ -144,6 +207,44 @@ class WebsiteCrawlerTest {
         assertEquals("de",webCrawler.getSourceLanguage());
     }
 
+    @Test
+    void testDetectSourceLanguageFromHtmlLangAttribute() {
+        webCrawler.setWebsiteDocumentConnection(Jsoup.parse("<html lang=\"en-US\"><body><h1>Heading h1</h1></body></html>"));
+        webCrawler.setCrawledHeadlines(addElements());
+        mockTranslator();
+
+        webCrawler.detectSourceLanguage();
+
+        assertEquals("en", webCrawler.getSourceLanguage());
+        verify(translator).setSourceLanguage("en");
+        verify(translator, never()).detectLanguage(any());
+    }
+
+    @Test
+    void testDetectSourceLanguageOncePerHost() {
+        webCrawler.setCrawledHeadlines(addElements());
+        mockTranslator();
+
+        webCrawler.detectSourceLanguage();
+        webCrawler.setWebsiteUrl("https://EXAMPLE.com/about");
+        webCrawler.detectSourceLanguage();
+
+        assertEquals("de", webCrawler.getSourceLanguage());
+        verify(translator, times(1)).detectLanguage(any());
+        verify(translator, times(2)).setSourceLanguage("de");
+    }
+
+    @Test
+    void testDetectSourceLanguageWithoutHeadlines() {
+        webCrawler.setCrawledHeadlines(new Elements());
+        mockTranslator();
+
+        webCrawler.detectSourceLanguage();
+
+        assertEquals("auto", webCrawler.getSourceLanguage());
+        verify(translator, never()).detectLanguage(any());
+    }
+
     @Test
     void testRecursiveWebsiteCrawlingBrokenLink() throws IOException {
         String link = "https://looksRealButIsNot";
@@ -173,14 +274,49 @@ class WebsiteCrawlerTest {
         assertEquals(expectedOutputMessage, webCrawler.getOutput());
     }
 
+    @Test
+    void testLinkedWebsitesAreQueuedWithoutWaiting() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setRobotsTxtEnabled(false);
+        CrawlEngine crawlEngine = new CrawlEngine(mock(ExecutorService.class), configuration);
+        webCrawler.setCrawlEngine(crawlEngine);
+        webCrawler.setCrawledLinks(List.of("https://example.com/1", "https://example.com/2"));
+
+        webCrawler.recursivelyCrawlLinkedWebsites();
+
+        assertEquals(2, crawlEngine.getMetrics().getSnapshot().getGauge(CrawlEngine.QUEUED_DEPTH_GAUGE_PREFIX + 1));
+        crawlEngine.shutdown();
+    }
+
     @Test
     void testRecursiveWebsiteCrawlingAtHigherDepth() throws IOException {
         mockJsoup();
-        mockCrawlerCreation();
+        mockCrawlerCreation(true);
+        ArrayList<String> crawledLinks = new ArrayList<>();
+        crawledLinks.add("https://example.com/1");
+
+        webCrawler.setCrawledLinks(crawledLinks);
+        webCrawler.setMaxDepthOfRecursiveSearch(2);
+        webCrawler.recursivelyCrawlLinkedWebsites();
+
+        assertEquals("<br>--> link to <a>https://example.com/1</a>\n" +
+                "\n" +
+                "<br>----> link to <a>https://example.com/2</a>\n" +
+                "\n" +
+                "<br>------> link to <a>https://example.com/3</a>\n" +
+                "\n", webCrawler.getOutput());
+    }
+
+    @Test
+    void testRecursiveWebsiteCrawlingSkipsVisitedUrls() throws IOException {
+        mockJsoup();
+        mockCrawlerCreation(false);
         ArrayList<String> crawledLinks = new ArrayList<>();
         crawledLinks.add("https://example.com");
+        crawledLinks.add("https://Example.com:443/#top");
 
         webCrawler.setCrawledLinks(crawledLinks);
+        webCrawler.setVisitedUrls(new HashVisitedUrlStore());
         webCrawler.setMaxDepthOfRecursiveSearch(2);
         webCrawler.recursivelyCrawlLinkedWebsites();
 
@@ -188,28 +324,27 @@ class WebsiteCrawlerTest {
                 "\n" +
                 "<br>----> link to <a>https://example.com</a>\n" +
                 "\n" +
-                "<br>------> link to <a>https://example.com</a>\n" +
+                "<br>--> link to <a>https://Example.com:443/#top</a>\n" +
                 "\n", webCrawler.getOutput());
+        verify(mockedCrawlerConstruction.constructed().get(0)).startCrawling();
+        verify(mockedCrawlerConstruction.constructed().get(1), never()).startCrawling();
+        verify(mockedCrawlerConstruction.constructed().get(2), never()).startCrawling();
     }
 
-    void mockCrawlerCreation() {
+    void mockCrawlerCreation(boolean linkToNextDepth) {
         mockedCrawlerConstruction = mockConstruction(WebsiteCrawler.class,
                 (mock, context) -> {
                     setMockedMethodeToCallRealMethods(mock);
                     mock.initializeValues((String) context.arguments().get(0), (int) context.arguments().get(1), (String) context.arguments().get(2), (int) context.arguments().get(3));
                     doAnswer(invocationOnMock -> {
                         ArrayList<String> crawledLinks = new ArrayList<>();
-                        crawledLinks.add("https://example.com");
+                        crawledLinks.add(linkToNextDepth ? "https://example.com/" + ((int) context.arguments().get(3) + 1) : "https://example.com");
                         mock.setCrawledLinks(crawledLinks);
                         mock.outputInput();
 
                         mock.recursivelyCrawlLinkedWebsites();
                         return null;
                     }).when(mock).startCrawling();
-                    doAnswer(invocationOnMock -> {
-                        mock.run();
-                        return null;
-                    }).when(mock).start();
                 });
     }
 
@@ -220,11 +355,19 @@ class WebsiteCrawlerTest {
         doCallRealMethod().when(mock).setMaxDepthOfRecursiveSearch(anyInt());
         doCallRealMethod().when(mock).convertRelativeUrlToAbsoluteURL(anyString());
         doCallRealMethod().when(mock).outputCrawledLink(anyString(), anyBoolean());
-        doCallRealMethod().when(mock).outputDepthIndicator(anyInt());
+        doCallRealMethod().when(mock).outputLink(anyString(), any());
+        doCallRealMethod().when(mock).setPageResult(any());
         doCallRealMethod().when(mock).recursivelyCrawlLinkedWebsites();
         doCallRealMethod().when(mock).getOutput();
         doCallRealMethod().when(mock).outputInput();
         doCallRealMethod().when(mock).run();
+        doCallRealMethod().when(mock).crawl();
+        doCallRealMethod().when(mock).closeOutput();
+        doCallRealMethod().when(mock).setReportSection(any());
+        doCallRealMethod().when(mock).fetchWebsite();
+        doCallRealMethod().when(mock).isUnreachable();
+        doCallRealMethod().when(mock).setCrawlEngine(any());
+        doCallRealMethod().when(mock).setVisitedUrls(any());
     }
 
     @Test
@@ -253,13 +396,37 @@ class WebsiteCrawlerTest {
 
         webCrawler.initializeTranslator();
 
-        assertEquals("de", ((TextTranslator) webCrawler.getTranslator()).getTargetLanguage());
+        assertTrue(webCrawler.getTranslator() instanceof CachingTranslator);
+        assertEquals("de", ((CachingTranslator) webCrawler.getTranslator()).getTranslator().getTargetLanguage());
+    }
+
+    @Test
+    void testTranslatorUsesApiUrlOfCrawlEngine() {
+        CrawlerConfiguration configuration = new CrawlerConfiguration();
+        configuration.setTranslationApiUrl("http://127.0.0.1:8080/translate");
+        webCrawler.setCrawlEngine(new CrawlEngine(mock(ExecutorService.class), configuration));
+
+        webCrawler.initializeTranslator();
+
+        TextTranslator textTranslator = (TextTranslator) ((CachingTranslator) webCrawler.getTranslator()).getTranslator();
+        assertEquals("http://127.0.0.1:8080/translate", textTranslator.getApiUrl());
+    }
+
+    @Test
+    void testTranslatorsShareHttpClientOfCrawlEngine() {
+        webCrawler.initializeTranslator();
+        TextTranslator firstTranslator = (TextTranslator) ((CachingTranslator) webCrawler.getTranslator()).getTranslator();
+        webCrawler.initializeTranslator();
+        TextTranslator secondTranslator = (TextTranslator) ((CachingTranslator) webCrawler.getTranslator()).getTranslator();
+
+        assertNotSame(firstTranslator, secondTranslator);
+        assertSame(firstTranslator.getClient(), secondTranslator.getClient());
     }
 
 
     @Test
     void testPrintCrawledHeadlinesZeroDepth() {
-        String expectedPrintMessage = "# Überschrift h1\n\n";
+        String expectedPrintMessage = "input: <a>https://example.com</a>\n<br>depth: 1\n<br>source language: auto\n<br>Target language: de\n<br>summary:\n" + "# Überschrift h1\n\n";
         mockTranslator();
 
         crawledHeadlines = addElements();
@@ -272,7 +439,7 @@ class WebsiteCrawlerTest {
 
     @Test
     void testPrintCrawledHeadlinesOneDepth() {
-        String expectedPrintMessage = "# --> Überschrift h1\n\n";
+        String expectedPrintMessage = "<br>--> link to <a>https://example.com</a>\n\n# --> Überschrift h1\n\n";
         mockTranslator();
 
         crawledHeadlines = addElements();
@@ -284,9 +451,27 @@ class WebsiteCrawlerTest {
         assertEquals(expectedPrintMessage, webCrawler.getOutput());
     }
 
+    @Test
+    void testPrintCrawledHeadlinesTranslatesPageInOneBatch() {
+        String expectedPrintMessage = "input: <a>https://example.com</a>\n<br>depth: 1\n<br>source language: auto\n<br>Target language: de\n<br>summary:\n" + "# Überschrift h1\n## \n## Kontakt\n\n";
+        webCrawler.setTranslator(translator);
+        doReturn(CompletableFuture.completedFuture(List.of("Überschrift h1", "", "Kontakt"))).when(translator).translateAllAsync(List.of("Heading h1", "", "Contact"));
+
+        crawledHeadlines = addElements();
+        crawledHeadlines.add(new Element("h2"));
+        crawledHeadlines.add(new Element("h2").text("Contact"));
+        webCrawler.setCrawledHeadlines(crawledHeadlines);
+        webCrawler.setUpOutput();
+        webCrawler.outputCrawledHeadlines();
+
+        assertEquals(expectedPrintMessage, webCrawler.getOutput());
+        verify(translator, never()).translate(any());
+    }
+
     void mockTranslator() {
         webCrawler.setTranslator(translator);
         doReturn("Überschrift h1").when(translator).translate("Heading h1");
+        doReturn(CompletableFuture.completedFuture(List.of("Überschrift h1"))).when(translator).translateAllAsync(List.of("Heading h1"));
         doReturn("de").when(translator).detectLanguage("Heading h1");
     }
 
@@ -315,6 +500,116 @@ class WebsiteCrawlerTest {
 
     }
 
+    @Test
+    void testRunOnlyChecksLinksBeyondMaxDepth() {
+        PageFetcher pageFetcher = mock(PageFetcher.class);
+        CrawlEngine crawlEngine = mock(CrawlEngine.class);
+        doReturn(pageFetcher).when(crawlEngine).getPageFetcher();
+        doReturn(new NoOpCrawlMetrics()).when(crawlEngine).getMetrics();
+        doReturn(FetchResult.failure("https://example.com", 404, new IOException())).when(pageFetcher).checkLink("https://example.com");
+        webCrawler.setCrawlEngine(crawlEngine);
+        webCrawler.setCurrentDepthOfRecursiveSearch(2);
+
+        webCrawler.run();
+
+        assertEquals("<br>----> broken link <a>https://example.com</a>\n\n", webCrawler.getOutput());
+        verify(pageFetcher, never()).fetch(any());
+        verify(webCrawler, never()).startCrawling();
+    }
+
+    @Test
+    void testFetchWebsiteRecordsMetrics() {
+        PageFetcher pageFetcher = mock(PageFetcher.class);
+        CrawlEngine crawlEngine = mock(CrawlEngine.class);
+        LongAdderCrawlMetrics metrics = new LongAdderCrawlMetrics();
+        doReturn(pageFetcher).when(crawlEngine).getPageFetcher();
+        doReturn(metrics).when(crawlEngine).getMetrics();
+        doReturn(FetchResult.success("https://example.com", 200, new Document("https://example.com"), 2048)).when(pageFetcher).fetch("https://example.com");
+        webCrawler.setCrawlEngine(crawlEngine);
+
+        webCrawler.fetchWebsite();
+
+        MetricsSnapshot snapshot = metrics.getSnapshot();
+        assertEquals(1, snapshot.getTimer("crawler.fetch.time").getCount());
+        assertEquals(1, snapshot.getCounter("crawler.fetch.status.200"));
+        assertEquals(2048, snapshot.getHistogram("crawler.fetch.bytes").getSum());
+    }
+
+    @Test
+    void testFetchStatusCounterNames() {
+        assertSame(WebsiteCrawler.getFetchStatusCounterName(404), WebsiteCrawler.getFetchStatusCounterName(404));
+        assertEquals("crawler.fetch.status.404", WebsiteCrawler.getFetchStatusCounterName(404));
+        assertEquals("crawler.fetch.status.599", WebsiteCrawler.getFetchStatusCounterName(599));
+        assertEquals("crawler.fetch.status.999", WebsiteCrawler.getFetchStatusCounterName(999));
+        assertEquals("crawler.fetch.status.none", WebsiteCrawler.getFetchStatusCounterName(FetchResult.NO_STATUS_CODE));
+    }
+
+    @Test
+    void testRunFetchesPageOnlyOnce() throws IOException {
+        mockJsoup();
+        doCallRealMethod().when(webCrawler).establishConnection();
+        doAnswer(invocationOnMock -> {
+            webCrawler.establishConnection();
+            return null;
+        }).when(webCrawler).startCrawling();
+
+        webCrawler.run();
+
+        mockedJsoup.verify(() -> Jsoup.connect("https://example.com"), times(1));
+        verify(webCrawler).startCrawling();
+    }
+
+    @Test
+    void testRunClosesOutputAndReleasesPage() throws IOException {
+        mockJsoup();
+        doNothing().when(webCrawler).startCrawling();
+
+        webCrawler.run();
+
+        assertTrue(webCrawler.getReportSection().isClosed());
+        assertNull(webCrawler.getCrawledLinks());
+    }
+
+    @Test
+    void testOutputOfLinkedWebsitesIsStreamedInLinkOrder() throws IOException {
+        mockJsoup();
+        mockCrawlerCreation(true);
+        StringWriter report = new StringWriter();
+        ReportWriter reportWriter = new ReportWriter(report, new MarkdownReportRenderer());
+        webCrawler.setReportSection(reportWriter.getRootSection().addChild());
+        webCrawler.setCrawledLinks(List.of("https://example.com/1"));
+        webCrawler.setCrawledHeadlines(addElements());
+        mockTranslator();
+
+        webCrawler.outputInput();
+        webCrawler.translateHeadlines();
+        webCrawler.recursivelyCrawlLinkedWebsites();
+        assertEquals("", report.toString());
+        webCrawler.outputCrawledHeadlines();
+
+        assertTrue(report.toString().startsWith("input: <a>https://example.com</a>\n"));
+        assertTrue(report.toString().endsWith("# Überschrift h1\n\n<br>--> link to <a>https://example.com/1</a>\n\n<br>----> link to <a>https://example.com/2</a>\n\n"));
+    }
+
+    @Test
+    void testCrawledPageIsCollectedAsPageResult() {
+        mockTranslator();
+        webCrawler.setCrawledHeadlines(addElements());
+        webCrawler.setCurrentDepthOfRecursiveSearch(1);
+        webCrawler.setParentUrl("https://example.org");
+
+        webCrawler.outputInput();
+        webCrawler.outputCrawledHeadlines();
+
+        PageResult pageResult = webCrawler.getPageResult();
+        assertEquals(PageResult.Status.CRAWLED, pageResult.getStatus());
+        assertEquals(1, pageResult.getDepth());
+        assertEquals("https://example.org", pageResult.getParentUrl());
+        assertEquals("de", pageResult.getTargetLanguage());
+        assertEquals(1, pageResult.getHeadlines().get(0).getLevel());
+        assertEquals("Überschrift h1", pageResult.getHeadlines().get(0).getText());
+    }
+
     @Test
     void testIsBrokenLinkSuccess() throws IOException {
         mockJsoup();
@@ -326,15 +621,21 @@ class WebsiteCrawlerTest {
     }
 
     void mockJsoup() throws IOException {
-        Connection mockedConnection = mock(Connection.class);
-        when(mockedConnection.get()).thenAnswer(invocationOnMock -> {
+        Connection mockedConnection = mock(Connection.class, RETURNS_SELF);
+        Connection.Response mockedResponse = mock(Connection.Response.class);
+        when(mockedResponse.statusCode()).thenReturn(200);
+        when(mockedResponse.parse()).thenReturn(mockedDocument);
+        when(mockedConnection.execute()).thenAnswer(invocationOnMock -> {
             if (mockedConnection.toString().equals("Not a real URL")) {
                 throw new MalformedURLException();
             }
             if (mockedConnection.toString().equals("https://looksRealButIsNot")) {
                 throw new IOException();
             }
-            return null;
+            if (mockedConnection.toString().equals("https://example.com/missing")) {
+                throw new HttpStatusException("HTTP error fetching URL", 404, "https://example.com/missing");
+            }
+            return mockedResponse;
         });
 
         mockedJsoup = mockStatic(Jsoup.class);
@@ -345,35 +646,6 @@ class WebsiteCrawlerTest {
     }
 
 
-    @Test
-    void testPrintHeaderLevel() {
-        String expectedPrintMessage = "# ";
-        Element crawledHeadline = new Element("h1").text("Heading h1");
-
-        webCrawler.outputHeaderLevel(crawledHeadline);
-
-        assertEquals(expectedPrintMessage, webCrawler.getOutput());
-    }
-
-    @Test
-    void testPrintZeroDepth() {
-        String expectedOutputMessage = "> ";
-        webCrawler.setUpOutput();
-
-        webCrawler.outputDepthIndicator(0);
-
-        assertEquals(expectedOutputMessage, webCrawler.getOutput());
-    }
-
-    @Test
-    void testPrintHigherDepth() {
-        String expectedOutputMessage = "------> ";
-
-        webCrawler.outputDepthIndicator(3);
-
-        assertEquals(expectedOutputMessage, webCrawler.getOutput());
-    }
-
     @Test
     void testPrintWebcrawlerInput() {
         String websiteUrlInput = "input: <a>https://example.com</a>\n";
@@ -421,6 +693,16 @@ class WebsiteCrawlerTest {
         assertEquals(expectedOutputMessage, webCrawler.getOutput());
     }
 
+    @Test
+    void testPrintDisallowedLink() {
+        String expectedOutputMessage = "<br>--> disallowed link <a>http://example.com/private</a>\n\n";
+        webCrawler.setUpOutput();
+
+        webCrawler.outputDisallowedLink("http://example.com/private");
+
+        assertEquals(expectedOutputMessage, webCrawler.getOutput());
+    }
+
     private Elements addElements() {
         Elements headlineElements = new Elements();
         Element headline = new Element("h1").text("Heading h1");